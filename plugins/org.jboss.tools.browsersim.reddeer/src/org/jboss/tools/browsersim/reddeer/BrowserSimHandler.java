@@ -11,6 +11,9 @@
 package org.jboss.tools.browsersim.reddeer;
 
 import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+
 import org.apache.log4j.Logger;
 import org.eclipse.debug.core.DebugException;
 import org.eclipse.debug.core.DebugPlugin;
@@ -24,7 +27,6 @@ import org.eclipse.swt.widgets.Menu;
 import org.eclipse.swt.widgets.MenuItem;
 import org.jboss.reddeer.common.exception.WaitTimeoutExpiredException;
 import org.jboss.reddeer.common.platform.RunningPlatform;
-import org.jboss.reddeer.common.wait.AbstractWait;
 import org.jboss.reddeer.common.wait.TimePeriod;
 import org.jboss.reddeer.common.wait.WaitUntil;
 import org.jboss.reddeer.core.exception.CoreLayerException;
@@ -46,6 +48,7 @@ import org.jboss.reddeer.swt.impl.text.DefaultText;
 import org.jboss.reddeer.swt.keyboard.KeyboardFactory;
 import org.jboss.tools.browsersim.ui.launch.BrowserSimArgs;
 import org.jboss.tools.browsersim.ui.launch.BrowserSimRunner;
+import org.jboss.tools.browsersim.browser.IBrowser;
 import org.jboss.tools.browsersim.browser.PlatformUtil;
 import org.jboss.tools.browsersim.eclipse.launcher.BrowserSimLauncher;
 import org.jboss.tools.browsersim.eclipse.preferences.PreferencesUtil;
@@ -65,8 +68,10 @@ public class BrowserSimHandler {
 	private static final String CONFIGURATION = "-configuration";
 
 	private static final Logger log = Logger.getLogger(BrowserSimHandler.class);
-	private boolean urlLoadingCompleted = false;
-	private boolean urlLoadingChanged = false;
+	/** load which is in progress or which is expected to start */
+	private PageLoad currentLoad;
+	/** completed loads */
+	private final List<PageLoad> pageLoads = new ArrayList<PageLoad>();
 	private BrowserSim browserSim;
 	private Shell browserSimShell;
 
@@ -113,7 +118,10 @@ public class BrowserSimHandler {
 				BrowserSimArgs.parseArgs(parameters);
 
 				BrowserSim newBrowserSim = new BrowserSim(url, Display.getDisplay().getCurrent().getActiveShell());
+				expectPageLoad(url);
 				newBrowserSim.open(isJavaFxAvailable, isWebKitAvailable);
+				// progress events are dispatched after this runnable, none is missed
+				newBrowserSim.getBrowser().addProgressListener(new PageLoadListener(newBrowserSim.getBrowser()));
 				return newBrowserSim;
 			}
 
@@ -149,100 +157,174 @@ public class BrowserSimHandler {
 	}
 
 	/**
-	 * Waits while url is loaded in browserSim
+	 * Waits while url is loaded in browserSim. Waits for the load expected by
+	 * {@link #expectPageLoad()}, if there is no such load, the next one is
+	 * waited for.
 	 * 
-	 * @param browserSim
-	 * @param wait
 	 * @param sleepTime
-	 * @throws TimeoutException
+	 *            - interval of checking document ready state in case browser
+	 *            did not fire completed event
+	 * @param timeout
+	 * @throws WaitTimeoutExpiredException
+	 *             if url started loading but was not loaded completely
 	 */
 	public void waitWhileUrlIsLoading(final TimePeriod sleepTime, final TimePeriod timeout) {
-		setUrlLoadingChanged(false);
-		setUrlLoadingCompleted(false);
-		ProgressListener pr = new ProgressListener() {
-			@Override
-			public void completed(ProgressEvent arg0) {
-				setUrlLoadingCompleted(true);
-			}
+		PageLoad load;
+		synchronized (this) {
+			load = currentLoad != null ? currentLoad : expectPageLoad();
+		}
+		waitForPageLoad(load, sleepTime, timeout);
+	}
 
-			@Override
-			public void changed(ProgressEvent arg0) {
-				setUrlLoadingChanged(true);
+	/**
+	 * Starts timing of the next page load, has to be called before the load is
+	 * triggered (e.g. before the page is changed in LiveReload tests)
+	 * 
+	 * @return load which is completed by browser
+	 */
+	public PageLoad expectPageLoad() {
+		return expectPageLoad(null);
+	}
+
+	private synchronized PageLoad expectPageLoad(String url) {
+		currentLoad = new PageLoad(url);
+		return currentLoad;
+	}
+
+	/**
+	 * Waits until given load is completed. Returns without exception when
+	 * browser did not start loading at all.
+	 * 
+	 * @param load
+	 *            - load returned by {@link #expectPageLoad()}
+	 * @param timeout
+	 * @throws WaitTimeoutExpiredException
+	 *             if load started but was not completed
+	 */
+	public void waitForPageLoad(PageLoad load, TimePeriod timeout) {
+		waitForPageLoad(load, TimePeriod.SHORT, timeout);
+	}
+
+	private void waitForPageLoad(PageLoad load, TimePeriod sleepTime, TimePeriod timeout) {
+		long deadline = System.currentTimeMillis() + timeout.getSeconds() * 1000;
+		long remaining = deadline - System.currentTimeMillis();
+		while (!load.await(Math.min(remaining, sleepTime.getSeconds() * 1000))) {
+			// some browser engines do not fire completed event reliably
+			if (load.isStarted() && "complete".equals(getReadyState())) {
+				completed(load, getUrl());
+				break;
+			}
+			remaining = deadline - System.currentTimeMillis();
+			if (remaining <= 0) {
+				break;
 			}
-		};
-		long startTime = System.currentTimeMillis();
-		addProgressListener(pr);
-		boolean isCompleted = isUrlLoadingCompleted();
-		while (!isCompleted && (System.currentTimeMillis() < startTime + (timeout.getSeconds() * 1000))) {
 			log.info("Waiting while BrowserSim is loading URL");
-			AbstractWait.sleep(sleepTime);
-			isCompleted = isUrlLoadingCompleted();
 		}
-		removeProgressListener(pr);
-		if (!isCompleted && isUrlLoadingChanged()) {
-
-			String url = Display.syncExec(new ResultRunnable<String>() {
-				@Override
-				public String run() {
-					return browserSim.getBrowser().getUrl();
-				}
-			});
+		if (!load.isCompleted() && load.isStarted()) {
+			String url = getUrl();
 			log.error("BrowserSim Url: " + url + " was not loaded completelly");
 			throw new WaitTimeoutExpiredException("BrowserSim Url: " + url + " was not loaded completelly");
 		}
+		if (load.isCompleted()) {
+			log.info("BrowserSim page load: " + load);
+		}
 	}
 
 	/**
-	 * Adds ProgressListener to BrowserSim underlying browser
-	 * 
-	 * @param browserSim
-	 * @param progressListener
+	 * Returns the last completed page load or null if no page was loaded
 	 */
-	public void addProgressListener(final ProgressListener progressListener) {
-		Display.syncExec(new Runnable() {
+	public synchronized PageLoad getLastPageLoad() {
+		return pageLoads.isEmpty() ? null : pageLoads.get(pageLoads.size() - 1);
+	}
+
+	/**
+	 * Returns all completed page loads in order of completion
+	 */
+	public synchronized List<PageLoad> getPageLoads() {
+		return new ArrayList<PageLoad>(pageLoads);
+	}
+
+	private synchronized PageLoad startedLoad(boolean canStart) {
+		if (currentLoad == null && canStart) {
+			currentLoad = new PageLoad(null);
+		}
+		return currentLoad;
+	}
+
+	private void completed(PageLoad load, String url) {
+		load.complete(url);
+		synchronized (this) {
+			if (!pageLoads.contains(load)) {
+				pageLoads.add(load);
+			}
+			if (currentLoad == load) {
+				currentLoad = null;
+			}
+		}
+	}
+
+	private String getUrl() {
+		return Display.syncExec(new ResultRunnable<String>() {
 			@Override
-			public void run() {
-				browserSim.getBrowser().addProgressListener(progressListener);
+			public String run() {
+				return browserSim.getBrowser().getUrl();
 			}
 		});
 	}
 
-	/**
-	 * Removes ProgressListener to BrowserSim underlying browser
-	 * 
-	 * @param browserSim
-	 * @param progressListener
-	 */
-	public void removeProgressListener(final ProgressListener progressListener) {
-		Display.syncExec(new Runnable() {
+	private String getReadyState() {
+		return Display.syncExec(new ResultRunnable<String>() {
 			@Override
-			public void run() {
-				browserSim.getBrowser().removeProgressListener(progressListener);
+			public String run() {
+				return getReadyState(browserSim.getBrowser());
 			}
 		});
 	}
 
-	private boolean isUrlLoadingCompleted() {
-		synchronized (this) {
-			return this.urlLoadingCompleted;
+	/**
+	 * returns document.readyState, has to be called in UI thread
+	 */
+	private static String getReadyState(IBrowser browser) {
+		try {
+			Object state = browser.evaluate("return document.readyState;");
+			return state instanceof String ? (String) state : null;
+		} catch (RuntimeException e) {
+			// document is not available yet
+			return null;
 		}
 	}
 
-	private boolean isUrlLoadingChanged() {
-		synchronized (this) {
-			return this.urlLoadingChanged;
+	/**
+	 * Times loads of BrowserSim browser and signals their completion
+	 */
+	private class PageLoadListener implements ProgressListener {
+
+		private final IBrowser browser;
+
+		private PageLoadListener(IBrowser browser) {
+			this.browser = browser;
 		}
-	}
 
-	private void setUrlLoadingCompleted(boolean urlLoadingCompleted) {
-		synchronized (this) {
-			this.urlLoadingCompleted = urlLoadingCompleted;
+		@Override
+		public void changed(ProgressEvent event) {
+			// progress with current == total follows completed load, it does
+			// not start a new one
+			PageLoad load = startedLoad(event.current < event.total);
+			if (load == null) {
+				return;
+			}
+			load.progress();
+			if (load.getDomReadyTime() < 0) {
+				String state = getReadyState(browser);
+				if ("interactive".equals(state) || "complete".equals(state)) {
+					load.domReady();
+				}
+			}
 		}
-	}
 
-	private void setUrlLoadingChanged(boolean urlLoadingChanged) {
-		synchronized (this) {
-			this.urlLoadingChanged = urlLoadingChanged;
+		@Override
+		public void completed(ProgressEvent event) {
+			BrowserSimHandler.this.completed(startedLoad(true), browser.getUrl());
 		}
 	}
 
@@ -295,13 +377,14 @@ public class BrowserSimHandler {
 	 * @param url
 	 */
 	public void loadUrlToBrowser(final String url, TimePeriod timeOut) {
+		PageLoad load = expectPageLoad(url);
 		Display.syncExec(new Runnable() {
 			@Override
 			public void run() {
 				browserSim.getBrowser().setUrl(url);
 			}
 		});
-		waitWhileUrlIsLoading(TimePeriod.SHORT, timeOut);
+		waitForPageLoad(load, TimePeriod.SHORT, timeOut);
 	}
 
 	/**
@@ -314,8 +397,9 @@ public class BrowserSimHandler {
 		Text addressBarText = getAddressText();
 		addressBarText.setText(url);
 		addressBarText.setFocus();
+		PageLoad load = expectPageLoad(url);
 		KeyboardFactory.getKeyboard().invokeKeyCombination(SWT.CR, SWT.LF);
-		waitWhileUrlIsLoading(TimePeriod.SHORT, timeOut);
+		waitForPageLoad(load, TimePeriod.SHORT, timeOut);
 	}
 
 	public Text getAddressText() {
@@ -403,11 +487,11 @@ public class BrowserSimHandler {
 				menu.notifyListeners(SWT.Show, new Event());
 			}
 		});
-		try {
-			Thread.sleep(50);
-		} catch (InterruptedException e) {
-			e.printStackTrace();
-		}
+		// Show listeners have run, wait for runnables they posted to UI thread
+		menu.getDisplay().syncExec(new Runnable() {
+			public void run() {
+			}
+		});
 	}
 
 	@SuppressWarnings("unchecked")
@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributor:
+ *     Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package org.jboss.tools.browsersim.reddeer;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timing of one page load in BrowserSim. Load started by test is timed from
+ * the moment it was triggered, load started by the page itself (e.g.
+ * LiveReload refresh) is timed from its first progress event. All times are in
+ * milliseconds since the start, -1 when the milestone was not reached.
+ */
+public class PageLoad {
+
+	private final long start = System.nanoTime();
+	private String url;
+	private long firstProgress = -1;
+	private long domReady = -1;
+	private long loaded = -1;
+	private final CountDownLatch completion = new CountDownLatch(1);
+
+	PageLoad(String url) {
+		this.url = url;
+	}
+
+	synchronized void progress() {
+		if (firstProgress < 0) {
+			firstProgress = elapsed();
+		}
+	}
+
+	synchronized void domReady() {
+		if (domReady < 0) {
+			domReady = elapsed();
+		}
+	}
+
+	/**
+	 * marks load as completed, url is replaced by url actually loaded
+	 */
+	void complete(String loadedUrl) {
+		synchronized (this) {
+			if (loaded >= 0) {
+				return;
+			}
+			progress();
+			domReady();
+			loaded = elapsed();
+			if (loadedUrl != null) {
+				url = loadedUrl;
+			}
+		}
+		completion.countDown();
+	}
+
+	/**
+	 * Waits until load is completed
+	 *
+	 * @return true if load is completed, false on timeout
+	 */
+	boolean await(long timeOut) {
+		try {
+			return completion.await(timeOut, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	private long elapsed() {
+		return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+	}
+
+	public synchronized String getUrl() {
+		return url;
+	}
+
+	/**
+	 * Returns true if browser reported any progress of this load
+	 */
+	public synchronized boolean isStarted() {
+		return firstProgress >= 0;
+	}
+
+	public synchronized boolean isCompleted() {
+		return loaded >= 0;
+	}
+
+	/**
+	 * Returns time to the first progress event
+	 */
+	public synchronized long getFirstProgressTime() {
+		return firstProgress;
+	}
+
+	/**
+	 * Returns time until document was interactive
+	 */
+	public synchronized long getDomReadyTime() {
+		return domReady;
+	}
+
+	/**
+	 * Returns time until load was completed
+	 */
+	public synchronized long getLoadTime() {
+		return loaded;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "url=" + url + " firstProgress=" + firstProgress + "ms domReady=" + domReady + "ms loaded="
+				+ loaded + "ms";
+	}
+}
@@ -0,0 +1,169 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+
+package org.jboss.tools.cdi.reddeer.uiutils;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IMarkerDelta;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.jboss.reddeer.eclipse.ui.problems.ProblemsView.ProblemType;
+import org.jboss.tools.cdi.reddeer.validators.ValidationProblem;
+
+/**
+ * Index of workspace problem markers maintained from marker deltas. It is used
+ * as a precheck of conditions waiting for a {@link ValidationProblem}: Problems
+ * view is read only when a matching marker exists. Markers are matched by the
+ * same rules as {@link ValidationProblem#equals(Object)} matches problems of
+ * Problems view (message, JSR and severity), validation type is not a marker
+ * attribute. Markers matching every queried validation problem are kept in a
+ * set which is updated by each delta, the query itself is O(1).
+ */
+public class ProblemMarkerIndex implements IResourceChangeListener {
+
+	private static ProblemMarkerIndex instance;
+
+	/** marker id -> [severity, message] of all problem markers */
+	private final Map<Long, MarkerEntry> markers = new HashMap<Long, MarkerEntry>();
+
+	/** validation problem key -> ids of matching markers */
+	private final Map<String, Set<Long>> matches = new HashMap<String, Set<Long>>();
+
+	private final Map<String, ValidationProblem> queries = new HashMap<String, ValidationProblem>();
+
+	private ProblemMarkerIndex() {
+		ResourcesPlugin.getWorkspace().addResourceChangeListener(this, IResourceChangeEvent.POST_CHANGE);
+		try {
+			IMarker[] existing = ResourcesPlugin.getWorkspace().getRoot()
+					.findMarkers(IMarker.PROBLEM, true, IResource.DEPTH_INFINITE);
+			synchronized (this) {
+				for (IMarker marker : existing) {
+					if (marker.exists()) {
+						add(marker.getId(), new MarkerEntry(marker.getAttribute(IMarker.SEVERITY, -1),
+								marker.getAttribute(IMarker.MESSAGE, "")));
+					}
+				}
+			}
+		} catch (CoreException e) {
+			throw new IllegalStateException("Unable to read problem markers", e);
+		}
+	}
+
+	public static synchronized ProblemMarkerIndex getInstance() {
+		if (instance == null) {
+			instance = new ProblemMarkerIndex();
+		}
+		return instance;
+	}
+
+	/**
+	 * Returns true if there is a problem marker matching validation problem
+	 */
+	public synchronized boolean contains(ValidationProblem problem) {
+		String key = getKey(problem);
+		Set<Long> found = matches.get(key);
+		if (found == null) {
+			// first query of the problem, index existing markers once
+			found = new HashSet<Long>();
+			for (Map.Entry<Long, MarkerEntry> entry : markers.entrySet()) {
+				if (entry.getValue().matches(problem)) {
+					found.add(entry.getKey());
+				}
+			}
+			matches.put(key, found);
+			queries.put(key, problem);
+		}
+		return !found.isEmpty();
+	}
+
+	public void resourceChanged(IResourceChangeEvent event) {
+		IMarkerDelta[] deltas = event.findMarkerDeltas(IMarker.PROBLEM, true);
+		if (deltas.length == 0) {
+			return;
+		}
+		synchronized (this) {
+			for (IMarkerDelta delta : deltas) {
+				if (delta.getKind() == IResourceDelta.REMOVED) {
+					remove(delta.getId());
+				} else {
+					// delta holds old attributes of changed marker, current
+					// ones are read from the marker
+					remove(delta.getId());
+					add(delta.getId(), new MarkerEntry(delta.getMarker().getAttribute(IMarker.SEVERITY,
+							delta.getAttribute(IMarker.SEVERITY, -1)), delta.getMarker().getAttribute(
+							IMarker.MESSAGE, delta.getAttribute(IMarker.MESSAGE, ""))));
+				}
+			}
+		}
+	}
+
+	private void add(long id, MarkerEntry entry) {
+		markers.put(id, entry);
+		for (Map.Entry<String, ValidationProblem> query : queries.entrySet()) {
+			if (entry.matches(query.getValue())) {
+				matches.get(query.getKey()).add(id);
+			}
+		}
+	}
+
+	private void remove(long id) {
+		if (markers.remove(id) != null) {
+			for (Set<Long> found : matches.values()) {
+				found.remove(id);
+			}
+		}
+	}
+
+	private static String getKey(ValidationProblem problem) {
+		return problem.getProblemType() + "|" + problem.getJSR() + "|" + problem.getMessage();
+	}
+
+	private static class MarkerEntry {
+
+		private final int severity;
+		private final String message;
+
+		MarkerEntry(int severity, String message) {
+			this.severity = severity;
+			this.message = message;
+		}
+
+		/**
+		 * same rules as {@link ValidationProblem#equals(Object)} applied to
+		 * problem shown in Problems view
+		 */
+		boolean matches(ValidationProblem problem) {
+			if (problem.getMessage() == null || !message.contains(problem.getMessage())) {
+				return false;
+			}
+			if (problem.getJSR() == null || !message.contains(problem.getJSR())) {
+				return false;
+			}
+			ProblemType type = problem.getProblemType();
+			if (type == ProblemType.ERROR) {
+				return severity == IMarker.SEVERITY_ERROR;
+			}
+			if (type == ProblemType.WARNING) {
+				return severity == IMarker.SEVERITY_WARNING;
+			}
+			return severity == IMarker.SEVERITY_ERROR || severity == IMarker.SEVERITY_WARNING;
+		}
+	}
+}
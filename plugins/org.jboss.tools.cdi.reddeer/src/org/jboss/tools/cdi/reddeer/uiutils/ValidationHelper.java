@@ -22,12 +22,18 @@ public class ValidationHelper {
 		
 		private ValidationProblem validationProblem;
 		
+		private List<Problem> foundProblems = new ArrayList<Problem>();
+		
 		public SpecificProblemExists(ValidationProblem validationProblem){
 			this.validationProblem = validationProblem;
 		}
 
 		@Override
 		public boolean test() {
+			//check marker index first, Problems view is read only when marker exists
+			if(!ProblemMarkerIndex.getInstance().contains(validationProblem)){
+				return false;
+			}
 			ProblemsView pw = new ProblemsView();
 			pw.open();
 			List<Problem> problems = pw.getProblems(ProblemType.ANY);
@@ -41,8 +47,13 @@ public class ValidationHelper {
 					//do nothing, problem was probably disposed
 				}
 			}
+			this.foundProblems = foundProblems;
 			return !foundProblems.isEmpty();
 		}
+		
+		public List<Problem> getFoundProblems() {
+			return foundProblems;
+		}
 
 		@Override
 		public String description() {
@@ -54,17 +65,9 @@ public class ValidationHelper {
 	}
 	
 	public List<Problem> findProblems(ValidationProblem validationProblem){
-		new WaitUntil(new SpecificProblemExists(validationProblem),TimePeriod.NORMAL,false);
-		ProblemsView pw = new ProblemsView();
-		pw.open();
-		List<Problem> problems = pw.getProblems(ProblemType.ANY);
-		List<Problem> foundProblems = new ArrayList<Problem>();
-		for(Problem p: problems){
-			if(validationProblem.equals(p)){
-				foundProblems.add(p);
-			}
-		}
-		return foundProblems;
+		SpecificProblemExists problemExists = new SpecificProblemExists(validationProblem);
+		new WaitUntil(problemExists,TimePeriod.NORMAL,false);
+		return problemExists.getFoundProblems();
 	}
 	
 	public void openQuickfix(ValidationProblem validationProblem){
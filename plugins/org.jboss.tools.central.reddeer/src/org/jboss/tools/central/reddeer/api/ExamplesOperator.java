@@ -41,6 +41,7 @@ import org.jboss.tools.central.reddeer.projects.CentralExampleProject;
 import org.jboss.tools.central.reddeer.wizards.JBossCentralProjectWizard;
 import org.jboss.tools.central.reddeer.wizards.NewProjectExamplesReadyPage;
 import org.jboss.tools.central.reddeer.wizards.NewProjectExamplesWizardDialogCentral;
+import org.jboss.tools.common.reddeer.server.ServerReadiness;
 import org.jboss.tools.maven.reddeer.project.examples.wait.MavenRepositoryNotFound;
 import org.jboss.tools.maven.reddeer.project.examples.wizard.ArchetypeExamplesWizardFirstPage;
 import org.jboss.tools.maven.reddeer.project.examples.wizard.ArchetypeExamplesWizardPage;
@@ -162,7 +163,13 @@ public class ExamplesOperator {
 	
 	public void checkDeployedProject(String projectName, String serverNameLabel) {
 		if (!projectName.equals("jboss-ejb-timer")){
-			new WaitUntil(new ConsoleHasNoChange(), TimePeriod.LONG);
+			ServerReadiness readiness = ServerReadiness.tryArm(serverNameLabel);
+			if (readiness != null) {
+				assertTrue("Modules of server " + serverNameLabel + " were not synchronized",
+						readiness.waitUntilSynchronized(TimePeriod.LONG.getSeconds() * 1000));
+			} else {
+				new WaitUntil(new ConsoleHasNoChange(), TimePeriod.LONG);
+			}
 		}
 		JBossServerView serversView = new JBossServerView();
 		serversView.open();
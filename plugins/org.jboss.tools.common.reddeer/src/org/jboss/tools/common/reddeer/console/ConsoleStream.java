@@ -0,0 +1,384 @@
+package org.jboss.tools.common.reddeer.console;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.DocumentEvent;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentListener;
+import org.eclipse.swt.custom.StyledText;
+import org.eclipse.swt.custom.StyledTextContent;
+import org.eclipse.swt.custom.TextChangeListener;
+import org.eclipse.swt.custom.TextChangedEvent;
+import org.eclipse.swt.custom.TextChangingEvent;
+import org.eclipse.swt.events.DisposeEvent;
+import org.eclipse.swt.events.DisposeListener;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.ui.IWorkbenchPage;
+import org.eclipse.ui.IWorkbenchWindow;
+import org.eclipse.ui.PlatformUI;
+import org.eclipse.ui.console.ConsolePlugin;
+import org.eclipse.ui.console.IConsole;
+import org.eclipse.ui.console.IConsoleConstants;
+import org.eclipse.ui.console.IConsoleListener;
+import org.eclipse.ui.console.IConsoleView;
+import org.eclipse.ui.console.TextConsole;
+
+/**
+ * Follows a console document (or styled text content) by listener. Console
+ * text is searched in the document without reading the console widget and
+ * waiters are woken up as soon as the console changes.
+ *
+ * Pattern searches are incremental: every pattern remembers where the next
+ * search has to start and only text appended since then is searched again.
+ * Text searches start before the end of already searched text so that text
+ * spanning appended chunks is found, regular expression searches start at the
+ * line where the previous search could not match. Whenever console is cleared
+ * or trimmed searches start from the beginning.
+ *
+ * Streams are shared, use {@link #forConsoleView()},
+ * {@link #forDocument(IDocument)} or {@link #forStyledText(StyledText)}.
+ */
+public class ConsoleStream {
+
+	private static final Map<Object, ConsoleStream> streams = new HashMap<Object, ConsoleStream>();
+
+	private static boolean consoleListenerAdded;
+
+	/** reads console text, offsets and length have to be valid */
+	private interface Content {
+		String get(int offset, int length) throws BadLocationException;
+	}
+
+	private final Content content;
+
+	/** length of the console text as of the last change */
+	private int length;
+
+	/** pattern -> offset the next search starts from */
+	private final Map<String, Integer> progress = new HashMap<String, Integer>();
+
+	private long lastChange = System.nanoTime();
+
+	private Runnable disposer;
+
+	private ConsoleStream(Content content) {
+		this.content = content;
+	}
+
+	/**
+	 * Returns stream of the console displayed in Console view or null if Console
+	 * view is not opened or it does not display a text console
+	 */
+	public static ConsoleStream forConsoleView() {
+		final IDocument[] document = new IDocument[1];
+		Display.getDefault().syncExec(new Runnable() {
+			public void run() {
+				IWorkbenchWindow window = PlatformUI.getWorkbench().getActiveWorkbenchWindow();
+				IWorkbenchPage page = window == null ? null : window.getActivePage();
+				if (page == null) {
+					return;
+				}
+				IConsoleView view = (IConsoleView) page.findView(IConsoleConstants.ID_CONSOLE_VIEW);
+				if (view != null && view.getConsole() instanceof TextConsole) {
+					document[0] = ((TextConsole) view.getConsole()).getDocument();
+				}
+			}
+		});
+		return document[0] == null ? null : forDocument(document[0]);
+	}
+
+	/**
+	 * Returns stream of given console document
+	 */
+	public static ConsoleStream forDocument(final IDocument document) {
+		ConsoleStream stream = get(document);
+		if (stream != null) {
+			return stream;
+		}
+		addConsoleListener();
+		final ConsoleStream documentStream = new ConsoleStream(new Content() {
+			public String get(int offset, int length) throws BadLocationException {
+				return document.get(offset, length);
+			}
+		});
+		final IDocumentListener listener = new IDocumentListener() {
+			public void documentAboutToBeChanged(DocumentEvent event) {
+			}
+
+			public void documentChanged(DocumentEvent event) {
+				documentStream.changed(event.getOffset(), event.getLength(), event.getText(), document.getLength());
+			}
+		};
+		documentStream.disposer = new Runnable() {
+			public void run() {
+				document.removeDocumentListener(listener);
+			}
+		};
+		// register and read initial content in UI thread, console is updated
+		// there so no change can be missed in between
+		Display.getDefault().syncExec(new Runnable() {
+			public void run() {
+				document.addDocumentListener(listener);
+				documentStream.reset(document.getLength());
+			}
+		});
+		return register(document, documentStream);
+	}
+
+	/**
+	 * Returns stream of given styled text, used for consoles which are not
+	 * managed by console manager
+	 */
+	public static ConsoleStream forStyledText(final StyledText styledText) {
+		ConsoleStream stream = get(styledText);
+		if (stream != null) {
+			return stream;
+		}
+		final ConsoleStream[] textStream = new ConsoleStream[1];
+		styledText.getDisplay().syncExec(new Runnable() {
+			public void run() {
+				final StyledTextContent content = styledText.getContent();
+				final ConsoleStream contentStream = new ConsoleStream(new Content() {
+					public String get(int offset, int length) {
+						return content.getTextRange(offset, length);
+					}
+				});
+				final TextChangeListener listener = new TextChangeListener() {
+					private boolean replaced;
+
+					private int appended;
+
+					public void textChanging(TextChangingEvent event) {
+						replaced = event.start != content.getCharCount() || event.replaceCharCount > 0;
+						appended = event.newCharCount;
+					}
+
+					public void textChanged(TextChangedEvent event) {
+						if (replaced) {
+							contentStream.reset(content.getCharCount());
+						} else {
+							contentStream.append(appended);
+						}
+					}
+
+					public void textSet(TextChangedEvent event) {
+						contentStream.reset(content.getCharCount());
+					}
+				};
+				contentStream.disposer = new Runnable() {
+					public void run() {
+						content.removeTextChangeListener(listener);
+					}
+				};
+				content.addTextChangeListener(listener);
+				contentStream.reset(content.getCharCount());
+				styledText.addDisposeListener(new DisposeListener() {
+					public void widgetDisposed(DisposeEvent e) {
+						remove(styledText);
+					}
+				});
+				textStream[0] = contentStream;
+			}
+		});
+		return register(styledText, textStream[0]);
+	}
+
+	private static ConsoleStream get(Object key) {
+		synchronized (streams) {
+			return streams.get(key);
+		}
+	}
+
+	/**
+	 * registers new stream, if other thread registered stream for the same key
+	 * meanwhile, new stream is disposed and the registered one is returned
+	 */
+	private static ConsoleStream register(Object key, ConsoleStream stream) {
+		ConsoleStream registered;
+		synchronized (streams) {
+			registered = streams.get(key);
+			if (registered == null) {
+				streams.put(key, stream);
+				return stream;
+			}
+		}
+		stream.disposer.run();
+		return registered;
+	}
+
+	private static synchronized void addConsoleListener() {
+		if (consoleListenerAdded) {
+			return;
+		}
+		consoleListenerAdded = true;
+		ConsolePlugin.getDefault().getConsoleManager().addConsoleListener(new IConsoleListener() {
+			public void consolesAdded(IConsole[] consoles) {
+			}
+
+			public void consolesRemoved(IConsole[] consoles) {
+				for (IConsole console : consoles) {
+					if (console instanceof TextConsole) {
+						remove(((TextConsole) console).getDocument());
+					}
+				}
+			}
+		});
+	}
+
+	private static void remove(Object key) {
+		ConsoleStream stream;
+		synchronized (streams) {
+			stream = streams.remove(key);
+		}
+		if (stream != null) {
+			stream.disposer.run();
+		}
+	}
+
+	private synchronized void changed(int offset, int replacedLength, String text, int documentLength) {
+		if (offset == length && replacedLength == 0) {
+			append(text == null ? 0 : text.length());
+		} else {
+			// console was cleared or trimmed
+			reset(documentLength);
+		}
+	}
+
+	private synchronized void append(int appended) {
+		if (appended <= 0) {
+			return;
+		}
+		length += appended;
+		changed();
+	}
+
+	private synchronized void reset(int newLength) {
+		length = newLength;
+		progress.clear();
+		changed();
+	}
+
+	private void changed() {
+		lastChange = System.nanoTime();
+		notifyAll();
+	}
+
+	/**
+	 * Returns console text
+	 */
+	public synchronized String getText() {
+		return read(0);
+	}
+
+	public synchronized boolean isEmpty() {
+		return length == 0;
+	}
+
+	/**
+	 * Returns true if console contains given text
+	 */
+	public synchronized boolean contains(String text) {
+		String key = "text:" + text;
+		Integer from = progress.get(key);
+		int start = from == null ? 0 : from;
+		if (read(start).contains(text)) {
+			return true;
+		}
+		// text may start in the searched part and continue in appended one
+		progress.put(key, Math.max(start, length - text.length() + 1));
+		return false;
+	}
+
+	/**
+	 * Returns true if pattern is found in console text. Only text appended
+	 * after previous unsuccessful search (from the line where the pattern
+	 * could still start) is searched.
+	 */
+	public synchronized boolean find(Pattern pattern) {
+		String key = "pattern:" + pattern.pattern() + "/" + pattern.flags();
+		Integer from = progress.get(key);
+		int start = from == null ? 0 : from;
+		String text = read(start);
+		if (pattern.matcher(text).find()) {
+			return true;
+		}
+		// next search continues on the line where the pattern could start
+		int overlap = Math.max(text.length() - pattern.pattern().length(), 0);
+		progress.put(key, start + text.lastIndexOf('\n', overlap) + 1);
+		return false;
+	}
+
+	/**
+	 * reads console text from given offset to the length known to the stream,
+	 * returns empty string if the console was changed meanwhile (stream is
+	 * reset by the listener then)
+	 */
+	private String read(int offset) {
+		try {
+			return content.get(offset, length - offset);
+		} catch (BadLocationException e) {
+			return "";
+		} catch (IllegalArgumentException e) {
+			return "";
+		}
+	}
+
+	/**
+	 * Waits until pattern is found in console text
+	 *
+	 * @return true if pattern was found, false on timeout
+	 */
+	public synchronized boolean waitFor(Pattern pattern, long timeOut) {
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeOut);
+		while (!find(pattern)) {
+			long remaining = deadline - System.nanoTime();
+			if (remaining <= 0 || !await(remaining)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Waits until console is not empty and it has not changed for given quiet
+	 * period
+	 *
+	 * @return true if console is quiet, false on timeout
+	 */
+	public synchronized boolean waitForQuiet(long quietPeriod, long timeOut) {
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeOut);
+		long quiet = TimeUnit.MILLISECONDS.toNanos(quietPeriod);
+		while (true) {
+			long now = System.nanoTime();
+			long quietFor = now - lastChange;
+			if (length > 0 && quietFor >= quiet) {
+				return true;
+			}
+			long remaining = deadline - now;
+			if (remaining <= 0) {
+				return false;
+			}
+			long wait = length > 0 ? Math.min(remaining, quiet - quietFor) : remaining;
+			if (!await(wait)) {
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * waits for change, returns false if thread was interrupted
+	 */
+	private boolean await(long nanos) {
+		try {
+			TimeUnit.NANOSECONDS.timedWait(this, Math.max(1, nanos));
+			return true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+}
@@ -0,0 +1,515 @@
+package org.jboss.tools.common.reddeer.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.Logger;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.wst.server.core.IModule;
+import org.eclipse.wst.server.core.IServer;
+import org.eclipse.wst.server.core.ServerCore;
+import org.eclipse.wst.server.core.model.IURLProvider;
+
+/**
+ * Waits for deployment by marker files of deployment scanner (JBoss AS 7,
+ * EAP 6 and WildFly) instead of polling the deployed application. Scanner
+ * writes <code>&lt;deployment&gt;.deployed</code> or
+ * <code>&lt;deployment&gt;.failed</code> when deployment is done, observer
+ * watches deployment directory for them and only then probes application URL.
+ * Observer has to be created before deployment is triggered, so that marker
+ * of previous deployment is not taken for the new one:
+ *
+ * <pre>
+ * DeploymentObserver observer = DeploymentObserver.watch(serverName, "app.war");
+ * // deploy
+ * observer.waitForMarker(timeout);
+ * String page = observer.probe(url, timeout);
+ * observer.close();
+ * </pre>
+ *
+ * Deployment directory is resolved from server settings, it can be set by
+ * -Ddeployment.dir. When it does not exist (older server, remote server) or
+ * deployment is not known, nothing is watched and {@link #probe(String, long)}
+ * polls the URL.
+ *
+ * Marker is taken for the new one when it is created or rewritten after the
+ * observer was created, or when its content differs from the content it had
+ * then. Times of markers are not compared, file systems may keep them in
+ * seconds only.
+ */
+public class DeploymentObserver {
+
+	private static final Logger log = Logger.getLogger(DeploymentObserver.class);
+
+	public static final String DEPLOYMENT_DIR_PROPERTY = "deployment.dir";
+
+	private static final String DEPLOY_DIRECTORY = "org.jboss.ide.eclipse.as.core.server.deployDirectory";
+	private static final String DEPLOY_DIRECTORY_TYPE = "org.jboss.ide.eclipse.as.core.server.deployDirectoryType";
+	private static final String AS_CORE_PLUGIN = "org.jboss.ide.eclipse.as.core";
+
+	private static final String DEPLOYED = ".deployed";
+	private static final String FAILED = ".failed";
+	/** markers of deployment which is not finished yet */
+	private static final List<String> IN_PROGRESS = Arrays.asList(".dodeploy", ".isdeploying", ".pending",
+			".isundeploying");
+
+	/** directory is re-checked at least this often (ms), watch service may poll */
+	private static final long RECHECK_PERIOD = 1000;
+
+	/** longest pause (ms) between URL probes */
+	private static final long MAX_PROBE_PAUSE = 1000;
+
+	public enum Outcome {
+		/** deployed marker was written */
+		DEPLOYED,
+		/** failed marker was written, see {@link DeploymentObserver#getFailure()} */
+		FAILED,
+		/** no marker was written in time */
+		TIMED_OUT,
+		/** deployment directory is not known, nothing was watched */
+		NOT_WATCHED
+	}
+
+	private final File dir;
+	private final List<String> deployments;
+	private final long armed = System.nanoTime();
+	/** marker file -> content when last checked, null if it did not exist */
+	private final Map<File, String> markers = new HashMap<File, String>();
+	/** names of files created or modified since observer was created */
+	private final Set<String> written = new HashSet<String>();
+	private WatchService watchService;
+	private long markerLatency = -1;
+	private long probeLatency = -1;
+	private int responseCode = -1;
+	private String page;
+	private String failure;
+
+	private DeploymentObserver(File dir, String... deployments) {
+		this.deployments = Arrays.asList(deployments);
+		if (deployments.length == 0) {
+			log.info("Deployment is not known, deployment markers are not watched");
+			this.dir = null;
+			return;
+		}
+		this.dir = dir != null && dir.isDirectory() ? dir : null;
+		if (this.dir == null) {
+			log.info("Deployment directory " + dir + " does not exist, deployment markers are not watched");
+			return;
+		}
+		try {
+			watchService = this.dir.toPath().getFileSystem().newWatchService();
+			this.dir.toPath().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+					StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+		} catch (IOException e) {
+			log.info("Unable to watch " + this.dir + ", it will be checked periodically: " + e);
+			close();
+		}
+		// markers are read after watching started, so no write is missed
+		for (String deployment : deployments) {
+			for (String suffix : new String[] { DEPLOYED, FAILED }) {
+				File marker = new File(this.dir, deployment + suffix);
+				markers.put(marker, marker.isFile() ? read(marker) : null);
+			}
+		}
+	}
+
+	/**
+	 * Starts watching deployment directory for markers of given deployments
+	 *
+	 * @param deployDir
+	 *            deployment directory, may be null
+	 * @param deployments
+	 *            names of deployments, e.g. "app.war"
+	 */
+	public static DeploymentObserver watch(File deployDir, String... deployments) {
+		return new DeploymentObserver(deployDir, deployments);
+	}
+
+	/**
+	 * Starts watching deployment directory of server with given name (see
+	 * {@link ServerReadiness#findServer(String)}) for markers of given
+	 * deployments
+	 */
+	public static DeploymentObserver watch(String serverName, String... deployments) {
+		IServer server = ServerReadiness.findServer(serverName);
+		if (server == null) {
+			throw new IllegalArgumentException("Server '" + serverName + "' does not exist");
+		}
+		return new DeploymentObserver(getDeployDir(server), deployments);
+	}
+
+	/**
+	 * Starts watching deployment directory of started server for markers of
+	 * given deployments
+	 */
+	public static DeploymentObserver watchStartedServer(String... deployments) {
+		File deployDir = null;
+		for (IServer server : ServerCore.getServers()) {
+			if (server.getServerState() == IServer.STATE_STARTED) {
+				deployDir = getDeployDir(server);
+				if (deployDir != null && deployDir.isDirectory()) {
+					break;
+				}
+			}
+		}
+		return new DeploymentObserver(deployDir, deployments);
+	}
+
+	/**
+	 * Starts watching deployment directory of started server for marker of
+	 * deployment the url belongs to. Deployment is the server's module whose
+	 * name (or name of its child module, e.g. web module of EAR) is the first
+	 * segment of url path. Nothing is watched if no module matches.
+	 */
+	public static DeploymentObserver watchStartedServerForURL(String url) {
+		String context;
+		try {
+			context = new URL(url).getPath().replaceFirst("^/", "").replaceFirst("/.*$", "");
+		} catch (MalformedURLException e) {
+			throw new IllegalArgumentException(e);
+		}
+		for (IServer server : ServerCore.getServers()) {
+			if (server.getServerState() != IServer.STATE_STARTED) {
+				continue;
+			}
+			List<String> deployments = getDeploymentNames(server, context);
+			if (!deployments.isEmpty()) {
+				return new DeploymentObserver(getDeployDir(server), deployments.toArray(new String[0]));
+			}
+		}
+		return new DeploymentObserver(null, new String[0]);
+	}
+
+	/**
+	 * returns names of deployments of server's modules named as given
+	 * context or containing such module
+	 */
+	private static List<String> getDeploymentNames(IServer server, String context) {
+		List<String> deployments = new ArrayList<String>();
+		for (IModule module : server.getModules()) {
+			boolean matches = context.equals(module.getName());
+			for (IModule child : server.getChildModules(new IModule[] { module }, null)) {
+				matches |= context.equals(child.getName());
+			}
+			if (matches) {
+				deployments.add(module.getName() + getSuffix(module));
+			}
+		}
+		return deployments;
+	}
+
+	private static String getSuffix(IModule module) {
+		String type = module.getModuleType() == null ? "" : module.getModuleType().getId();
+		if ("jst.web".equals(type)) {
+			return ".war";
+		}
+		if ("jst.ear".equals(type)) {
+			return ".ear";
+		}
+		if ("jst.connector".equals(type)) {
+			return ".rar";
+		}
+		return ".jar";
+	}
+
+	/**
+	 * Returns root URL of module of server with given names as provided by
+	 * the server (i.e. with its configured host and port), null if server or
+	 * module does not exist or server does not provide URLs
+	 */
+	public static String getModuleRootURL(String serverName, String moduleName) {
+		IServer server = ServerReadiness.findServer(serverName);
+		if (server == null) {
+			return null;
+		}
+		IURLProvider provider = (IURLProvider) server.loadAdapter(IURLProvider.class, null);
+		if (provider == null) {
+			return null;
+		}
+		for (IModule module : server.getModules()) {
+			if (moduleName.equals(module.getName())) {
+				URL url = provider.getModuleRootURL(module);
+				return url == null ? null : url.toString();
+			}
+		}
+		return null;
+	}
+
+	private static File getDeployDir(IServer server) {
+		String property = System.getProperty(DEPLOYMENT_DIR_PROPERTY);
+		if (property != null && !property.isEmpty()) {
+			return new File(property);
+		}
+		if ("metadata".equals(server.getAttribute(DEPLOY_DIRECTORY_TYPE, (String) null))) {
+			IPath metadata = ResourcesPlugin.getWorkspace().getRoot().getLocation().append(".metadata")
+					.append(".plugins").append(AS_CORE_PLUGIN).append(server.getName()).append("deploy");
+			return metadata.toFile();
+		}
+		IPath runtime = server.getRuntime() == null ? null : server.getRuntime().getLocation();
+		String deployDirectory = server.getAttribute(DEPLOY_DIRECTORY, (String) null);
+		if (deployDirectory != null && !deployDirectory.isEmpty()) {
+			IPath path = new Path(deployDirectory);
+			if (!path.isAbsolute() && runtime != null) {
+				path = runtime.append(path);
+			}
+			return path.toFile();
+		}
+		return runtime == null ? null : runtime.append("standalone").append("deployments").toFile();
+	}
+
+	/**
+	 * Returns true if deployment markers are watched
+	 */
+	public boolean isWatching() {
+		return dir != null;
+	}
+
+	/**
+	 * Returns true if any of deployments is deployed right now, i.e. its
+	 * deployed marker exists and it is not being (re)deployed. Useful when
+	 * observer was created after deployment was triggered.
+	 */
+	public boolean isDeployed() {
+		if (dir == null) {
+			return false;
+		}
+		for (String deployment : deployments) {
+			if (!new File(dir, deployment + DEPLOYED).isFile()) {
+				continue;
+			}
+			boolean inProgress = false;
+			for (String suffix : IN_PROGRESS) {
+				inProgress |= new File(dir, deployment + suffix).exists();
+			}
+			if (!inProgress) {
+				markerLatency = elapsed();
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Waits until deployed or failed marker of any deployment is written
+	 */
+	public Outcome waitForMarker(long timeOut) {
+		if (dir == null) {
+			return Outcome.NOT_WATCHED;
+		}
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeOut);
+		while (true) {
+			Outcome outcome = checkMarkers();
+			if (outcome != null) {
+				markerLatency = elapsed();
+				log.info("Deployment " + deployments + " " + outcome + " after " + markerLatency + " ms");
+				return outcome;
+			}
+			long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+			if (remaining <= 0) {
+				log.info("No marker of deployment " + deployments + " was written in " + timeOut + " ms");
+				return Outcome.TIMED_OUT;
+			}
+			awaitChange(Math.min(remaining, RECHECK_PERIOD));
+		}
+	}
+
+	/**
+	 * returns outcome of marker written since observer was created, null if
+	 * there is none
+	 */
+	private Outcome checkMarkers() {
+		for (Map.Entry<File, String> entry : markers.entrySet()) {
+			File marker = entry.getKey();
+			String content = marker.isFile() ? read(marker) : null;
+			if (content != null
+					&& (entry.getValue() == null || !content.equals(entry.getValue()) || written.contains(marker
+							.getName()))) {
+				if (marker.getName().endsWith(DEPLOYED)) {
+					return Outcome.DEPLOYED;
+				}
+				failure = content;
+				return Outcome.FAILED;
+			}
+			// marker removed by redeployment is new when it appears again
+			entry.setValue(content);
+		}
+		return null;
+	}
+
+	private void awaitChange(long timeOut) {
+		try {
+			if (watchService == null) {
+				Thread.sleep(timeOut);
+				return;
+			}
+			WatchKey key = watchService.poll(timeOut, TimeUnit.MILLISECONDS);
+			if (key != null) {
+				for (WatchEvent<?> event : key.pollEvents()) {
+					if (event.kind() != StandardWatchEventKinds.ENTRY_DELETE && event.context() != null) {
+						written.add(event.context().toString());
+					}
+				}
+				key.reset();
+			}
+		} catch (ClosedWatchServiceException e) {
+			watchService = null;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static String read(File file) {
+		try {
+			return new String(Files.readAllBytes(file.toPath()), Charset.forName("UTF-8")).trim();
+		} catch (IOException e) {
+			return "Unable to read " + file + ": " + e;
+		}
+	}
+
+	/**
+	 * Requests URL until it responds with HTTP OK. Connection is kept alive
+	 * between requests, pauses between them grow up to 1 s.
+	 *
+	 * @return content of the page, null if it did not respond with HTTP OK in
+	 *         time
+	 */
+	public String probe(String url, long timeOut) {
+		URL u;
+		try {
+			u = new URL(url);
+		} catch (MalformedURLException e) {
+			throw new IllegalArgumentException(e);
+		}
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeOut);
+		long pause = 50;
+		while (true) {
+			page = request(u);
+			if (page != null) {
+				probeLatency = elapsed();
+				return page;
+			}
+			long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+			if (remaining <= 0) {
+				return null;
+			}
+			try {
+				Thread.sleep(Math.min(pause, remaining));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return null;
+			}
+			pause = Math.min(pause * 2, MAX_PROBE_PAUSE);
+		}
+	}
+
+	/**
+	 * returns content of page or null if it did not respond with HTTP OK,
+	 * response is read fully so that connection can be reused
+	 */
+	private String request(URL url) {
+		try {
+			HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+			responseCode = connection.getResponseCode();
+			InputStream in = responseCode < HttpURLConnection.HTTP_BAD_REQUEST ? connection.getInputStream()
+					: connection.getErrorStream();
+			String content = in == null ? "" : readFully(in);
+			return responseCode == HttpURLConnection.HTTP_OK ? content : null;
+		} catch (IOException e) {
+			log.debug("Request to " + url + " failed: " + e);
+			responseCode = -1;
+			return null;
+		}
+	}
+
+	private static String readFully(InputStream in) throws IOException {
+		try {
+			ByteArrayOutputStream content = new ByteArrayOutputStream();
+			byte[] buffer = new byte[8192];
+			int read;
+			while ((read = in.read(buffer)) != -1) {
+				content.write(buffer, 0, read);
+			}
+			return new String(content.toByteArray(), Charset.forName("UTF-8"));
+		} finally {
+			in.close();
+		}
+	}
+
+	private long elapsed() {
+		return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - armed);
+	}
+
+	/**
+	 * Returns time (ms) from creation of observer until marker was written or
+	 * seen, -1 if no marker was seen
+	 */
+	public long getMarkerLatency() {
+		return markerLatency;
+	}
+
+	/**
+	 * Returns time (ms) from creation of observer until URL responded with
+	 * HTTP OK, -1 if it did not
+	 */
+	public long getProbeLatency() {
+		return probeLatency;
+	}
+
+	/**
+	 * Returns HTTP response code of the last probe, -1 if URL was not probed
+	 * or did not respond
+	 */
+	public int getResponseCode() {
+		return responseCode;
+	}
+
+	/**
+	 * Returns content of page returned by the last successful probe or null
+	 */
+	public String getPage() {
+		return page;
+	}
+
+	/**
+	 * Returns content of failed marker (deployment error) or null
+	 */
+	public String getFailure() {
+		return failure;
+	}
+
+	/**
+	 * Stops watching deployment directory
+	 */
+	public void close() {
+		if (watchService != null) {
+			try {
+				watchService.close();
+			} catch (IOException e) {
+				log.debug("Unable to close watch service: " + e);
+			}
+			watchService = null;
+		}
+	}
+}
@@ -0,0 +1,254 @@
+package org.jboss.tools.common.reddeer.server;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.apache.log4j.Logger;
+import org.eclipse.debug.core.ILaunch;
+import org.eclipse.debug.core.model.IProcess;
+import org.eclipse.debug.ui.DebugUITools;
+import org.eclipse.ui.console.IConsole;
+import org.eclipse.ui.console.TextConsole;
+import org.eclipse.wst.server.core.IModule;
+import org.eclipse.wst.server.core.IServer;
+import org.eclipse.wst.server.core.IServerListener;
+import org.eclipse.wst.server.core.ServerCore;
+import org.eclipse.wst.server.core.ServerEvent;
+import org.jboss.tools.common.reddeer.console.ConsoleStream;
+
+/**
+ * Waits for server lifecycle operations by server state and publish events
+ * instead of console quiet periods. Readiness has to be armed before the
+ * operation is triggered, so that no event is missed:
+ *
+ * <pre>
+ * ServerReadiness readiness = ServerReadiness.arm(serverName);
+ * server.restart();
+ * readiness.waitUntilStarted(timeout);
+ * </pre>
+ *
+ * Server is started when it is in started state (after leaving it if it was
+ * started when armed), its launch console contains started signature and
+ * server and all its modules are synchronized. Started signature is a regular
+ * expression set by -Dserver.started.signature (default matches "started in
+ * Xms" of JBoss AS/EAP/WildFly and "Server startup in X ms" of Tomcat), empty
+ * value turns signature check off. Signature is not required when server has
+ * no local launch console.
+ */
+public class ServerReadiness {
+
+	private static final Logger log = Logger.getLogger(ServerReadiness.class);
+
+	public static final String SIGNATURE_PROPERTY = "server.started.signature";
+
+	public static final String DEFAULT_SIGNATURE = "(?i)(started in \\d+|server startup in \\d+)";
+
+	/** state is re-checked at least this often (ns) */
+	private static final long RECHECK_PERIOD = TimeUnit.SECONDS.toNanos(1);
+
+	private final IServer server;
+	private final int initialState;
+	private boolean stateChanged;
+
+	private final IServerListener listener = new IServerListener() {
+		public void serverChanged(ServerEvent event) {
+			changed(event);
+		}
+	};
+
+	private ServerReadiness(IServer server) {
+		this.server = server;
+		this.initialState = server.getServerState();
+		server.addServerListener(listener);
+	}
+
+	/**
+	 * Starts listening to events of server with given name (or label of
+	 * Servers view item which starts with server name)
+	 *
+	 * @throws IllegalArgumentException
+	 *             if there is no such server
+	 */
+	public static ServerReadiness arm(String serverName) {
+		IServer server = findServer(serverName);
+		if (server == null) {
+			throw new IllegalArgumentException("Server '" + serverName + "' does not exist");
+		}
+		return new ServerReadiness(server);
+	}
+
+	/**
+	 * Starts listening to events of server with given name (or label of
+	 * Servers view item which starts with server name)
+	 *
+	 * @return readiness or null if there is no such server, callers have to
+	 *         wait for the operation other way then
+	 */
+	public static ServerReadiness tryArm(String serverName) {
+		IServer server = findServer(serverName);
+		return server == null ? null : new ServerReadiness(server);
+	}
+
+	/**
+	 * Returns server with given name, if there is no such server, the server
+	 * with the longest name the label starts with is returned
+	 */
+	public static IServer findServer(String serverName) {
+		IServer found = null;
+		for (IServer server : ServerCore.getServers()) {
+			if (server.getName().equals(serverName)) {
+				return server;
+			}
+			if (serverName.startsWith(server.getName())
+					&& (found == null || found.getName().length() < server.getName().length())) {
+				found = server;
+			}
+		}
+		return found;
+	}
+
+	private synchronized void changed(ServerEvent event) {
+		if ((event.getKind() & ServerEvent.STATE_CHANGE) != 0 && event.getState() != initialState) {
+			stateChanged = true;
+		}
+		notifyAll();
+	}
+
+	/**
+	 * Waits until server is started, its started signature is logged and
+	 * modules are synchronized. Listener is removed afterwards.
+	 *
+	 * @return true if server is ready, false on timeout
+	 */
+	public boolean waitUntilStarted(long timeOut) {
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeOut);
+		try {
+			return waitForState(IServer.STATE_STARTED, deadline) && waitForSignature(deadline)
+					&& waitForSynchronization(deadline);
+		} finally {
+			dispose();
+		}
+	}
+
+	/**
+	 * Waits until server is stopped. Listener is removed afterwards.
+	 *
+	 * @return true if server is stopped, false on timeout
+	 */
+	public boolean waitUntilStopped(long timeOut) {
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeOut);
+		try {
+			return waitForState(IServer.STATE_STOPPED, deadline);
+		} finally {
+			dispose();
+		}
+	}
+
+	/**
+	 * Waits until already started server and all its modules are synchronized,
+	 * e.g. after deployment. Listener is removed afterwards.
+	 *
+	 * @return true if server is synchronized, false on timeout
+	 */
+	public boolean waitUntilSynchronized(long timeOut) {
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeOut);
+		try {
+			return waitForSynchronization(deadline);
+		} finally {
+			dispose();
+		}
+	}
+
+	public void dispose() {
+		server.removeServerListener(listener);
+	}
+
+	private synchronized boolean waitForState(int state, long deadline) {
+		// server which already is in expected state has to leave it first
+		while (server.getServerState() != state || (initialState == state && !stateChanged)) {
+			if (!await(deadline)) {
+				log.info("Server " + server.getName() + " did not reach state " + state);
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private synchronized boolean waitForSynchronization(long deadline) {
+		while (!isSynchronized()) {
+			if (!await(deadline)) {
+				log.info("Server " + server.getName() + " is not synchronized");
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean isSynchronized() {
+		if (server.getServerState() != IServer.STATE_STARTED || !isPublished(server.getServerPublishState())) {
+			return false;
+		}
+		for (IModule module : server.getModules()) {
+			IModule[] path = new IModule[] { module };
+			int moduleState = server.getModuleState(path);
+			if (!isPublished(server.getModulePublishState(path))
+					|| (moduleState != IServer.STATE_STARTED && moduleState != IServer.STATE_UNKNOWN)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isPublished(int publishState) {
+		return publishState == IServer.PUBLISH_STATE_NONE || publishState == IServer.PUBLISH_STATE_UNKNOWN;
+	}
+
+	private boolean waitForSignature(long deadline) {
+		String signature = System.getProperty(SIGNATURE_PROPERTY, DEFAULT_SIGNATURE);
+		if (signature.isEmpty()) {
+			return true;
+		}
+		ConsoleStream console = getLaunchConsole();
+		if (console == null) {
+			return true;
+		}
+		long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+		if (!console.waitFor(Pattern.compile(signature), Math.max(0, remaining))) {
+			log.info("Server " + server.getName() + " did not log " + signature);
+			return false;
+		}
+		return true;
+	}
+
+	private ConsoleStream getLaunchConsole() {
+		ILaunch launch = server.getLaunch();
+		if (launch == null) {
+			return null;
+		}
+		for (IProcess process : launch.getProcesses()) {
+			IConsole console = DebugUITools.getConsole(process);
+			if (console instanceof TextConsole) {
+				return ConsoleStream.forDocument(((TextConsole) console).getDocument());
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * waits for next server event, returns false if deadline has passed
+	 */
+	private boolean await(long deadline) {
+		long remaining = deadline - System.nanoTime();
+		if (remaining <= 0) {
+			return false;
+		}
+		try {
+			// module states of some server types change without event
+			TimeUnit.NANOSECONDS.timedWait(this, Math.min(remaining, RECHECK_PERIOD));
+			return true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+}
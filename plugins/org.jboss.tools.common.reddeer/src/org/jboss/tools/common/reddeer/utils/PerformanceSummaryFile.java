@@ -0,0 +1,75 @@
+package org.jboss.tools.common.reddeer.utils;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Map;
+import java.util.Properties;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * File format of performance summaries: name of the summary as a comment
+ * followed by numeric metrics sorted by key, so that summaries of different
+ * builds can be compared (also by diff). Shared by performance recorder of
+ * org.jboss.tools.perf.test.core and benchmarks of other test bundles.
+ */
+public class PerformanceSummaryFile {
+
+	public static final String FILE_SUFFIX = ".summary.properties";
+
+	private PerformanceSummaryFile() {
+	}
+
+	/**
+	 * Stores summary metrics, keys are written in alphabetical order
+	 */
+	public static void store(File file, String name, Map<String, Long> values) throws IOException {
+		Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), "ISO-8859-1"));
+		try {
+			writer.write("# " + name + "\n");
+			for (Map.Entry<String, Long> entry : new TreeMap<String, Long>(values).entrySet()) {
+				writer.write(entry.getKey() + "=" + entry.getValue() + "\n");
+			}
+		} finally {
+			writer.close();
+		}
+	}
+
+	/**
+	 * Loads metrics stored by {@link #store(File, String, Map)}, values which
+	 * are not numbers are skipped
+	 */
+	public static SortedMap<String, Long> load(File file) throws IOException {
+		Properties properties = new Properties();
+		InputStream is = new FileInputStream(file);
+		try {
+			properties.load(is);
+		} finally {
+			is.close();
+		}
+		SortedMap<String, Long> values = new TreeMap<String, Long>();
+		for (String key : properties.stringPropertyNames()) {
+			try {
+				values.put(key, Long.parseLong(properties.getProperty(key).trim()));
+			} catch (NumberFormatException e) {
+				// not a metric
+			}
+		}
+		return values;
+	}
+
+	/**
+	 * Returns summary name derived from the file name
+	 */
+	public static String getName(File file) {
+		String fileName = file.getName();
+		return fileName.endsWith(FILE_SUFFIX) ? fileName.substring(0, fileName.length() - FILE_SUFFIX.length())
+				: fileName;
+	}
+}
@@ -1,10 +1,13 @@
 package org.jboss.tools.forge.reddeer.condition;
 
 import org.jboss.reddeer.common.condition.WaitCondition;
+import org.jboss.tools.common.reddeer.console.ConsoleStream;
 import org.jboss.tools.forge.reddeer.view.ForgeConsoleView;
 
 /**
- * Returns true if the console contains a given text
+ * Returns true if the console contains a given text. Console is searched
+ * incrementally by {@link ConsoleStream}, only text appended since the last
+ * test is searched.
  * 
  * @author psrna
  * 
@@ -24,19 +27,18 @@ public class ForgeConsoleHasText implements WaitCondition {
 
 	@Override
 	public boolean test() {
-		String consoleText = getConsoleText();
-		return consoleText.contains(text);
+		return getConsoleStream().contains(text);
 	}
 
 	@Override
 	public String description() {
-		String consoleText = getConsoleText();
+		String consoleText = getConsoleStream().getText();
 		return "console contains '" + text + "'\n" + consoleText;
 	}
 
-	private static String getConsoleText() {
+	private static ConsoleStream getConsoleStream() {
 		ForgeConsoleView forgeConsoleView = new ForgeConsoleView();
 		forgeConsoleView.open();
-		return forgeConsoleView.getConsoleText();
+		return forgeConsoleView.getConsoleStream();
 	}
 }
@@ -14,6 +14,7 @@ import org.jboss.reddeer.common.wait.TimePeriod;
 import org.jboss.reddeer.common.wait.WaitUntil;
 import org.jboss.reddeer.common.wait.WaitWhile;
 import org.jboss.reddeer.workbench.impl.view.WorkbenchView;
+import org.jboss.tools.common.reddeer.console.ConsoleStream;
 /**
  * Forge Console view RedDeer implementation
  * @author psrna
@@ -102,6 +103,19 @@ public class ForgeConsoleView extends WorkbenchView{
 		return new DefaultStyledText().getText();
 	}
 	
+	/**
+	 * Returns stream which follows console text, the stream is updated by
+	 * console widget so console text can be searched without reading the
+	 * widget.
+	 * 
+	 * @return Console stream
+	 */
+	public ConsoleStream getConsoleStream() {
+		activate();
+		new WaitUntil(new ConsoleHasTextWidget());
+		return ConsoleStream.forStyledText(new DefaultStyledText().getSWTWidget());
+	}
+	
 	/**
 	 * Sets console text
 	 * @author psrna
@@ -1,68 +1,140 @@
 package org.jboss.tools.hibernate.reddeer.common;
 
 import java.io.StringReader;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
+import javax.xml.namespace.QName;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.xpath.XPath;
-import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathExpression;
 import javax.xml.xpath.XPathFactory;
+import javax.xml.xpath.XPathVariableResolver;
 
+import org.w3c.dom.Document;
 import org.xml.sax.InputSource;
 
 /**
  * Provides Xpath routines
+ *
+ * Expressions are compiled once and take their parameters from XPath
+ * variables, parsed documents are cached by content so repeated queries of
+ * the same document are evaluated against one DOM.
  * @author Jiri Peterka
  *
  */
 public class XPathHelper {
 
+	private static final String PERSISTENCE_PROPERTY = "/*[local-name()='persistence']/*[local-name()='persistence-unit']/*[local-name()='properties']/*[local-name()='property'][@name=$name]/@value";
+	private static final String MAPPING_FILE_TABLE = "/hibernate-mapping/class[@name=$name]/@table";
+
+	/** max number of cached documents */
+	private static final int DOCUMENT_CACHE_SIZE = 16;
+
 	private static XPathHelper instance;
 	private XPath xpath;
-	
-	private XPathHelper() { 
+	private DocumentBuilder documentBuilder;
+	private final Map<String, XPathExpression> expressions = new HashMap<String, XPathExpression>();
+	private final Map<String, Object> variables = new HashMap<String, Object>();
+
+	/** content hash -> parsed document, least recently used document is evicted */
+	private final Map<Integer, CachedDocument> documents = new LinkedHashMap<Integer, CachedDocument>(
+			DOCUMENT_CACHE_SIZE, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Integer, CachedDocument> eldest) {
+			return size() > DOCUMENT_CACHE_SIZE;
+		}
+	};
+
+	private XPathHelper() {
 		XPathFactory xpathFactory = XPathFactory.newInstance();
 		xpath = xpathFactory.newXPath();
+		xpath.setXPathVariableResolver(new XPathVariableResolver() {
+			@Override
+			public Object resolveVariable(QName variableName) {
+				return variables.get(variableName.getLocalPart());
+			}
+		});
+		DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
+		documentBuilderFactory.setNamespaceAware(true);
+		try {
+			// mapping files declare DTD, do not download it
+			documentBuilderFactory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+			documentBuilder = documentBuilderFactory.newDocumentBuilder();
+		} catch (Exception e) {
+			throw new RuntimeException("Cannot create XML parser", e);
+		}
 	}
-	
+
 	/**
 	 * Return XpathHelperInstance
 	 * @return
 	 */
-	public static XPathHelper getInstance() {
+	public static synchronized XPathHelper getInstance() {
 		if (instance == null) {
 			instance = new XPathHelper();
 		}
 		return instance;
 	}
-	
+
 	/**
 	 * Return value for property with given name from persistence.xml
 	 * @param property property name
 	 * @return return found string or null
 	 */
 	public String getPersistencePropertyValue(String property,String text) {
-		String ret = null;
-		String form = "/*[local-name()='persistence']/*[local-name()='persistence-unit']/*[local-name()='properties']/*[local-name()='property'][@name='" + property + "']/@value";
-		ret = evaluateXPath(form, text);
-		return ret;
+		return evaluateXPath(PERSISTENCE_PROPERTY, property, text);
 	}
-	
-	
+
+
 	public String getMappingFileTable(String clazz, String text) {
-		String ret = null;
-		String form = "/hibernate-mapping/class[@name='" + clazz + "']/@table";
-		ret = evaluateXPath(form, text);
-		return ret;
-	}	
-	
-	private String evaluateXPath(String eval, String text) {
-
-		InputSource source = new InputSource(new StringReader(text));
+		return evaluateXPath(MAPPING_FILE_TABLE, clazz, text);
+	}
+
+	/**
+	 * Evaluates compiled expression with variable $name against parsed document
+	 * @return found string or null if expression or document is not valid
+	 */
+	private synchronized String evaluateXPath(String eval, String name, String text) {
 		String status = null;
 		try {
-			status = xpath.evaluate(eval, source);
-		} catch (XPathExpressionException e) {
-			new RuntimeException("Cannot parse xpath" + e.getMessage());
+			XPathExpression expression = expressions.get(eval);
+			if (expression == null) {
+				expression = xpath.compile(eval);
+				expressions.put(eval, expression);
+			}
+			variables.put("name", name);
+			status = expression.evaluate(getDocument(text));
+		} catch (Exception e) {
+			// invalid expression or document, null is returned
+		} finally {
+			variables.clear();
 		}
 		return status;
 	}
+
+	private Document getDocument(String text) throws Exception {
+		int hash = text.hashCode();
+		CachedDocument cached = documents.get(hash);
+		if (cached == null || !cached.text.equals(text)) {
+			Document document = documentBuilder.parse(new InputSource(new StringReader(text)));
+			cached = new CachedDocument(text, document);
+			documents.put(hash, cached);
+		}
+		return cached.document;
+	}
+
+	private static class CachedDocument {
+		private final String text;
+		private final Document document;
+
+		CachedDocument(String text, Document document) {
+			this.text = text;
+			this.document = document;
+		}
+	}
 }
@@ -0,0 +1,164 @@
+package org.jboss.tools.hibernate.reddeer.factory;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.datatools.connectivity.ProfileManager;
+import org.eclipse.datatools.connectivity.drivers.DriverManager;
+import org.jboss.reddeer.common.logging.Logger;
+import org.jboss.reddeer.eclipse.core.resources.Project;
+import org.jboss.reddeer.eclipse.jdt.ui.ProjectExplorer;
+import org.jboss.reddeer.requirements.db.DatabaseConfiguration;
+
+/**
+ * Keeps prepared test fixtures alive across test methods and test classes.
+ * Driver definition and connection profile are kept for database
+ * configuration, configured projects are kept for (project, preparation id,
+ * hibernate version, jpa version, database configuration) key. Preparation
+ * id names what the preparation does, different preparations of the same
+ * project need different ids. Fixture is prepared again only when its key
+ * changes or when it was removed meanwhile.
+ *
+ * Tests which change the project have to {@link #invalidate(String)} it,
+ * tests which only generate files into it can
+ * {@link #deleteGenerated(String, String)} them.
+ */
+public class FixtureCache {
+
+	private static final Logger log = Logger.getLogger(FixtureCache.class);
+
+	private static FixtureCache instance;
+
+	private String databaseKey;
+
+	/** project name -> fixture key */
+	private final Map<String, String> projects = new HashMap<String, String>();
+
+	private FixtureCache() {
+	}
+
+	public static synchronized FixtureCache getInstance() {
+		if (instance == null) {
+			instance = new FixtureCache();
+		}
+		return instance;
+	}
+
+	/**
+	 * Creates driver definition and connection profile for given database
+	 * configuration unless they exist for the same configuration already
+	 *
+	 * @param cfg database configuration
+	 */
+	public void prepareDatabase(DatabaseConfiguration cfg) {
+		String key = getDatabaseKey(cfg);
+		if (key.equals(databaseKey) && databaseExists(cfg)) {
+			log.debug("Reusing driver definition and connection profile " + cfg.getProfileName());
+			return;
+		}
+		databaseKey = null;
+		DriverDefinitionFactory.createDatabaseDriverDefinition(cfg);
+		ConnectionProfileFactory.createConnectionProfile(cfg);
+		databaseKey = key;
+	}
+
+	/**
+	 * Prepares database and project fixture. Preparation is skipped when the
+	 * project exists and was prepared for the same key, otherwise the project
+	 * is deleted and preparation is run.
+	 *
+	 * @param prj project name
+	 * @param preparationId identifies the preparation
+	 * @param hbVersion hibernate version
+	 * @param jpaVersion jpa version
+	 * @param cfg database configuration
+	 * @param preparation imports and configures the project
+	 */
+	public void prepareProject(String prj, String preparationId, String hbVersion, String jpaVersion,
+			DatabaseConfiguration cfg, Runnable preparation) {
+		prepareDatabase(cfg);
+		String key = prj + "|" + preparationId + "|" + hbVersion + "|" + jpaVersion + "|" + getDatabaseKey(cfg);
+		if (key.equals(projects.get(prj)) && projectExists(prj)) {
+			log.info("Reusing prepared project " + prj);
+			return;
+		}
+		invalidate(prj);
+		preparation.run();
+		projects.put(prj, key);
+	}
+
+	/**
+	 * Forgets project fixture and deletes the project
+	 *
+	 * @param prj project name
+	 */
+	public void invalidate(String prj) {
+		projects.remove(prj);
+		if (projectExists(prj)) {
+			ProjectExplorer pe = new ProjectExplorer();
+			pe.open();
+			pe.getProject(prj).delete(true);
+		}
+	}
+
+	/**
+	 * Deletes file or folder generated into prepared project, project is
+	 * invalidated when it cannot be deleted
+	 *
+	 * @param prj project name
+	 * @param path project relative path of generated resource
+	 */
+	public void deleteGenerated(String prj, String path) {
+		IResource resource = ResourcesPlugin.getWorkspace().getRoot().getProject(prj).findMember(path);
+		if (resource == null) {
+			return;
+		}
+		try {
+			resource.delete(true, null);
+		} catch (CoreException e) {
+			log.error("Unable to delete " + resource.getFullPath() + ", project is prepared again", e);
+			invalidate(prj);
+		}
+	}
+
+	/**
+	 * Returns true if project is kept as prepared fixture
+	 */
+	public boolean isCached(String prj) {
+		return projects.containsKey(prj);
+	}
+
+	/**
+	 * Deletes all workspace projects except prepared fixtures
+	 */
+	public void deleteUncachedProjects() {
+		ProjectExplorer pe = new ProjectExplorer();
+		pe.open();
+		if (projects.isEmpty()) {
+			pe.deleteAllProjects();
+			return;
+		}
+		for (Project project : pe.getProjects()) {
+			if (!isCached(project.getName())) {
+				project.delete(true);
+			}
+		}
+	}
+
+	private static String getDatabaseKey(DatabaseConfiguration cfg) {
+		return cfg.getProfileName() + "|" + cfg.getDriverName() + "|" + cfg.getDriverPath() + "|"
+				+ cfg.getDriverClass() + "|" + cfg.getJdbcString() + "|" + cfg.getUsername();
+	}
+
+	private static boolean databaseExists(DatabaseConfiguration cfg) {
+		return DriverManager.getInstance().getDriverInstanceByName(cfg.getDriverName()) != null
+				&& ProfileManager.getInstance().getProfileByName(cfg.getProfileName()) != null;
+	}
+
+	private static boolean projectExists(String prj) {
+		return ResourcesPlugin.getWorkspace().getRoot().getProject(prj).exists();
+	}
+}
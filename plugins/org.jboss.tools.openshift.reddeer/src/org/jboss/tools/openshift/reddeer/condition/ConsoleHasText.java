@@ -2,9 +2,11 @@ package org.jboss.tools.openshift.reddeer.condition;
 
 import org.jboss.reddeer.common.condition.WaitCondition;
 import org.jboss.reddeer.eclipse.ui.console.ConsoleView;
+import org.jboss.tools.common.reddeer.console.ConsoleStream;
 
 /**
- * Condition notifies about not empty console.
+ * Condition notifies about not empty console. Console document is followed by
+ * {@link ConsoleStream}, so console text is not read on every test.
  * 
  * @author mlabuda@redhat.com
  *
@@ -20,7 +22,11 @@ public class ConsoleHasText implements WaitCondition{
 	
 	@Override
 	public boolean test() {
-		return !consoleView.getConsoleText().isEmpty();
+		ConsoleStream stream = ConsoleStream.forConsoleView();
+		if (stream == null) {
+			return !consoleView.getConsoleText().isEmpty();
+		}
+		return !stream.isEmpty();
 	}
 
 	@Override
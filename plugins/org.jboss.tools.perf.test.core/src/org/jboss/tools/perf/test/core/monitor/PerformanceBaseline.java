@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributor:
+ *     Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package org.jboss.tools.perf.test.core.monitor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Robust statistical baseline of one metric computed from previous runs. The
+ * baseline uses median and median absolute deviation (MAD) which are not
+ * affected by occasional outliers (e.g. a run slowed down by the machine).
+ *
+ * A value is a regression when it exceeds
+ *
+ * <pre>
+ * median + max(threshold * 1.4826 * MAD, tolerance * median)
+ * </pre>
+ *
+ * 1.4826 scales MAD to standard deviation of normally distributed values, the
+ * relative tolerance keeps the band from collapsing when the history is very
+ * stable.
+ */
+public class PerformanceBaseline {
+
+	/** scales MAD to be a consistent estimator of standard deviation */
+	private static final double MAD_SCALE = 1.4826;
+
+	private final int runs;
+	private final double median;
+	private final double mad;
+
+	private PerformanceBaseline(int runs, double median, double mad) {
+		this.runs = runs;
+		this.median = median;
+		this.mad = mad;
+	}
+
+	/**
+	 * Computes baseline of given values
+	 */
+	public static PerformanceBaseline of(List<Long> values) {
+		if (values.isEmpty()) {
+			return new PerformanceBaseline(0, 0, 0);
+		}
+		List<Double> sorted = new ArrayList<Double>(values.size());
+		for (Long value : values) {
+			sorted.add(value.doubleValue());
+		}
+		double median = median(sorted);
+		List<Double> deviations = new ArrayList<Double>(values.size());
+		for (Double value : sorted) {
+			deviations.add(Math.abs(value - median));
+		}
+		return new PerformanceBaseline(values.size(), median, median(deviations));
+	}
+
+	private static double median(List<Double> values) {
+		Collections.sort(values);
+		int middle = values.size() / 2;
+		if (values.size() % 2 == 1) {
+			return values.get(middle);
+		}
+		return (values.get(middle - 1) + values.get(middle)) / 2;
+	}
+
+	/**
+	 * Returns number of runs the baseline was computed from
+	 */
+	public int getRuns() {
+		return runs;
+	}
+
+	public double getMedian() {
+		return median;
+	}
+
+	public double getMad() {
+		return mad;
+	}
+
+	/**
+	 * Returns the highest value which is still considered as noise
+	 *
+	 * @param threshold
+	 *            number of (MAD based) standard deviations
+	 * @param tolerance
+	 *            minimal width of the band relative to median (e.g. 0.05)
+	 */
+	public double getUpperBound(double threshold, double tolerance) {
+		return median + Math.max(threshold * MAD_SCALE * mad, tolerance * median);
+	}
+
+	public boolean isRegression(long value, double threshold, double tolerance) {
+		return runs > 0 && value > getUpperBound(threshold, tolerance);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("median=%.0f MAD=%.0f runs=%d", median, mad, runs);
+	}
+}
@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributor:
+ *     Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package org.jboss.tools.perf.test.core.monitor;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.log4j.Logger;
+import org.junit.Assert;
+
+/**
+ * Compares results of a scenario with its {@link PerformanceHistory} and fails
+ * when a metric is worse than the {@link PerformanceBaseline} noise band.
+ * Passing results are appended to the history so that the baseline follows
+ * accepted changes. Everything works with local files only.
+ *
+ * Gate is configured by system properties
+ * <ul>
+ * <li><code>perf.history.dir</code> - history directory (default
+ * ~/.jbosstools/perf-history)</li>
+ * <li><code>perf.baseline.metrics</code> - comma separated compared metrics
+ * (default duration)</li>
+ * <li><code>perf.baseline.threshold</code> - number of MAD based standard
+ * deviations (default 3)</li>
+ * <li><code>perf.baseline.tolerance</code> - minimal relative band (default
+ * 0.05)</li>
+ * <li><code>perf.baseline.minRuns</code> - runs needed before the gate fails
+ * (default 5)</li>
+ * <li><code>perf.baseline.window</code> - number of latest runs used (default
+ * 20)</li>
+ * <li><code>perf.baseline.fail</code> - false only reports regressions (default
+ * true)</li>
+ * <li><code>perf.baseline.accept</code> - true records results even if they
+ * regressed, used to accept new baseline (default false)</li>
+ * </ul>
+ */
+public class PerformanceGate {
+
+	private static final Logger log = Logger.getLogger(PerformanceGate.class);
+
+	public static final String HISTORY_DIR_PROPERTY = "perf.history.dir";
+	public static final String METRICS_PROPERTY = "perf.baseline.metrics";
+	public static final String THRESHOLD_PROPERTY = "perf.baseline.threshold";
+	public static final String TOLERANCE_PROPERTY = "perf.baseline.tolerance";
+	public static final String MIN_RUNS_PROPERTY = "perf.baseline.minRuns";
+	public static final String WINDOW_PROPERTY = "perf.baseline.window";
+	public static final String FAIL_PROPERTY = "perf.baseline.fail";
+	public static final String ACCEPT_PROPERTY = "perf.baseline.accept";
+
+	private final PerformanceHistory history;
+	private final String[] metrics;
+	private final double threshold;
+	private final double tolerance;
+	private final int minRuns;
+	private final int window;
+	private final boolean fail;
+	private final boolean accept;
+
+	/**
+	 * Creates gate configured by system properties
+	 */
+	public PerformanceGate() {
+		history = new PerformanceHistory(new File(System.getProperty(HISTORY_DIR_PROPERTY,
+				System.getProperty("user.home") + File.separator + ".jbosstools" + File.separator + "perf-history")));
+		metrics = System.getProperty(METRICS_PROPERTY, "duration").split("\\s*,\\s*");
+		threshold = Double.parseDouble(System.getProperty(THRESHOLD_PROPERTY, "3"));
+		tolerance = Double.parseDouble(System.getProperty(TOLERANCE_PROPERTY, "0.05"));
+		minRuns = Integer.getInteger(MIN_RUNS_PROPERTY, 5);
+		window = Integer.getInteger(WINDOW_PROPERTY, 20);
+		fail = Boolean.parseBoolean(System.getProperty(FAIL_PROPERTY, "true"));
+		accept = Boolean.parseBoolean(System.getProperty(ACCEPT_PROPERTY, "false"));
+	}
+
+	/**
+	 * Compares summary with history of scenario with the summary name, records
+	 * the summary and fails when any compared metric regressed
+	 */
+	public void check(PerformanceSummary summary) {
+		List<String> regressions = new ArrayList<String>();
+		for (String metric : metrics) {
+			Long value = summary.get(metric);
+			if (value == null) {
+				continue;
+			}
+			PerformanceBaseline baseline;
+			try {
+				baseline = getBaseline(summary.getName(), metric);
+			} catch (IOException e) {
+				log.error("Unable to read performance history of " + summary.getName(), e);
+				continue;
+			}
+			if (baseline.getRuns() < minRuns) {
+				log.info(summary.getName() + " " + metric + "=" + value + ", not enough runs for baseline ("
+						+ baseline + ")");
+				continue;
+			}
+			String message = String.format("%s %s=%d, baseline %s, limit %.0f", summary.getName(), metric, value,
+					baseline, baseline.getUpperBound(threshold, tolerance));
+			if (baseline.isRegression(value, threshold, tolerance)) {
+				log.error("Performance regression: " + message);
+				regressions.add(message);
+			} else {
+				log.info(message);
+			}
+		}
+		if (regressions.isEmpty() || accept) {
+			try {
+				history.append(summary);
+			} catch (IOException e) {
+				log.error("Unable to record performance history of " + summary.getName(), e);
+			}
+		}
+		if (fail && !regressions.isEmpty()) {
+			Assert.fail("Performance regression: " + regressions);
+		}
+	}
+
+	/**
+	 * Returns baseline computed from the latest runs of the scenario
+	 */
+	public PerformanceBaseline getBaseline(String scenario, String metric) throws IOException {
+		List<Long> values = history.getValues(scenario, metric);
+		if (values.size() > window) {
+			values = values.subList(values.size() - window, values.size());
+		}
+		return PerformanceBaseline.of(values);
+	}
+
+	public PerformanceHistory getHistory() {
+		return history;
+	}
+}
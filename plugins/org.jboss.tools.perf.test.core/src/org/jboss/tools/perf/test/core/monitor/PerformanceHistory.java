@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributor:
+ *     Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package org.jboss.tools.perf.test.core.monitor;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Local file based history of performance results. Every scenario has its own
+ * append-only file <code>&lt;scenario&gt;.history</code>, one line per run:
+ *
+ * <pre>
+ * &lt;timestamp&gt; key=value key=value ...
+ * </pre>
+ *
+ * History does not need any server, it is meant to be kept between builds on
+ * the same machine (see {@link PerformanceGate}).
+ */
+public class PerformanceHistory {
+
+	public static final String FILE_SUFFIX = ".history";
+
+	private final File dir;
+
+	public PerformanceHistory(File dir) {
+		this.dir = dir;
+	}
+
+	public File getDir() {
+		return dir;
+	}
+
+	/**
+	 * Returns all recorded runs of the scenario, oldest first
+	 */
+	public List<PerformanceSummary> load(String scenario) throws IOException {
+		List<PerformanceSummary> runs = new ArrayList<PerformanceSummary>();
+		File file = getFile(scenario);
+		if (!file.isFile()) {
+			return runs;
+		}
+		BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), "UTF-8"));
+		try {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				line = line.trim();
+				if (line.length() == 0 || line.startsWith("#")) {
+					continue;
+				}
+				PerformanceSummary run = new PerformanceSummary(scenario);
+				String[] tokens = line.split("\\s+");
+				// first token is the timestamp
+				for (int i = 1; i < tokens.length; i++) {
+					int index = tokens[i].indexOf('=');
+					if (index <= 0) {
+						continue;
+					}
+					try {
+						run.put(tokens[i].substring(0, index), Long.parseLong(tokens[i].substring(index + 1)));
+					} catch (NumberFormatException e) {
+						// skip corrupted value
+					}
+				}
+				runs.add(run);
+			}
+		} finally {
+			reader.close();
+		}
+		return runs;
+	}
+
+	/**
+	 * Returns values of given metric in recorded runs, oldest first. Runs
+	 * without the metric are skipped.
+	 */
+	public List<Long> getValues(String scenario, String metric) throws IOException {
+		List<Long> values = new ArrayList<Long>();
+		for (PerformanceSummary run : load(scenario)) {
+			Long value = run.get(metric);
+			if (value != null) {
+				values.add(value);
+			}
+		}
+		return values;
+	}
+
+	/**
+	 * Appends summary as a new run of scenario with the summary name
+	 */
+	public synchronized void append(PerformanceSummary summary) throws IOException {
+		dir.mkdirs();
+		Writer writer = new OutputStreamWriter(new FileOutputStream(getFile(summary.getName()), true), "UTF-8");
+		try {
+			StringBuilder line = new StringBuilder(Long.toString(System.currentTimeMillis()));
+			for (Map.Entry<String, Long> entry : summary.getValues().entrySet()) {
+				line.append(' ').append(entry.getKey()).append('=').append(entry.getValue());
+			}
+			writer.write(line.append('\n').toString());
+		} finally {
+			writer.close();
+		}
+	}
+
+	private File getFile(String scenario) {
+		return new File(dir, scenario.replaceAll("[^\\w.\\-]+", "_") + FILE_SUFFIX);
+	}
+}
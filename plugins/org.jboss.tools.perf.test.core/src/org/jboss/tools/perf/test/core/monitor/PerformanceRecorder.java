@@ -0,0 +1,270 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributor:
+ *     Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package org.jboss.tools.perf.test.core.monitor;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryUsage;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.log4j.Logger;
+import org.eclipse.core.runtime.jobs.IJobChangeEvent;
+import org.eclipse.core.runtime.jobs.IJobChangeListener;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.JobChangeAdapter;
+
+/**
+ * Records time series of JVM metrics (heap, GC, threads) sampled from JMX
+ * MXBeans together with durations of Eclipse jobs while a test runs.
+ *
+ * Samples are stored in a columnar text file <code>&lt;name&gt;.perf</code>
+ * (one line per metric, values are deltas against previous sample) and
+ * aggregated in <code>&lt;name&gt;.summary.properties</code> which can be
+ * compared between builds (see {@link PerformanceSummary}).
+ *
+ * Recorder is configured by system properties
+ * <ul>
+ * <li><code>perf.recorder.dir</code> - output directory (default
+ * target/perf-results)</li>
+ * <li><code>perf.recorder.interval</code> - sampling interval in ms (default
+ * 250)</li>
+ * </ul>
+ */
+public class PerformanceRecorder {
+
+	private static final Logger log = Logger.getLogger(PerformanceRecorder.class);
+
+	public static final String OUTPUT_DIR_PROPERTY = "perf.recorder.dir";
+	public static final String INTERVAL_PROPERTY = "perf.recorder.interval";
+
+	public static final String DEFAULT_OUTPUT_DIR = "target/perf-results";
+	public static final long DEFAULT_INTERVAL = 250;
+
+	/** metrics sampled in each interval, in column order */
+	public static final String[] COLUMNS = { "time", "heapUsed", "heapCommitted", "nonHeapUsed", "gcCount",
+			"gcTime", "threads", "runningJobs" };
+
+	private final String name;
+	private final File outputDir;
+	private final long interval;
+
+	private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+	private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+	private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+
+	private final List<long[]> samples = new ArrayList<long[]>();
+	private final ConcurrentMap<String, JobStatistics> jobStatistics = new ConcurrentHashMap<String, JobStatistics>();
+	private final Map<Job, Long> jobStarts = new ConcurrentHashMap<Job, Long>();
+	private final AtomicInteger runningJobs = new AtomicInteger();
+
+	private ScheduledExecutorService sampler;
+	private IJobChangeListener jobListener;
+	private long startTime;
+	private long stopTime;
+
+	/**
+	 * Creates recorder configured by system properties
+	 *
+	 * @param name
+	 *            name of recorded test, used as a file name
+	 */
+	public PerformanceRecorder(String name) {
+		this(name, new File(System.getProperty(OUTPUT_DIR_PROPERTY, DEFAULT_OUTPUT_DIR)),
+				Long.getLong(INTERVAL_PROPERTY, DEFAULT_INTERVAL));
+	}
+
+	public PerformanceRecorder(String name, File outputDir, long interval) {
+		this.name = name;
+		this.outputDir = outputDir;
+		this.interval = interval;
+	}
+
+	/**
+	 * Starts sampling and listening to jobs
+	 */
+	public synchronized void start() {
+		startTime = System.currentTimeMillis();
+		jobListener = new JobChangeAdapter() {
+			@Override
+			public void running(IJobChangeEvent event) {
+				runningJobs.incrementAndGet();
+				jobStarts.put(event.getJob(), System.currentTimeMillis());
+			}
+
+			@Override
+			public void done(IJobChangeEvent event) {
+				Long start = jobStarts.remove(event.getJob());
+				if (start != null) {
+					runningJobs.decrementAndGet();
+					getJobStatistics(event.getJob().getName()).add(System.currentTimeMillis() - start);
+				}
+			}
+		};
+		Job.getJobManager().addJobChangeListener(jobListener);
+		sampler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, "Performance recorder - " + name);
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		sampler.scheduleAtFixedRate(new Runnable() {
+			public void run() {
+				sample();
+			}
+		}, 0, interval, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stops sampling, takes last sample and writes results
+	 *
+	 * @return summary of the recording
+	 */
+	public synchronized PerformanceSummary stop() {
+		sampler.shutdownNow();
+		try {
+			sampler.awaitTermination(interval, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		Job.getJobManager().removeJobChangeListener(jobListener);
+		stopTime = System.currentTimeMillis();
+		sample();
+		PerformanceSummary summary = summarize();
+		try {
+			outputDir.mkdirs();
+			writeSamples(new File(outputDir, name + ".perf"));
+			summary.store(new File(outputDir, name + PerformanceSummary.FILE_SUFFIX));
+		} catch (IOException e) {
+			log.error("Unable to write performance results of " + name, e);
+		}
+		return summary;
+	}
+
+	private void sample() {
+		MemoryUsage heap = memory.getHeapMemoryUsage();
+		long gcCount = 0;
+		long gcTime = 0;
+		for (GarbageCollectorMXBean collector : collectors) {
+			gcCount += Math.max(0, collector.getCollectionCount());
+			gcTime += Math.max(0, collector.getCollectionTime());
+		}
+		long[] sample = new long[] { System.currentTimeMillis() - startTime, heap.getUsed(), heap.getCommitted(),
+				memory.getNonHeapMemoryUsage().getUsed(), gcCount, gcTime, threads.getThreadCount(),
+				runningJobs.get() };
+		synchronized (samples) {
+			samples.add(sample);
+		}
+	}
+
+	private JobStatistics getJobStatistics(String jobName) {
+		JobStatistics statistics = jobStatistics.get(jobName);
+		if (statistics == null) {
+			jobStatistics.putIfAbsent(jobName, new JobStatistics());
+			statistics = jobStatistics.get(jobName);
+		}
+		return statistics;
+	}
+
+	private PerformanceSummary summarize() {
+		PerformanceSummary summary = new PerformanceSummary(name);
+		summary.put("duration", stopTime - startTime);
+		synchronized (samples) {
+			long maxHeap = 0;
+			long sumHeap = 0;
+			long maxThreads = 0;
+			long maxGcPause = 0;
+			long[] previous = null;
+			for (long[] sample : samples) {
+				maxHeap = Math.max(maxHeap, sample[1]);
+				sumHeap += sample[1];
+				maxThreads = Math.max(maxThreads, sample[6]);
+				if (previous != null) {
+					// GC time spent within one sampling interval
+					maxGcPause = Math.max(maxGcPause, sample[5] - previous[5]);
+				}
+				previous = sample;
+			}
+			if (!samples.isEmpty()) {
+				long[] first = samples.get(0);
+				long[] last = samples.get(samples.size() - 1);
+				summary.put("heap.max", maxHeap);
+				summary.put("heap.avg", sumHeap / samples.size());
+				summary.put("gc.count", last[4] - first[4]);
+				summary.put("gc.time", last[5] - first[5]);
+				summary.put("gc.maxIntervalTime", maxGcPause);
+				summary.put("threads.max", maxThreads);
+			}
+		}
+		for (Map.Entry<String, JobStatistics> entry : new TreeMap<String, JobStatistics>(jobStatistics).entrySet()) {
+			String prefix = "job." + entry.getKey().replaceAll("[\\s=:]+", "_") + ".";
+			summary.put(prefix + "count", entry.getValue().count);
+			summary.put(prefix + "total", entry.getValue().total);
+			summary.put(prefix + "max", entry.getValue().max);
+		}
+		return summary;
+	}
+
+	/**
+	 * Writes samples column by column, every value is stored as a delta against
+	 * the previous value in the same column which keeps the file small
+	 */
+	private void writeSamples(File file) throws IOException {
+		Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), "UTF-8"));
+		try {
+			writer.write("# " + name + " interval=" + interval + "ms samples=" + samples.size() + "\n");
+			synchronized (samples) {
+				for (int column = 0; column < COLUMNS.length; column++) {
+					writer.write(COLUMNS[column]);
+					long previous = 0;
+					for (long[] sample : samples) {
+						writer.write(' ');
+						writer.write(Long.toString(sample[column] - previous));
+						previous = sample[column];
+					}
+					writer.write('\n');
+				}
+			}
+		} finally {
+			writer.close();
+		}
+	}
+
+	private static class JobStatistics {
+		private long count;
+		private long total;
+		private long max;
+
+		synchronized void add(long duration) {
+			count++;
+			total += duration;
+			max = Math.max(max, duration);
+		}
+	}
+}
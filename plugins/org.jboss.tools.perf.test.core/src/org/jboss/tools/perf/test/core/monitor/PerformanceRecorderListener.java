@@ -0,0 +1,54 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributor:
+ *     Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package org.jboss.tools.perf.test.core.monitor;
+
+import org.apache.log4j.Logger;
+import org.junit.runner.Description;
+import org.junit.runner.notification.RunListener;
+
+/**
+ * Run listener recording every test by {@link PerformanceRecorder}. Results
+ * are named &lt;test class&gt;.&lt;test method&gt;.
+ */
+public class PerformanceRecorderListener extends RunListener {
+
+	private static final Logger log = Logger.getLogger(PerformanceRecorderListener.class);
+
+	private PerformanceRecorder recorder;
+
+	@Override
+	public void testStarted(Description description) throws Exception {
+		stopRecorder();
+		recorder = new PerformanceRecorder(getName(description));
+		recorder.start();
+	}
+
+	@Override
+	public void testFinished(Description description) throws Exception {
+		stopRecorder();
+	}
+
+	private void stopRecorder() {
+		if (recorder != null) {
+			PerformanceSummary summary = recorder.stop();
+			log.info("Performance summary: " + summary);
+			recorder = null;
+		}
+	}
+
+	/**
+	 * Returns name of the test usable as a file name
+	 */
+	public static String getName(Description description) {
+		String name = description.getClassName() + "." + description.getMethodName();
+		return name.replaceAll("[^\\w.\\-]+", "_");
+	}
+}
@@ -0,0 +1,79 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributor:
+ *     Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package org.jboss.tools.perf.test.core.monitor;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.jboss.tools.common.reddeer.utils.PerformanceSummaryFile;
+
+/**
+ * Named set of numeric metrics of one recorded test (e.g. duration, heap.max,
+ * job.&lt;name&gt;.total). Summary is stored as a sorted properties file so that
+ * summaries of different builds can be compared (also by diff).
+ */
+public class PerformanceSummary {
+
+	public static final String FILE_SUFFIX = PerformanceSummaryFile.FILE_SUFFIX;
+
+	private final String name;
+	private final SortedMap<String, Long> values = new TreeMap<String, Long>();
+
+	public PerformanceSummary(String name) {
+		this.name = name;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void put(String key, long value) {
+		values.put(key, value);
+	}
+
+	/**
+	 * Returns metric value or null if summary does not contain the metric
+	 */
+	public Long get(String key) {
+		return values.get(key);
+	}
+
+	public Map<String, Long> getValues() {
+		return Collections.unmodifiableMap(values);
+	}
+
+	/**
+	 * Stores summary, keys are written in alphabetical order (see
+	 * {@link PerformanceSummaryFile})
+	 */
+	public void store(File file) throws IOException {
+		PerformanceSummaryFile.store(file, name, values);
+	}
+
+	/**
+	 * Loads summary stored by {@link #store(File)}, summary name is derived from
+	 * the file name
+	 */
+	public static PerformanceSummary load(File file) throws IOException {
+		PerformanceSummary summary = new PerformanceSummary(PerformanceSummaryFile.getName(file));
+		summary.values.putAll(PerformanceSummaryFile.load(file));
+		return summary;
+	}
+
+	@Override
+	public String toString() {
+		return name + " " + values;
+	}
+}
@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributor:
+ *     Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package org.jboss.tools.perf.test.core.monitor;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.log4j.Logger;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.ui.PlatformUI;
+
+/**
+ * Waits until the workbench is quiet, i.e. for given number of consecutive
+ * samples
+ * <ul>
+ * <li>there is no running or waiting job</li>
+ * <li>UI thread processes a runnable without delay (there are no pending
+ * async runnables)</li>
+ * <li>workspace did not change since the previous sample (builds and
+ * indexing finished)</li>
+ * </ul>
+ *
+ * It is meant to replace fixed warm-up sleeps, configured by system properties
+ * <ul>
+ * <li><code>perf.quiescence.samples</code> - required number of consecutive
+ * quiet samples (default 5)</li>
+ * <li><code>perf.quiescence.interval</code> - sampling interval in ms (default
+ * 500)</li>
+ * <li><code>perf.quiescence.uiLatency</code> - max UI thread latency in ms
+ * (default 100)</li>
+ * <li><code>perf.quiescence.timeout</code> - max time to wait in ms (default
+ * 120000)</li>
+ * </ul>
+ */
+public class WorkbenchQuiescence {
+
+	private static final Logger log = Logger.getLogger(WorkbenchQuiescence.class);
+
+	public static final String SAMPLES_PROPERTY = "perf.quiescence.samples";
+	public static final String INTERVAL_PROPERTY = "perf.quiescence.interval";
+	public static final String UI_LATENCY_PROPERTY = "perf.quiescence.uiLatency";
+	public static final String TIMEOUT_PROPERTY = "perf.quiescence.timeout";
+
+	private final int samples;
+	private final long interval;
+	private final long uiLatency;
+	private final long timeout;
+
+	private final AtomicLong resourceChanges = new AtomicLong();
+
+	/**
+	 * Creates detector configured by system properties
+	 */
+	public WorkbenchQuiescence() {
+		this(Integer.getInteger(SAMPLES_PROPERTY, 5), Long.getLong(INTERVAL_PROPERTY, 500),
+				Long.getLong(UI_LATENCY_PROPERTY, 100), Long.getLong(TIMEOUT_PROPERTY, 120000));
+	}
+
+	public WorkbenchQuiescence(int samples, long interval, long uiLatency, long timeout) {
+		this.samples = samples;
+		this.interval = interval;
+		this.uiLatency = uiLatency;
+		this.timeout = timeout;
+	}
+
+	/**
+	 * Waits until workbench is quiet or timeout elapses, must not be called in
+	 * UI thread
+	 *
+	 * @return true if the workbench became quiet, false on timeout
+	 */
+	public boolean waitForQuiescence() {
+		Display display = PlatformUI.getWorkbench().getDisplay();
+		if (display.getThread() == Thread.currentThread()) {
+			throw new IllegalStateException("Quiescence cannot be detected from UI thread");
+		}
+		IResourceChangeListener listener = new IResourceChangeListener() {
+			public void resourceChanged(IResourceChangeEvent event) {
+				resourceChanges.incrementAndGet();
+			}
+		};
+		ResourcesPlugin.getWorkspace().addResourceChangeListener(listener);
+		try {
+			long start = System.currentTimeMillis();
+			long deadline = start + timeout;
+			long lastChanges = resourceChanges.get();
+			int quietSamples = 0;
+			String reason = null;
+			while (System.currentTimeMillis() < deadline) {
+				long changes = resourceChanges.get();
+				reason = getBusyReason(display, changes != lastChanges);
+				lastChanges = changes;
+				if (reason == null) {
+					quietSamples++;
+					if (quietSamples >= samples) {
+						log.info("Workbench is quiet after " + (System.currentTimeMillis() - start) + " ms");
+						return true;
+					}
+				} else {
+					quietSamples = 0;
+				}
+				try {
+					Thread.sleep(interval);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return false;
+				}
+			}
+			log.warn("Workbench is not quiet after " + timeout + " ms: " + reason);
+			return false;
+		} finally {
+			ResourcesPlugin.getWorkspace().removeResourceChangeListener(listener);
+		}
+	}
+
+	/**
+	 * returns description of activity keeping workbench busy or null if it is
+	 * quiet
+	 */
+	private String getBusyReason(Display display, boolean workspaceChanged) {
+		if (!Job.getJobManager().isIdle()) {
+			return "jobs are running";
+		}
+		if (workspaceChanged) {
+			return "workspace changed";
+		}
+		if (display.isDisposed()) {
+			return null;
+		}
+		// async runnables are processed in order, so the probe waits for all
+		// runnables posted before it
+		long probeStart = System.currentTimeMillis();
+		display.syncExec(new Runnable() {
+			public void run() {
+				// probe
+			}
+		});
+		long latency = System.currentTimeMillis() - probeStart;
+		if (latency > uiLatency) {
+			return "UI thread latency " + latency + " ms";
+		}
+		return null;
+	}
+}
@@ -1,7 +1,9 @@
 package org.jboss.tools.perf.test.core.reddeer;
 
 import org.jboss.perf.test.client.listener.junit.PerfListener;
+import org.jboss.tools.perf.test.core.monitor.PerformanceRecorderListener;
 import org.jboss.reddeer.junit.runner.RedDeerSuite;
+import org.junit.runner.notification.RunListener;
 import org.junit.runners.model.RunnerBuilder;
 
 /**
@@ -10,7 +12,8 @@ import org.junit.runners.model.RunnerBuilder;
  * @author Vlado Pakan
  */
 public class PerformanceRedDeerSuite extends RedDeerSuite {
-  final static PerfListener[] performanceListeners = new PerfListener[] {new PerfListener()};
+  final static RunListener[] performanceListeners = new RunListener[] {new PerfListener(),
+    new PerformanceRecorderListener()};
   
   static{
     runListeners = performanceListeners;
@@ -1,6 +1,7 @@
 package org.jboss.tools.perf.test.core.swtbot;
 
 import org.jboss.perf.test.client.listener.junit.PerfListener;
+import org.jboss.tools.perf.test.core.monitor.PerformanceRecorderListener;
 import org.jboss.tools.ui.bot.ext.RequirementAwareSuite;
 import org.junit.runner.notification.RunListener;
 
@@ -10,7 +11,8 @@ import org.junit.runner.notification.RunListener;
  * @author Vlado Pakan
  */
 public class PerformanceRequirementAwareSuite extends RequirementAwareSuite {
-  final static PerfListener[] performanceListeners = new PerfListener[] {new PerfListener()};
+  final static RunListener[] performanceListeners = new RunListener[] {new PerfListener(),
+    new PerformanceRecorderListener()};
 	public PerformanceRequirementAwareSuite(Class<?> klass) throws Throwable {
     super(klass);
   }
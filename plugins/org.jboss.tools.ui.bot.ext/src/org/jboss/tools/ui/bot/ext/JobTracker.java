@@ -0,0 +1,289 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributor:
+ *     Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package org.jboss.tools.ui.bot.ext;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.Logger;
+import org.eclipse.core.runtime.jobs.IJobChangeEvent;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.JobChangeAdapter;
+import org.jboss.tools.ui.bot.ext.types.JobState;
+
+/**
+ * Keeps an index of live jobs grouped by (case insensitive) job name. The index
+ * is maintained by single {@link org.eclipse.core.runtime.jobs.IJobChangeListener}
+ * registered in JobManager, so that callers do not need to query
+ * {@link Job#getJobManager()} repeatedly while waiting.
+ *
+ * Waiting is done on a latch which is released as soon as the last matching job
+ * leaves the index, see {@link #waitFor(boolean, long, String...)}
+ */
+public class JobTracker {
+
+	private static final Logger log = Logger.getLogger(JobTracker.class);
+
+	private static JobTracker instance;
+
+	private final Map<String, Set<Job>> jobs = new ConcurrentHashMap<String, Set<Job>>();
+
+	private final List<Waiter> waiters = new CopyOnWriteArrayList<Waiter>();
+
+	private JobTracker() {
+	}
+
+	/**
+	 * Returns tracker instance, listener is registered to JobManager on first call
+	 *
+	 * @return shared job tracker
+	 */
+	public static synchronized JobTracker getInstance() {
+		if (instance == null) {
+			instance = new JobTracker();
+			instance.install();
+		}
+		return instance;
+	}
+
+	private void install() {
+		// register listener first so that no job scheduled meanwhile is missed
+		Job.getJobManager().addJobChangeListener(new JobChangeAdapter() {
+			@Override
+			public void scheduled(IJobChangeEvent event) {
+				add(event.getJob());
+				changed();
+			}
+
+			@Override
+			public void done(IJobChangeEvent event) {
+				remove(event.getJob());
+				changed();
+			}
+
+			@Override
+			public void sleeping(IJobChangeEvent event) {
+				changed();
+			}
+
+			@Override
+			public void awake(IJobChangeEvent event) {
+				changed();
+			}
+
+			@Override
+			public void running(IJobChangeEvent event) {
+				changed();
+			}
+		});
+		for (Job job : Job.getJobManager().find(null)) {
+			add(job);
+		}
+	}
+
+	private void add(Job job) {
+		String key = key(job.getName());
+		Set<Job> named = jobs.get(key);
+		if (named == null) {
+			synchronized (jobs) {
+				named = jobs.get(key);
+				if (named == null) {
+					named = Collections.newSetFromMap(new ConcurrentHashMap<Job, Boolean>());
+					jobs.put(key, named);
+				}
+			}
+		}
+		named.add(job);
+	}
+
+	private void remove(Job job) {
+		Set<Job> named = jobs.get(key(job.getName()));
+		if (named != null) {
+			named.remove(job);
+		}
+		// job name may have changed while the job lived
+		for (Set<Job> other : jobs.values()) {
+			other.remove(job);
+		}
+	}
+
+	private void changed() {
+		for (Waiter waiter : waiters) {
+			waiter.check();
+		}
+	}
+
+	private static String key(String jobName) {
+		return jobName == null ? "" : jobName.toLowerCase(Locale.ENGLISH);
+	}
+
+	/**
+	 * Returns true if job with given name is running or waiting to be run
+	 *
+	 * @param jobName name of the job
+	 * @return true if such job exists, else false
+	 */
+	public boolean isJobRunning(String jobName) {
+		return hasJob(jobName, false);
+	}
+
+	/**
+	 * Returns true if job with given name is sleeping
+	 *
+	 * @param jobName name of the job
+	 * @return true if such job exists, else false
+	 */
+	public boolean isJobSleeping(String jobName) {
+		Set<Job> named = jobs.get(key(jobName));
+		if (named != null) {
+			for (Job job : named) {
+				if (job.getState() == JobState.SLEEPING) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private boolean hasJob(String jobName, boolean includeSleepingJobs) {
+		Set<Job> named = jobs.get(key(jobName));
+		if (named == null) {
+			return false;
+		}
+		for (Job job : named) {
+			// job state is read directly, jobs in NONE state (just scheduled or
+			// already done) are not blocking
+			int state = job.getState();
+			if (state == JobState.RUNNING || state == JobState.WAITING
+					|| (includeSleepingJobs && state == JobState.SLEEPING)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns names of all jobs currently known to the tracker
+	 *
+	 * @return list of job names
+	 */
+	public List<String> getJobNames() {
+		List<String> names = new ArrayList<String>();
+		for (Set<Job> named : jobs.values()) {
+			for (Job job : named) {
+				if (job.getState() != JobState.NONE) {
+					names.add(job.getName());
+				}
+			}
+		}
+		return names;
+	}
+
+	/**
+	 * Returns names from given list which belong to running (waiting, and
+	 * optionally sleeping) jobs
+	 *
+	 * @param includeSleepingJobs
+	 * @param jobNames
+	 * @return list of blocking job names
+	 */
+	public List<String> getBlockingJobs(boolean includeSleepingJobs, String... jobNames) {
+		List<String> blocking = new ArrayList<String>();
+		for (String jobName : jobNames) {
+			if (hasJob(jobName, includeSleepingJobs)) {
+				blocking.add(jobName);
+			}
+		}
+		return blocking;
+	}
+
+	/**
+	 * Blocks until no job with given names is running, waiting or (optionally)
+	 * sleeping or until timeout is reached. Calling thread is woken as soon as
+	 * the last matching job finishes, progress is logged every
+	 * <code>logInterval</code> ms.
+	 *
+	 * @param includeSleepingJobs
+	 * @param timeOut
+	 * @param logInterval
+	 * @param jobNames
+	 * @return true if all jobs finished, false on timeout
+	 */
+	public boolean waitFor(boolean includeSleepingJobs, long timeOut, long logInterval, String... jobNames) {
+		Waiter waiter = new Waiter(includeSleepingJobs, jobNames);
+		waiters.add(waiter);
+		try {
+			long startTime = System.currentTimeMillis();
+			while (true) {
+				// state changes done without notification (e.g. scheduled job
+				// becoming WAITING) are caught by re-checking on every pass
+				waiter.check();
+				long waitTime = System.currentTimeMillis() - startTime;
+				if (waitTime > timeOut) {
+					log.info("Waiting for jobs " + getBlockingJobs(includeSleepingJobs, jobNames)
+							+ " timeOut " + timeOut + "ms");
+					return false;
+				}
+				try {
+					if (waiter.latch.await(Math.min(logInterval, timeOut - waitTime + 1), TimeUnit.MILLISECONDS)) {
+						return true;
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return false;
+				}
+				log.info("Waiting for Jobs " + getBlockingJobs(includeSleepingJobs, jobNames) + " for "
+						+ (System.currentTimeMillis() - startTime) / 1000 + "s");
+			}
+		} finally {
+			waiters.remove(waiter);
+		}
+	}
+
+	/**
+	 * @see #waitFor(boolean, long, long, String...)
+	 */
+	public boolean waitFor(boolean includeSleepingJobs, long timeOut, String... jobNames) {
+		return waitFor(includeSleepingJobs, timeOut, timeOut, jobNames);
+	}
+
+	private class Waiter {
+
+		private final boolean includeSleepingJobs;
+		private final String[] jobNames;
+		private final CountDownLatch latch = new CountDownLatch(1);
+
+		public Waiter(boolean includeSleepingJobs, String[] jobNames) {
+			this.includeSleepingJobs = includeSleepingJobs;
+			this.jobNames = jobNames;
+		}
+
+		public void check() {
+			if (latch.getCount() == 0) {
+				return;
+			}
+			for (String jobName : jobNames) {
+				if (hasJob(jobName, includeSleepingJobs)) {
+					return;
+				}
+			}
+			latch.countDown();
+		}
+	}
+}
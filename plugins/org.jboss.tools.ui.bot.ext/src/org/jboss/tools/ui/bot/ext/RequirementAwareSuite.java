@@ -21,6 +21,7 @@ import org.jboss.tools.ui.bot.ext.config.Annotations.Require;
 import org.jboss.tools.ui.bot.ext.config.TestConfiguration;
 import org.jboss.tools.ui.bot.ext.config.TestConfigurator;
 import org.jboss.tools.ui.bot.ext.config.requirement.RequirementBase;
+import org.jboss.tools.ui.bot.ext.config.requirement.RequirementScheduler;
 import org.junit.Test;
 import org.junit.experimental.categories.Categories.ExcludeCategory;
 import org.junit.experimental.categories.Categories.IncludeCategory;
@@ -53,6 +54,11 @@ public class RequirementAwareSuite extends Suite {
 
 	final Filter categoryFilter;
 
+	final Class<?> suiteClass;
+
+	/** classes of this shard, null when suite is not sharded */
+	final ShardPlan shardPlan;
+
 	public static class CategoryFilter extends Filter {
 		public static CategoryFilter include(Class<?>[] categoryType) {
 			return new CategoryFilter(categoryType, null);
@@ -205,9 +211,12 @@ public class RequirementAwareSuite extends Suite {
 			RunListener failureSpy = new ScreenshotCaptureListener();
 			notifier.removeListener(failureSpy);
 			notifier.addListener(failureSpy);
+			long start = System.currentTimeMillis();
 			try {
 				super.run(notifier);
 			} finally {
+				ShardPlan.recordDuration(suiteClass, getTestClass().getJavaClass(),
+						System.currentTimeMillis() - start);
         if (System.getProperty("swt.bot.test.record.screencast","false").equalsIgnoreCase("true")){
 		      RequirementAwareSuite.stopScreenRecorder();
 		    }
@@ -242,9 +251,7 @@ public class RequirementAwareSuite extends Suite {
 					+ getTestClass().getJavaClass());
 
 			try {
-				for (RequirementBase r : requirements) {
-					r.fulfill();
-				}
+				new RequirementScheduler(requirements).fulfill();
 			} catch (Exception e) {
 				log.error("Fulfilling failed", e);
 			}
@@ -272,6 +279,10 @@ public class RequirementAwareSuite extends Suite {
 				TestConfigurator.currentConfig = this.config;
 			}
 			log.info("class " + klass.getCanonicalName());
+			if (shardPlan != null && !shardPlan.contains(klass)) {
+				log.info("Skipped, runs in other shard");
+				return null;
+			}
 			List<RequirementBase> reqs = TestConfigurator
 					.getClassRequirements(klass);
 			if (reqs != null) {
@@ -424,6 +435,8 @@ public class RequirementAwareSuite extends Suite {
 	 */
 	public RequirementAwareSuite(Class<?> klass) throws Throwable {
 		super(klass, Collections.<Runner> emptyList());
+		suiteClass = klass;
+		shardPlan = ShardPlan.forSuite(klass);
 		log.info("Loading test configurations");
 
 		for (Entry<Object, Object> entry : TestConfigurator.multiProperties
@@ -20,7 +20,6 @@ import static org.junit.Assert.fail;
 import java.io.File;
 import java.lang.reflect.Field;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Properties;
 
@@ -63,6 +62,7 @@ import org.jboss.tools.ui.bot.ext.gen.IServer;
 import org.jboss.tools.ui.bot.ext.gen.IServerRuntime;
 import org.jboss.tools.ui.bot.ext.helper.ContextMenuHelper;
 import org.jboss.tools.ui.bot.ext.helper.MenuBarHelper;
+import org.jboss.tools.ui.bot.ext.helper.TreeSnapshot;
 import org.jboss.tools.ui.bot.ext.types.EntityType;
 import org.jboss.tools.ui.bot.ext.types.IDELabel;
 import org.jboss.tools.ui.bot.ext.types.IDELabel.PreferencesDialog;
@@ -1217,65 +1217,32 @@ public class SWTEclipseExt {
     }
 
 	/**
-	 * Returns Tree Item with specified label and located on path
+	 * Returns Tree Item with specified label and located on path. Items on
+	 * path are expanded and waited for (see {@link TreeSnapshot})
 	 * @param bot
 	 * @param tree
-	 * @param timeOut
+	 * @param timeOut maximum time to wait for one item
 	 * @param treeItemText
 	 * @param path
 	 * @return
 	 */
 	public static SWTBotTreeItem getTreeItemOnPath(SWTBot bot,SWTBotTree tree, int timeOut,
 			String treeItemText, String[] path) {
-		SWTBotTreeItem parentTreeItem = null;
-		SWTBotTreeItem treeItem = null;
-		if (path != null && path.length > 0) {
-			parentTreeItem = tree.expandNode(path[0]);
-			bot.sleep(timeOut);
-			for (int index = 1; index < path.length; index++) {
-				parentTreeItem = parentTreeItem.expandNode(path[index]);
-				bot.sleep(timeOut);
-			}
-			treeItem = parentTreeItem.getNode(treeItemText);
-		} else {
-			treeItem = tree.getTreeItem(treeItemText);
-		}
-		return treeItem;
+		return TreeSnapshot.findItem(tree, timeOut, treeItemText, path);
 	}
 	/**
-	 * Returns first Tree Item with label starting with treeItemTextStartsWith and located on path
+	 * Returns first Tree Item with label starting with treeItemTextStartsWith and located on path.
+	 * Items on path are expanded and waited for (see {@link TreeSnapshot})
 	 * @param bot
 	 * @param tree
-	 * @param timeOut
+	 * @param timeOut maximum time to wait for one item
 	 * @param treeItemTextStartsWith
 	 * @param path
 	 * @return
 	 */
 	public static SWTBotTreeItem getTreeItemOnPathStartsWith(SWTBot bot,SWTBotTree tree, int timeOut,
       String treeItemTextStartsWith, String[] path) {
-    SWTBotTreeItem[] items = null;
-	  if (path.length > 0){
-	    String[] parentPath = new String[path.length - 1];
-      System.arraycopy(path, 0, parentPath, 0, parentPath.length);
-      SWTBotTreeItem parentTreeItem  = getTreeItemOnPath(bot, tree, timeOut, path[path.length - 1], parentPath);
-      parentTreeItem.expand();
-      bot.sleep(timeOut);
-      items = parentTreeItem.getItems();
-	  }else{
-	    items = tree.getAllItems();
-	  }
-	  SWTBotTreeItem treeItem = null;
-	  for (int index = 0 ; index < items.length && treeItem == null; index++){
-	    if (items[index].getText().trim()
-	          .startsWith(treeItemTextStartsWith)){
-	      treeItem = items[index];
-	    }
-	  }
-
-	  if (treeItem == null){
-	    throw new WidgetNotFoundException("Unable to find Tree Item with label starting with " + treeItemTextStartsWith);
-	  }
-	  return treeItem;
+	  return TreeSnapshot.findItemStartsWith(tree, timeOut, treeItemTextStartsWith, path);
 	}
 	/**
 	 * Choose Run As Java Application menu for specified Tree Item
@@ -1436,33 +1403,7 @@ public class SWTEclipseExt {
    * @return
    */
   public static List<SWTBotTreeItem> getAllTreeItemsRecursive (SWTBotExt bot, SWTBotTree tree , SWTBotTreeItem parent, boolean expand){
-    
-    LinkedList<SWTBotTreeItem> treeItems = new LinkedList<SWTBotTreeItem>();
-    
-    if (parent != null){
-      if (expand 
-          && parent.getItems() != null 
-          && parent.getItems().length > 0) {
-        parent.expand();
-        bot.sleep(SWTEclipseExt.DEFAULT_UI_TIMEOUT);
-      }
-      
-      SWTBotTreeItem[] nodeChildren = parent.getItems();
-       
-      if (nodeChildren != null){
-        for (SWTBotTreeItem child : nodeChildren){
-          if (child.getText().length() > 0){
-            treeItems.add(child);
-            treeItems.addAll(SWTEclipseExt.getAllTreeItemsRecursive(bot,tree,child,expand));
-          }
-        }
-      }
-    }
-    else{
-      treeItems = (LinkedList<SWTBotTreeItem>)SWTEclipseExt.getAllTreeItemsRecursive(bot, tree, expand);
-    }
-    
-    return treeItems;
+    return TreeSnapshot.take(tree, parent, expand).getItems();
   }
   /**
    * Returns all tree items recursive
@@ -1472,20 +1413,7 @@ public class SWTEclipseExt {
    * @return
    */
   public static List<SWTBotTreeItem> getAllTreeItemsRecursive (SWTBotExt bot, SWTBotTree tree, boolean expand){
-
-    LinkedList<SWTBotTreeItem> treeItems = new LinkedList<SWTBotTreeItem>();
-    
-    SWTBotTreeItem[] nodeChildren = tree.getAllItems();
-    if (nodeChildren != null){
-      for (SWTBotTreeItem child : nodeChildren){
-        if (child.getText().length() > 0){
-          treeItems.add(child);
-          treeItems.addAll(SWTEclipseExt.getAllTreeItemsRecursive(bot,tree,child,expand));
-        }
-      }
-    }  
-    
-    return treeItems;
+    return TreeSnapshot.take(tree, expand).getItems();
   }
   public static String getFormattedTreeNode(SWTBotTreeItem item) {
 	  if (item==null) {
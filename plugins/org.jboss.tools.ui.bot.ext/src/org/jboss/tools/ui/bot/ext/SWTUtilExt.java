@@ -24,7 +24,6 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.PrintStream;
 import java.lang.reflect.InvocationTargetException;
-import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
@@ -44,8 +43,6 @@ import org.eclipse.swtbot.eclipse.finder.widgets.SWTBotView;
 import org.eclipse.swtbot.swt.finder.SWTBot;
 import org.eclipse.swtbot.swt.finder.exceptions.WidgetNotFoundException;
 import org.eclipse.swtbot.swt.finder.finders.MenuFinder;
-import org.eclipse.swtbot.swt.finder.finders.UIThreadRunnable;
-import org.eclipse.swtbot.swt.finder.results.Result;
 import org.eclipse.swtbot.swt.finder.results.WidgetResult;
 import org.eclipse.swtbot.swt.finder.utils.SWTBotPreferences;
 import org.eclipse.swtbot.swt.finder.utils.SWTUtils;
@@ -58,6 +55,8 @@ import org.eclipse.swtbot.swt.finder.widgets.SWTBotTreeItem;
 import org.hamcrest.BaseMatcher;
 import org.hamcrest.Description;
 import org.hamcrest.Matcher;
+import org.jboss.tools.ui.bot.ext.logging.WidgetSnapshot;
+import org.jboss.tools.ui.bot.ext.logging.WidgetsFinder;
 import org.jboss.tools.ui.bot.ext.parts.SWTBotBrowserExt;
 import org.jboss.tools.ui.bot.ext.types.IDELabel;
 import org.jboss.tools.ui.bot.ext.types.JobLists;
@@ -302,12 +301,7 @@ public class SWTUtilExt extends SWTUtils {
 	public void waitForAllExcept(boolean includeSleepingJobs , long timeOut, String... jobNames) {
 
 		// Find all jobs
-		Job[] jobs = Job.getJobManager().find(null);
-		List<String> listNames = new ArrayList<String>();
-
-		for (Job job : jobs) {
-			listNames.add(job.getName());
-		}
+		List<String> listNames = JobTracker.getInstance().getJobNames();
 
 		// Remove ignored jobs
 		for (String jobName : jobNames) {
@@ -316,10 +310,7 @@ public class SWTUtilExt extends SWTUtils {
 		}
 
 		// Create rest job list
-		String[] names = new String[listNames.size()];
-		for (int i = 0; i < listNames.size(); i++) {
-			names[i] = listNames.get(i);
-		}
+		String[] names = listNames.toArray(new String[listNames.size()]);
 
 		waitForJobs(includeSleepingJobs,timeOut, names);
 	}
@@ -344,86 +335,22 @@ public class SWTUtilExt extends SWTUtils {
 		}
 
 		// Jobs prescribed
-		long startTime = System.currentTimeMillis();
-		List<String> blockingJobs = new ArrayList<String>();
-
-		// Go through jobs and wait for completion
-		for (String jobName : jobNames) {
-			if (isJobRunning(jobName)) {
-				log.info("Blocking job " + jobName + " found");
-				blockingJobs.add(jobName);
-			}
-			else if (includeSleepingJobs && isJobSleeping(jobName)) {
-			  log.info("Blocking sleeping job " + jobName + " found");
-        blockingJobs.add(jobName);
-			}
-		}
-
-		// Wait until all blocking jobs aren't finished or timeout
+		JobTracker tracker = JobTracker.getInstance();
+		List<String> blockingJobs = tracker.getBlockingJobs(includeSleepingJobs, jobNames);
 		for (String jobName : blockingJobs) {
-			while (true) {
-				if (!isJobRunning(jobName)){
-				  boolean jobStoped = true;
-				  if (includeSleepingJobs){
-				    jobStoped = !isJobSleeping(jobName);
-				  }
-				  
-				  if (jobStoped){
-	          log.info("Job  " + jobName + " is finished");
-	          break;
-				  }
-				}
+			log.info("Blocking job " + jobName + " found");
+		}
 
-				long waitTime = System.currentTimeMillis() - startTime;
-				if ((System.currentTimeMillis() - startTime) > timeOut) {
-					log.info("Waiting for job " + jobName + " timeOut "
-							+ timeOut + "ms");
-					break;
-				}
-				log.info("Waiting for Job \"" + jobName + "\" for " + waitTime
-						/ 1000 + "s");
-				bot.sleep(SLEEPTIME);
-			}
+		// Wait until all blocking jobs are finished or timeout, the tracker
+		// wakes us up as soon as the last of them is done
+		if (!blockingJobs.isEmpty()) {
+			tracker.waitFor(includeSleepingJobs, timeOut, SLEEPTIME,
+					blockingJobs.toArray(new String[blockingJobs.size()]));
 		}
 
 		log.info("All blocking jobs finished or skipped");
 	}
 
-	/**
-	 * Search for jobname in JobManager job list
-	 * 
-	 * @param jobName
-	 *            name of the job
-	 * @return true if job with corresponding name found, else false
-	 */
-	private boolean isJobRunning(String jobName) {
-		Job[] jobs = Job.getJobManager().find(null);
-		for (Job job : jobs) {
-			if ((jobName.equalsIgnoreCase(job.getName()))
-					&& ((job.getState() == JobState.RUNNING) || (job.getState() == JobState.WAITING)))
-				return true;
-		}
-		return false;
-	}
-
-	 /**
-   * Search for jobname in JobManager job list
-   * 
-   * @param jobName
-   *            name of the job
-   * @return true if job with corresponding name found, else false
-   */
-  private boolean isJobSleeping(String jobName) {
-    Job[] jobs = Job.getJobManager().find(null);
-    for (Job job : jobs) {
-      if ((jobName.equalsIgnoreCase(job.getName()))
-          && (job.getState() == JobState.SLEEPING)){
-        return true;
-      }  
-    }
-    return false;
-  }
-  
 	public void printRunningJobs() {
 		Job[] jobs = Job.getJobManager().find(null);
 		for (Job job : jobs) {
@@ -728,21 +655,28 @@ public class SWTUtilExt extends SWTUtils {
    * @param bot
    * @return
    */
-  public static String getAllBotWidgetsAsText(final SWTBot bot) {
-	  return UIThreadRunnable.syncExec(new Result<String>(){
-		public String run() {
-			StringBuilder sb = new StringBuilder();
-			List<?> widgets = bot.widgets(new SWTUtilExt.AlwaysMatchMatcher<Widget>());
-		    for (Object object : widgets){
-		    	String objectName = object.getClass().getSimpleName();
-		    	String text = SWTUtilExt.invokeMethod(object, "getText").trim();
-		    	if (!"".equals(text)) {
-		    		sb.append("{"+ objectName + "->"+text+"} ");
-		    	}
-		    }
-		  return sb.toString();
-		}});
-	  
+  public static String getAllBotWidgetsAsText(SWTBot bot) {
+	  return getAllWidgetsAsText(bot.activeShell().widget);
+  }
+  /**
+   * gets all widgets within parent widget as string, widget tree is read in
+   * single pass in UI thread 
+   * @param parent
+   * @return
+   */
+  public static String getAllWidgetsAsText(Widget parent) {
+	  return getWidgetsAsText(new WidgetsFinder(parent, null).snapshot().getMatchingWidgets());
+  }
+  
+  private static String getWidgetsAsText(List<WidgetSnapshot> snapshots) {
+	  StringBuilder sb = new StringBuilder();
+	  for (WidgetSnapshot snapshot : snapshots){
+		  String text = snapshot.getText().trim();
+		  if (!"".equals(text)) {
+			  sb.append("{"+ snapshot.getClassName() + "->"+text+"} ");
+		  }
+	  }
+	  return sb.toString();
   }
   /**
    * Display all active widgets
@@ -0,0 +1,85 @@
+package org.jboss.tools.ui.bot.ext;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Merges class durations recorded by suite shards (see {@link ShardPlan})
+ * into the durations directory used for planning of the next runs. Shards
+ * record into their own directories, so that the durations directory does not
+ * change while shards compute their plans. Depends on JDK only, so it can be
+ * run without workbench:
+ *
+ * <pre>
+ * java -cp org.jboss.tools.ui.bot.ext.jar org.jboss.tools.ui.bot.ext.ShardDurationsMerger &lt;durations dir&gt; &lt;shard durations dir&gt;...
+ * </pre>
+ */
+public class ShardDurationsMerger {
+
+	public static void main(String[] args) throws Exception {
+		if (args.length < 2) {
+			System.err.println("Usage: ShardDurationsMerger <durations dir> <shard durations dir>...");
+			System.exit(2);
+		}
+		List<File> dirs = new ArrayList<File>();
+		for (int i = 1; i < args.length; i++) {
+			dirs.add(new File(args[i]));
+		}
+		merge(dirs, new File(args[0]));
+	}
+
+	/**
+	 * Merges durations files found in given directories into output
+	 * directory, durations recorded by shards replace the older ones
+	 *
+	 * @return number of merged files
+	 */
+	public static int merge(List<File> dirs, File output) throws IOException {
+		int merged = 0;
+		for (File dir : dirs) {
+			File[] files = dir.listFiles();
+			if (files == null) {
+				continue;
+			}
+			for (File file : files) {
+				if (!file.getName().endsWith(".properties")) {
+					continue;
+				}
+				Files.createDirectories(output.toPath());
+				File target = new File(output, file.getName());
+				Properties durations = load(target);
+				Properties recorded = load(file);
+				for (String klass : recorded.stringPropertyNames()) {
+					durations.setProperty(klass, recorded.getProperty(klass));
+				}
+				store(durations, target);
+				merged++;
+				System.out.println("Merged " + recorded.size() + " duration(s) of " + file + " into " + target);
+			}
+		}
+		return merged;
+	}
+
+	static Properties load(File file) throws IOException {
+		Properties properties = new Properties();
+		if (file.isFile()) {
+			try (InputStream in = Files.newInputStream(file.toPath())) {
+				properties.load(in);
+			}
+		}
+		return properties;
+	}
+
+	static void store(Properties durations, File file) throws IOException {
+		String name = file.getName();
+		try (OutputStream out = Files.newOutputStream(file.toPath())) {
+			durations.store(out, "test class durations (ms) of " + name.substring(0, name.length() - ".properties".length()));
+		}
+	}
+}
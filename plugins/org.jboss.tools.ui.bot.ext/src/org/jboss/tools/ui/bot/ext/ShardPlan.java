@@ -0,0 +1,300 @@
+package org.jboss.tools.ui.bot.ext;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import org.apache.log4j.Logger;
+import org.jboss.tools.ui.bot.ext.config.Annotations.DB;
+import org.jboss.tools.ui.bot.ext.config.Annotations.Require;
+import org.junit.runners.Suite.SuiteClasses;
+
+/**
+ * Splits test classes of a suite into balanced shards, so that one suite can
+ * run in several workbench instances at once (see tests/shard.sh).
+ *
+ * Classes requiring the same database, Seam, ESB or jBPM runtime are kept in
+ * one shard, so the requirement is fulfilled once per shard; a group bigger
+ * than one shard is split. All classes requiring a server run in one shard
+ * (never split), because servers of all shards would bind the same ports.
+ * Groups are assigned longest first to the least loaded shard, weighted by
+ * class durations recorded by previous runs (class without record weighs as
+ * the median of recorded ones). Every shard computes the same plan from the
+ * same durations, so shards need no coordination: tests/shard.sh passes all
+ * shards one snapshot of recorded durations, shards record durations of this
+ * run into their own directories and the script merges them afterwards (see
+ * {@link ShardDurationsMerger}).
+ *
+ * Configured by system properties
+ * <ul>
+ * <li><code>swtbotext.shard.count</code> - number of shards (default 1, no
+ * sharding)</li>
+ * <li><code>swtbotext.shard.index</code> - shard to run, 0 based</li>
+ * <li><code>swtbotext.shard.durations</code> - directory of recorded
+ * durations, one properties file per suite (default
+ * ${java.io.tmpdir}/jbosstools-shard-durations)</li>
+ * <li><code>swtbotext.shard.record</code> - directory durations of this run
+ * are recorded into (default the durations directory)</li>
+ * </ul>
+ * Unsharded runs record durations only when one of the directories is set.
+ */
+public class ShardPlan {
+
+	private static final Logger log = Logger.getLogger(ShardPlan.class);
+
+	public static final String COUNT = "swtbotext.shard.count";
+	public static final String INDEX = "swtbotext.shard.index";
+	public static final String DURATIONS = "swtbotext.shard.durations";
+	public static final String RECORD = "swtbotext.shard.record";
+
+	private static final String SERVER_FOOTPRINT = "server;";
+
+	/** weight (ms) of class when no duration is recorded at all */
+	private static final long DEFAULT_DURATION = 60000;
+
+	/** class name -> duration (ms) measured in this run */
+	private static final Map<String, Long> measured = new HashMap<String, Long>();
+
+	private final int index;
+	private final Set<String> classes;
+
+	private ShardPlan(int index, Set<String> classes) {
+		this.index = index;
+		this.classes = classes;
+	}
+
+	/**
+	 * Returns plan of current shard for given suite or null if suite is not
+	 * sharded
+	 */
+	public static ShardPlan forSuite(Class<?> suite) {
+		int count = Integer.getInteger(COUNT, 1);
+		if (count <= 1) {
+			return null;
+		}
+		int index = Integer.getInteger(INDEX, 0);
+		if (index < 0 || index >= count) {
+			throw new IllegalArgumentException(INDEX + "=" + index + " is out of range 0.." + (count - 1));
+		}
+		SuiteClasses suiteClasses = suite.getAnnotation(SuiteClasses.class);
+		List<Class<?>> testClasses = suiteClasses == null ? Collections.<Class<?>> emptyList() : Arrays
+				.asList(suiteClasses.value());
+		List<Set<String>> shards = plan(testClasses, loadDurations(suite), count);
+		log.info("Running shard " + index + " of " + count + " with " + shards.get(index).size() + " of "
+				+ testClasses.size() + " classes of " + suite.getName());
+		return new ShardPlan(index, shards.get(index));
+	}
+
+	/**
+	 * Returns true if class runs in this shard
+	 */
+	public boolean contains(Class<?> klass) {
+		return classes.contains(klass.getName());
+	}
+
+	public int getIndex() {
+		return index;
+	}
+
+	/**
+	 * splits classes into count shards
+	 */
+	static List<Set<String>> plan(List<Class<?>> testClasses, Properties durations, int count) {
+		long defaultDuration = getMedian(durations);
+		// footprint -> classes, classes without shared requirement are alone
+		Map<String, List<String>> groups = new LinkedHashMap<String, List<String>>();
+		long total = 0;
+		for (Class<?> klass : testClasses) {
+			String footprint = getFootprint(klass);
+			String key = footprint == null ? "class " + klass.getName() : footprint;
+			List<String> group = groups.get(key);
+			if (group == null) {
+				group = new ArrayList<String>();
+				groups.put(key, group);
+			}
+			if (!group.contains(klass.getName())) {
+				group.add(klass.getName());
+				total += getDuration(durations, klass.getName(), defaultDuration);
+			}
+		}
+		long target = total / count;
+		List<Item> items = new ArrayList<Item>();
+		for (Map.Entry<String, List<String>> entry : groups.entrySet()) {
+			String key = entry.getKey();
+			List<String> group = entry.getValue();
+			Item item = new Item(group, durations, defaultDuration);
+			if (item.weight > target && group.size() > 1 && !SERVER_FOOTPRINT.equals(key)) {
+				// group does not fit into one shard
+				for (String klass : group) {
+					items.add(new Item(Collections.singletonList(klass), durations, defaultDuration));
+				}
+			} else {
+				items.add(item);
+			}
+		}
+		Collections.sort(items, new Comparator<Item>() {
+			public int compare(Item i1, Item i2) {
+				if (i1.weight != i2.weight) {
+					return i1.weight > i2.weight ? -1 : 1;
+				}
+				return i1.classes.get(0).compareTo(i2.classes.get(0));
+			}
+		});
+		List<Set<String>> shards = new ArrayList<Set<String>>();
+		long[] loads = new long[count];
+		for (int i = 0; i < count; i++) {
+			shards.add(new HashSet<String>());
+		}
+		for (Item item : items) {
+			int lightest = 0;
+			for (int i = 1; i < count; i++) {
+				if (loads[i] < loads[lightest]) {
+					lightest = i;
+				}
+			}
+			shards.get(lightest).addAll(item.classes);
+			loads[lightest] += item.weight;
+		}
+		log.info("Shard loads (ms): " + Arrays.toString(loads));
+		return shards;
+	}
+
+	private static class Item {
+		private final List<String> classes;
+		private long weight;
+
+		private Item(List<String> classes, Properties durations, long defaultDuration) {
+			this.classes = classes;
+			for (String klass : classes) {
+				weight += getDuration(durations, klass, defaultDuration);
+			}
+		}
+	}
+
+	/**
+	 * returns key of runtimes class requires, null if it requires none
+	 */
+	private static String getFootprint(Class<?> klass) {
+		Require require = getRequire(klass);
+		if (require == null) {
+			return null;
+		}
+		if (require.server().required()) {
+			return SERVER_FOOTPRINT;
+		}
+		StringBuilder footprint = new StringBuilder();
+		DB db = require.db();
+		if (db.required()) {
+			footprint.append("db ").append(db.operator()).append(db.version()).append(';');
+		}
+		if (require.seam().required()) {
+			footprint.append("seam ").append(require.seam().operator()).append(require.seam().version()).append(';');
+		}
+		if (require.esb().required()) {
+			footprint.append("esb ").append(require.esb().operator()).append(require.esb().version()).append(';');
+		}
+		if (require.jbpm().required()) {
+			footprint.append("jbpm ").append(require.jbpm().operator()).append(require.jbpm().version()).append(';');
+		}
+		return footprint.length() == 0 ? null : footprint.toString();
+	}
+
+	private static Require getRequire(Class<?> klass) {
+		for (Class<?> c = klass; c != null && !Object.class.equals(c); c = c.getSuperclass()) {
+			Require require = c.getAnnotation(Require.class);
+			if (require != null) {
+				return require;
+			}
+		}
+		return null;
+	}
+
+	private static long getDuration(Properties durations, String klass, long defaultDuration) {
+		String duration = durations.getProperty(klass);
+		if (duration != null) {
+			try {
+				return Long.parseLong(duration);
+			} catch (NumberFormatException e) {
+				// use default
+			}
+		}
+		return defaultDuration;
+	}
+
+	private static long getMedian(Properties durations) {
+		List<Long> values = new ArrayList<Long>();
+		for (String klass : durations.stringPropertyNames()) {
+			values.add(getDuration(durations, klass, DEFAULT_DURATION));
+		}
+		if (values.isEmpty()) {
+			return DEFAULT_DURATION;
+		}
+		Collections.sort(values);
+		return values.get(values.size() / 2);
+	}
+
+	/**
+	 * Records duration of test class run (all configurations together), it is
+	 * stored for planning of the next runs. Durations are recorded only when
+	 * suite is sharded or durations or record directory is set.
+	 */
+	public static void recordDuration(Class<?> suite, Class<?> klass, long millis) {
+		if (Integer.getInteger(COUNT, 1) <= 1 && System.getProperty(DURATIONS) == null
+				&& System.getProperty(RECORD) == null) {
+			return;
+		}
+		long total;
+		synchronized (measured) {
+			Long previous = measured.get(klass.getName());
+			total = millis + (previous == null ? 0 : previous);
+			measured.put(klass.getName(), total);
+		}
+		File file = new File(getRecordDir(), suite.getName() + ".properties");
+		try {
+			Files.createDirectories(file.getParentFile().toPath());
+			// runs sharing the durations directory update the same file
+			try (FileChannel channel = FileChannel.open(new File(file.getPath() + ".lock").toPath(),
+					StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+					FileLock lock = channel.lock()) {
+				Properties durations = ShardDurationsMerger.load(file);
+				durations.setProperty(klass.getName(), String.valueOf(total));
+				ShardDurationsMerger.store(durations, file);
+			}
+		} catch (IOException e) {
+			log.warn("Unable to record duration of " + klass.getName() + ": " + e);
+		}
+	}
+
+	private static Properties loadDurations(Class<?> suite) {
+		try {
+			return ShardDurationsMerger.load(new File(getDurationsDir(), suite.getName() + ".properties"));
+		} catch (IOException e) {
+			log.warn("Unable to load recorded durations: " + e);
+			return new Properties();
+		}
+	}
+
+	private static File getDurationsDir() {
+		return new File(System.getProperty(DURATIONS, System.getProperty("java.io.tmpdir") + File.separator
+				+ "jbosstools-shard-durations"));
+	}
+
+	private static File getRecordDir() {
+		String record = System.getProperty(RECORD);
+		return record == null || record.isEmpty() ? getDurationsDir() : new File(record);
+	}
+}
@@ -0,0 +1,129 @@
+package org.jboss.tools.ui.bot.ext;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+/**
+ * Merges JUnit XML reports of suite shards (see {@link ShardPlan}). Reports
+ * with the same file name are merged into one report: test cases are
+ * concatenated, counters and times are summed up. Depends on JDK only, so it
+ * can be run without workbench:
+ *
+ * <pre>
+ * java -cp org.jboss.tools.ui.bot.ext.jar org.jboss.tools.ui.bot.ext.ShardReportMerger &lt;output dir&gt; &lt;shard report dir&gt;...
+ * </pre>
+ */
+public class ShardReportMerger {
+
+	private static final String[] COUNTERS = { "tests", "failures", "errors", "skipped" };
+
+	public static void main(String[] args) throws Exception {
+		if (args.length < 2) {
+			System.err.println("Usage: ShardReportMerger <output dir> <shard report dir>...");
+			System.exit(2);
+		}
+		List<File> dirs = new ArrayList<File>();
+		for (int i = 1; i < args.length; i++) {
+			dirs.add(new File(args[i]));
+		}
+		merge(dirs, new File(args[0]));
+	}
+
+	/**
+	 * Merges reports found in given directories into output directory
+	 *
+	 * @return number of written reports
+	 */
+	public static int merge(List<File> dirs, File output) throws Exception {
+		// report file name -> shard reports
+		Map<String, List<File>> reports = new TreeMap<String, List<File>>();
+		for (File dir : dirs) {
+			File[] files = dir.listFiles();
+			if (files == null) {
+				continue;
+			}
+			for (File file : files) {
+				if (file.getName().startsWith("TEST-") && file.getName().endsWith(".xml")) {
+					List<File> shardReports = reports.get(file.getName());
+					if (shardReports == null) {
+						shardReports = new ArrayList<File>();
+						reports.put(file.getName(), shardReports);
+					}
+					shardReports.add(file);
+				}
+			}
+		}
+		if (!output.isDirectory() && !output.mkdirs()) {
+			throw new IllegalStateException("Can not create dir " + output);
+		}
+		DocumentBuilder builder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+		Transformer transformer = TransformerFactory.newInstance().newTransformer();
+		transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+		for (Map.Entry<String, List<File>> entry : reports.entrySet()) {
+			Document merged = null;
+			for (File file : entry.getValue()) {
+				Document report = builder.parse(file);
+				if (merged == null) {
+					merged = report;
+				} else {
+					append(merged.getDocumentElement(), report.getDocumentElement());
+				}
+			}
+			transformer.transform(new DOMSource(merged), new StreamResult(new File(output, entry.getKey())));
+			System.out.println("Merged " + entry.getValue().size() + " report(s) into " + entry.getKey());
+		}
+		return reports.size();
+	}
+
+	private static void append(Element suite, Element shardSuite) {
+		for (String counter : COUNTERS) {
+			if (suite.hasAttribute(counter) || shardSuite.hasAttribute(counter)) {
+				suite.setAttribute(counter,
+						String.valueOf(getLong(suite, counter) + getLong(shardSuite, counter)));
+			}
+		}
+		if (suite.hasAttribute("time") || shardSuite.hasAttribute("time")) {
+			suite.setAttribute("time", String.valueOf(getDouble(suite, "time") + getDouble(shardSuite, "time")));
+		}
+		NodeList children = shardSuite.getChildNodes();
+		for (int i = 0; i < children.getLength(); i++) {
+			Node child = children.item(i);
+			// properties of the first shard are kept
+			if (child.getNodeType() == Node.ELEMENT_NODE && !"properties".equals(child.getNodeName())) {
+				suite.appendChild(suite.getOwnerDocument().importNode(child, true));
+			}
+		}
+	}
+
+	private static long getLong(Element element, String attribute) {
+		try {
+			return Long.parseLong(element.getAttribute(attribute));
+		} catch (NumberFormatException e) {
+			return 0;
+		}
+	}
+
+	private static double getDouble(Element element, String attribute) {
+		try {
+			return Double.parseDouble(element.getAttribute(attribute).replace(",", ""));
+		} catch (NumberFormatException e) {
+			return 0;
+		}
+	}
+}
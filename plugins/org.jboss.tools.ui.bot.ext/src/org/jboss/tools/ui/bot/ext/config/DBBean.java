@@ -3,6 +3,9 @@ package org.jboss.tools.ui.bot.ext.config;
 import static org.junit.Assert.fail;
 
 import java.io.File;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 
 import org.eclipse.core.runtime.Platform;
 import org.jboss.tools.ui.bot.ext.helper.DatabaseHelper.DBType;
@@ -88,6 +91,32 @@ public class DBBean {
 		return String.format("DB runtime version=%s, jdbc_string=%s, driver_path=%s ",
 				this.version, this.jdbcString, this.driverPath);
 	}
+
+	/**
+	 * Returns key identifying configured database and credentials, password is
+	 * included as hash only, so that the key can be stored
+	 */
+	public String getFingerprint() {
+		return String.format("version=%s, jdbc_string=%s, driver_path=%s, username=%s, password_sha256=%s",
+				this.version, this.jdbcString, this.driverPath, this.username, hash(this.password));
+	}
+
+	private static String hash(String value) {
+		if (value == null) {
+			return null;
+		}
+		try {
+			StringBuilder hex = new StringBuilder();
+			for (byte b : MessageDigest.getInstance("SHA-256").digest(value.getBytes("UTF-8"))) {
+				hex.append(String.format("%02x", b));
+			}
+			return hex.toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		} catch (UnsupportedEncodingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
 	
 	/**
 	 * A common method for all enums since they can't have another base class
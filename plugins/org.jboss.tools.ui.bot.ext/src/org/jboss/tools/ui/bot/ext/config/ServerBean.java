@@ -68,7 +68,7 @@ public class ServerBean extends RuntimeBean {
 	}
 	@Override
 	public String toString() {
-		return String.format("%s type=%s,version=%s,home=%s,withJava=%s,remoteSystem=%s",this.key, this.type,this.version,this.runtimeHome,this.withJavaVersion,this.remoteSystem);
+		return String.format("%s type=%s,version=%s,home=%s,withJava=%s,remoteSystem=%s,remoteHome=%s",this.key, this.type,this.version,this.runtimeHome,this.withJavaVersion,this.remoteSystem,this.remoteHome);
 	}
 	
 	/**
@@ -1,5 +1,7 @@
 package org.jboss.tools.ui.bot.ext.config.requirement;
 
+import java.io.File;
+
 import org.jboss.tools.ui.bot.ext.SWTTestExt;
 import org.jboss.tools.ui.bot.ext.config.TestConfigurator;
 /**
@@ -9,6 +11,8 @@ import org.jboss.tools.ui.bot.ext.config.TestConfigurator;
  */
 public class AddJava extends RequirementBase {
 
+	private static final String JDT_LAUNCHING = "org.eclipse.jdt.launching";
+
 	/**
 	 * requirement for adding JRE/JDK
 	 * @param user to add
@@ -20,11 +24,40 @@ public class AddJava extends RequirementBase {
 		return SWTTestExt.configuredState.getJreList().contains(getAddedAsName());
 	}
 
+	@Override
+	protected void prepare() throws Exception {
+		// fail before any UI work when configured JRE is not usable
+		File java = new File(getJavaHome(), "bin" + File.separator + "java");
+		if (!java.isFile() && !new File(java.getPath() + ".exe").isFile()) {
+			throw new RequirementNotFulfilledException("No java executable found in JRE " + getJavaHome());
+		}
+	}
+
 	@Override
 	public void handle(){
 		SWTTestExt.eclipse.addJavaVM(getAddedAsName(), getJavaHome());
 		SWTTestExt.configuredState.getJreList().add(getAddedAsName());
 	}
+	@Override
+	protected String getFingerprint() {
+		return TestConfigurator.currentConfig.getJava().toString();
+	}
+	@Override
+	protected String getStateKey() {
+		return super.getStateKey() + "." + getAddedAsName();
+	}
+	@Override
+	protected boolean probe() {
+		return new File(getJavaHome()).isDirectory()
+				&& RequirementStateCache.preferenceContains(JDT_LAUNCHING, JDT_LAUNCHING + ".PREF_VM_XML",
+						"name=\"" + getAddedAsName() + "\"");
+	}
+	@Override
+	protected void restore() {
+		if (!SWTTestExt.configuredState.getJreList().contains(getAddedAsName())) {
+			SWTTestExt.configuredState.getJreList().add(getAddedAsName());
+		}
+	}
 	public String getAddedAsName() {
 		return "JRE-"+TestConfigurator.currentConfig.getJava().version;
 	}
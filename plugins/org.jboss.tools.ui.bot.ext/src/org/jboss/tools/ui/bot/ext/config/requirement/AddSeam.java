@@ -1,20 +1,52 @@
 package org.jboss.tools.ui.bot.ext.config.requirement;
 
+import java.io.File;
+
 import org.jboss.tools.ui.bot.ext.SWTTestExt;
 import org.jboss.tools.ui.bot.ext.config.TestConfigurator;
 
 public class AddSeam extends RequirementBase {
 
+	private static final String SEAM_CORE = "org.jboss.tools.seam.core";
+
 	@Override
 	public boolean checkFulfilled() {
 		return SWTTestExt.configuredState.getSeam().isConfiured 
 				&& SWTTestExt.configuredState.getSeam().version.equals(TestConfigurator.currentConfig.getSeam().version);
 	}
 
+	@Override
+	protected void prepare() throws Exception {
+		// fail before any UI work when configured runtime is not usable
+		File home = new File(TestConfigurator.currentConfig.getSeam().runtimeHome);
+		if (!home.isDirectory()) {
+			throw new RequirementNotFulfilledException("No Seam runtime found in " + home.getAbsolutePath());
+		}
+	}
+
 	@Override
 	public void handle() {
 		String seamName = "Seam-"+TestConfigurator.currentConfig.getSeam().version;
 		SWTTestExt.eclipse.addSeamRuntime(seamName, TestConfigurator.currentConfig.getSeam().version, TestConfigurator.currentConfig.getSeam().runtimeHome);
+		restore();
+	}
+
+	@Override
+	protected String getFingerprint() {
+		return TestConfigurator.currentConfig.getSeam().toString();
+	}
+
+	@Override
+	protected boolean probe() {
+		// runtime list is stored as name|..|homeDir|..,name|..
+		return new File(TestConfigurator.currentConfig.getSeam().runtimeHome).isDirectory()
+				&& RequirementStateCache.preferenceContains(SEAM_CORE, SEAM_CORE + ".runtime.list",
+						"Seam-" + TestConfigurator.currentConfig.getSeam().version + "|");
+	}
+
+	@Override
+	protected void restore() {
+		String seamName = "Seam-"+TestConfigurator.currentConfig.getSeam().version;
 		SWTTestExt.configuredState.getSeam().isConfiured=true;
 		SWTTestExt.configuredState.getSeam().name=seamName;
 		SWTTestExt.configuredState.getSeam().version=TestConfigurator.currentConfig.getSeam().version;		
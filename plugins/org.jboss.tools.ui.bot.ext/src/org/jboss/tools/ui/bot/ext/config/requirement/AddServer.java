@@ -2,6 +2,8 @@ package org.jboss.tools.ui.bot.ext.config.requirement;
 
 import static org.junit.Assert.fail;
 
+import java.io.File;
+
 import org.jboss.tools.ui.bot.ext.SWTTestExt;
 import org.jboss.tools.ui.bot.ext.config.TestConfigurator;
 import org.jboss.tools.ui.bot.ext.gen.ActionItem.Server.JBossCommunityJBossAS32;
@@ -39,6 +41,8 @@ import org.jboss.tools.ui.bot.ext.gen.IServerRuntime;
  */
 public class AddServer extends RequirementBase {
 
+	private static final String SERVERS_XML = ".plugins/org.eclipse.wst.server.core/servers.xml";
+
 	private String javaName=null;
 	public AddServer() {
 		String javaVer = getNeededJavaVersion(TestConfigurator.currentConfig.getServer().withJavaVersion);
@@ -67,12 +71,39 @@ public class AddServer extends RequirementBase {
 		
 		ServerInfo serverInfo = getRuntime(TestConfigurator.currentConfig.getServer().type,TestConfigurator.currentConfig.getServer().version);
 		String runtimeHome=TestConfigurator.currentConfig.getServer().runtimeHome;
-		String runtimeName=TestConfigurator.currentConfig.getServer().type+"-"+TestConfigurator.currentConfig.getServer().version;
+		String runtimeName=getRuntimeName();
 		SWTTestExt.eclipse.addJbossServerRuntime(serverInfo.runtime, 
 				runtimeHome, runtimeName, javaName);
 		String remoteSystem = TestConfigurator.currentConfig.getServer().remoteSystem;
 		String remoteHome = TestConfigurator.currentConfig.getServer().remoteHome;
 		SWTTestExt.eclipse.addServer(serverInfo.server, runtimeName,remoteSystem,remoteHome);
+		updateConfiguredState();
+	}
+
+	@Override
+	protected String getFingerprint() {
+		return TestConfigurator.currentConfig.getServer().toString() + ",javaName=" + javaName;
+	}
+
+	@Override
+	protected boolean probe() {
+		return new File(TestConfigurator.currentConfig.getServer().runtimeHome).isDirectory()
+				&& RequirementStateCache.metadataFileContains(SERVERS_XML, "name=\"" + getRuntimeName() + "\"");
+	}
+
+	@Override
+	protected void restore() {
+		updateConfiguredState();
+	}
+
+	private String getRuntimeName() {
+		return TestConfigurator.currentConfig.getServer().type+"-"+TestConfigurator.currentConfig.getServer().version;
+	}
+
+	private void updateConfiguredState() {
+		String runtimeHome=TestConfigurator.currentConfig.getServer().runtimeHome;
+		String runtimeName=getRuntimeName();
+		String remoteSystem = TestConfigurator.currentConfig.getServer().remoteSystem;
 		SWTTestExt.configuredState.getServer().isLocal = remoteSystem==null;
 		SWTTestExt.configuredState.getServer().isConfigured=true;
 		SWTTestExt.configuredState.getServer().name=runtimeName;
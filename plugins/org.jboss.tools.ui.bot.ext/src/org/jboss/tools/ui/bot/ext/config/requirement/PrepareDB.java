@@ -1,15 +1,16 @@
 package org.jboss.tools.ui.bot.ext.config.requirement;
 
-import static org.junit.Assert.fail;
-
 import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.IOException;
 
+import org.eclipse.core.runtime.IStatus;
 import org.eclipse.datatools.connectivity.ConnectionProfileException;
+import org.eclipse.datatools.connectivity.IConnectionProfile;
+import org.eclipse.datatools.connectivity.ProfileManager;
 import org.jboss.tools.ui.bot.ext.SWTTestExt;
+import org.jboss.tools.ui.bot.ext.config.DBBean;
 import org.jboss.tools.ui.bot.ext.config.TestConfiguration;
 import org.jboss.tools.ui.bot.ext.config.TestConfigurator;
 import org.jboss.tools.ui.bot.ext.helper.DatabaseHelper;
@@ -18,6 +19,8 @@ import org.junit.Assert;
 
 public class PrepareDB extends RequirementBase {
 
+	private StringBuilder script;
+
 	@Override
 	public boolean checkFulfilled() {
 		return SWTTestExt.configuredState.getDB().isConfigured
@@ -25,22 +28,52 @@ public class PrepareDB extends RequirementBase {
 	}
 
 	@Override
-	public void handle() {
+	protected void prepare() throws Exception {
 		TestConfiguration configuration = TestConfigurator.currentConfig;
-		
-		// For internal hsqldb
-		if (configuration.getDB().internal) {
-			try {
-				DatabaseHelper.addDriverIntoWorkspace();
-			} catch (FileNotFoundException e) {
-				e.printStackTrace();
-				Assert.fail("DB driver not found" + e);
-			} catch (IOException e) {
-				e.printStackTrace();
-				Assert.fail("Unable to copy driver" + e);
+		if (!configuration.getDB().internal) {
+			if (!checkFulfilled() && !configuration.getDB().scriptPath.isEmpty()) {
+				script = readScript(configuration.getDB().scriptPath);
 			}
-			DatabaseHelper.startHSQLDBServer("db" + File.separator + "mydb", "xdb");
+			return;
 		}
+
+		// internal hsqldb, runs on worker thread, failure is reported by
+		// RequirementScheduler
+		if (!checkFulfilled()) {
+			DatabaseHelper.addDriverIntoWorkspace();
+		}
+		String seed = configuration.getDB().scriptPath.isEmpty() ? null
+				: readScript(configuration.getDB().scriptPath).toString();
+		// every test class gets its own copy of database seeded from image,
+		// script is not run via SQL editor
+		String url = DatabaseHelper.startHSQLDBServerWithScript("db" + File.separator + "mydb", "xdb", seed);
+		// server runs on port taken from pool
+		configuration.getDB().jdbcString = url;
+		// previous server was stopped, driver and profile are checked by
+		// handle() and open connection is made to the new server
+		SWTTestExt.configuredState.getDB().isConfigured = false;
+		reconnect(configuration.getDB().name);
+	}
+
+	/**
+	 * reconnects profile if it is connected, connection to stopped server is
+	 * closed
+	 */
+	private void reconnect(String profileName) {
+		IConnectionProfile profile = ProfileManager.getInstance().getProfileByName(profileName);
+		if (profile == null || profile.getConnectionState() != IConnectionProfile.CONNECTED_STATE) {
+			return;
+		}
+		profile.disconnect();
+		IStatus status = profile.connect();
+		if (!status.isOK()) {
+			log.warn("Unable to reconnect profile " + profileName + ": " + status.getMessage());
+		}
+	}
+
+	@Override
+	public void handle() {
+		TestConfiguration configuration = TestConfigurator.currentConfig;
 		
 		// Define Driver Entity and create driver
 		DriverEntity entity = new DriverEntity();
@@ -59,55 +92,48 @@ public class PrepareDB extends RequirementBase {
 			Assert.fail("Unable to create HSQL Driver");			
 		}
 		
-		if (!configuration.getDB().scriptPath.isEmpty()) {
-			// Read script
-			StringBuilder builder = readScript(configuration.getDB().scriptPath);
-			
-			// Open editor and run script
+		if (script != null) {
+			// Open editor and run script read by prepare()
 			DatabaseHelper.openSQLEditor(configuration.getDB().dbType, configuration.getDB().name.toString(), "Default" );
-			DatabaseHelper.runSQLScript(builder.toString());		
+			DatabaseHelper.runSQLScript(script.toString());		
 		}
 		
 		log.info("DB Prepared");
 		
+		restore();
+	}
+
+	@Override
+	protected String getFingerprint() {
+		// internal database runs only as long as the test run, cannot be cached
+		DBBean db = TestConfigurator.currentConfig.getDB();
+		return db.internal ? null : db.name + " " + db.getFingerprint();
+	}
+
+	@Override
+	protected boolean probe() {
+		return ProfileManager.getInstance().getProfileByName(TestConfigurator.currentConfig.getDB().name) != null;
+	}
+
+	@Override
+	protected void restore() {
 		// Update Configured State
 		SWTTestExt.configuredState.getDB().isConfigured=true;
 		SWTTestExt.configuredState.getDB().name=TestConfigurator.currentConfig.getDB().name;
 		SWTTestExt.configuredState.getDB().version=TestConfigurator.currentConfig.getDB().version;	
 	}
 	
-	private StringBuilder readScript(String path) {
-		File file = new File(path);
+	private StringBuilder readScript(String path) throws IOException {
 		StringBuilder builder = new StringBuilder();
-		BufferedReader reader = null;
+		BufferedReader reader = new BufferedReader(new FileReader(new File(path)));
 		try {
-			reader = new BufferedReader(new FileReader(file));
-			while(true) { 
-				String line = null;
-				try {
-					line = reader.readLine();
-					if (line == null) break;
-				} catch (IOException e) {
-					e.printStackTrace();
-					fail("Can't read script" + file.getAbsolutePath());
-				}
+			for (String line = reader.readLine(); line != null; line = reader.readLine()) {
 				builder.append(line);
 				builder.append(System.getProperty("line.separator"));
 			}
-		} catch (FileNotFoundException e) {
-			e.printStackTrace();
-			Assert.fail("Unable to read script " + file.getAbsolutePath());
 		} finally {
-			if (reader != null){
-				try {
-					reader.close();
-				} catch (IOException e) {
-					e.printStackTrace();
-					Assert.fail("Unable to close reader for script " + file.getAbsolutePath());
-				}
-			}
+			reader.close();
 		}
-		 		
 		return builder;
 	}
 
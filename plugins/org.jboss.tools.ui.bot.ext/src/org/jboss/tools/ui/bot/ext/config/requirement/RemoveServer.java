@@ -27,6 +27,7 @@ public class RemoveServer extends RequirementBase {
 			SWTTestExt.configuredState.getServer().type=null;
 			SWTTestExt.configuredState.getServer().withJavaVersion=null;
 			SWTTestExt.configuredState.getServer().bundledESBVersion=null;
+			RequirementStateCache.getInstance().invalidate(AddServer.class.getName());
 		}
 	}
 }
@@ -20,6 +20,8 @@ public abstract class RequirementBase {
 
 	private List<RequirementBase> dependsOn;
 
+	private boolean prepared = false;
+
 	/**
 	 * gets the list of reqs on which this one depends
 	 * 
@@ -38,9 +40,22 @@ public abstract class RequirementBase {
 	 * @throws RequirementNotFulfilledException
 	 */
 	public void fulfill() throws RequirementNotFulfilledException {
+		fulfill(true);
+	}
+
+	/**
+	 * fulfills this requirement, dependent ones are fulfilled first only if
+	 * <code>withDependencies</code> is true (see {@link RequirementScheduler}
+	 * which fulfills whole dependency graph in topological order)
+	 * 
+	 * @param withDependencies
+	 * @throws RequirementNotFulfilledException
+	 */
+	void fulfill(boolean withDependencies) throws RequirementNotFulfilledException {
 		log.info("Fulfilling requirement '" + this.getClass().getName() + "'");
 		try {
-			if (!getDependsOn().isEmpty()) {
+			prepareOnce();
+			if (withDependencies && !getDependsOn().isEmpty()) {
 				log.info("Fulfilling dependencies");
 				for (RequirementBase dep : getDependsOn()) {
 					dep.fulfill();
@@ -48,11 +63,18 @@ public abstract class RequirementBase {
 				log.info("All dependencies fulfilled");
 			}
 			if (!checkFulfilled()) {
-				handle();
-				if (!checkFulfilled()) {
-					throw new Exception(
-							"Requirement implementation error, checkFulfilled() failed after calling "
-									+ this.getClass().getName() + ".handle();");
+				RequirementStateCache cache = RequirementStateCache.getInstance();
+				if (cache.isWarm(this) && probe()) {
+					log.info("Requirement '" + this.getClass().getName() + "' found in state cache");
+					restore();
+				} else {
+					handle();
+					if (!checkFulfilled()) {
+						throw new Exception(
+								"Requirement implementation error, checkFulfilled() failed after calling "
+										+ this.getClass().getName() + ".handle();");
+					}
+					cache.store(this);
 				}
 			}
 		} catch (Exception ex) {
@@ -75,6 +97,72 @@ public abstract class RequirementBase {
 				log.error(e);
 			}
 	}
+	/**
+	 * prepares this requirement, called before {@link #handle()}. Put here the
+	 * part of work which does not touch UI (copying files, starting processes
+	 * etc.), it may be called from non-UI worker thread concurrently with
+	 * preparing other requirements independent on this one. Default
+	 * implementation does nothing.
+	 * 
+	 * @throws Exception
+	 */
+	protected void prepare() throws Exception {
+	}
+
+	/**
+	 * calls {@link #prepare()} unless it was already called for this instance
+	 * 
+	 * @throws Exception
+	 */
+	synchronized void prepareOnce() throws Exception {
+		if (!prepared) {
+			prepare();
+			prepared = true;
+		}
+	}
+
+	/**
+	 * gets fingerprint of state this requirement leaves workspace in, typically
+	 * composed of configuration bean values the requirement is based on.
+	 * Requirements returning non-null value are stored in
+	 * {@link RequirementStateCache}, default implementation returns null (state
+	 * is not cached)
+	 * 
+	 * @return
+	 */
+	protected String getFingerprint() {
+		return null;
+	}
+
+	/**
+	 * gets key under which fingerprint is stored in
+	 * {@link RequirementStateCache}. Requirements, which can leave several
+	 * states in one workspace (e.g. several JREs) must override it
+	 * 
+	 * @return
+	 */
+	protected String getStateKey() {
+		return getClass().getName();
+	}
+
+	/**
+	 * cheap check (must not use UI) confirming that state found in
+	 * {@link RequirementStateCache} is still present in workspace
+	 * 
+	 * @return
+	 */
+	protected boolean probe() {
+		return true;
+	}
+
+	/**
+	 * restores {@link org.jboss.tools.ui.bot.ext.config.ConfiguredState} the
+	 * same way {@link #handle()} would do, called instead of handle() when
+	 * requirement state was found in {@link RequirementStateCache}
+	 */
+	protected void restore() {
+	}
+
 	/**
 	 * must return true if the Requirement is already fulfilled
 	 * 
@@ -0,0 +1,210 @@
+package org.jboss.tools.ui.bot.ext.config.requirement;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Fulfills list of requirements together with all requirements they depend on
+ * (see {@link RequirementBase#getDependsOn()}). Requirements form a dependency
+ * graph, fulfilling runs in 2 overlapping parts
+ * <ul>
+ * <li>{@link RequirementBase#prepare()} (non-UI part) of all requirements runs
+ * on worker threads, each requirement is prepared after requirements it
+ * depends on</li>
+ * <li>meanwhile requirements are fulfilled one by one in topological order
+ * on the calling thread, requirements not depending on each other are ordered
+ * by {@link RequirementBase#getPriority()}. Requirement waits only for its
+ * own preparation before it is fulfilled.</li>
+ * </ul>
+ * Requirements without prepare part (e.g. {@link PrepareViews} or
+ * {@link SetProperties}) just run while others are being prepared.
+ */
+public class RequirementScheduler {
+
+	private static final Logger log = Logger.getLogger(RequirementScheduler.class);
+
+	/**
+	 * system property to disable parallel preparing of requirements
+	 */
+	public static final String PARALLEL_PREPARE = "swtbotext.requirements.parallel";
+
+	private final List<Node> nodes = new ArrayList<Node>();
+	private final Map<RequirementBase, Node> index = new IdentityHashMap<RequirementBase, Node>();
+
+	/**
+	 * creates scheduler for given requirements
+	 *
+	 * @param requirements
+	 *            list of requirements (sorted by priority)
+	 */
+	public RequirementScheduler(List<RequirementBase> requirements) {
+		for (RequirementBase req : requirements) {
+			addNode(req);
+		}
+	}
+
+	private Node addNode(RequirementBase req) {
+		Node node = index.get(req);
+		if (node == null) {
+			node = new Node(req, nodes.size());
+			index.put(req, node);
+			nodes.add(node);
+			for (RequirementBase dep : req.getDependsOn()) {
+				Node depNode = addNode(dep);
+				node.dependsOn.add(depNode);
+				depNode.dependants.add(node);
+			}
+		}
+		return node;
+	}
+
+	/**
+	 * returns all requirements (including dependencies) in order they are going
+	 * to be fulfilled
+	 *
+	 * @return sorted requirements
+	 * @throws RequirementNotFulfilledException
+	 *             when dependency graph contains cycle
+	 */
+	public List<RequirementBase> getOrder() throws RequirementNotFulfilledException {
+		Map<Node, Integer> inDegree = new IdentityHashMap<Node, Integer>();
+		PriorityQueue<Node> ready = new PriorityQueue<Node>(Math.max(1, nodes.size()), new Comparator<Node>() {
+			public int compare(Node o1, Node o2) {
+				int byPriority = o1.req.getPriority() - o2.req.getPriority();
+				return byPriority != 0 ? byPriority : o1.order - o2.order;
+			}
+		});
+		for (Node node : nodes) {
+			inDegree.put(node, node.dependsOn.size());
+			if (node.dependsOn.isEmpty()) {
+				ready.add(node);
+			}
+		}
+		List<RequirementBase> sorted = new ArrayList<RequirementBase>();
+		while (!ready.isEmpty()) {
+			Node node = ready.poll();
+			sorted.add(node.req);
+			for (Node dependant : node.dependants) {
+				int degree = inDegree.get(dependant) - 1;
+				inDegree.put(dependant, degree);
+				if (degree == 0) {
+					ready.add(dependant);
+				}
+			}
+		}
+		if (sorted.size() != nodes.size()) {
+			throw new RequirementNotFulfilledException("Requirements contain cyclic dependency");
+		}
+		return sorted;
+	}
+
+	/**
+	 * fulfills all requirements
+	 *
+	 * @throws RequirementNotFulfilledException
+	 */
+	public void fulfill() throws RequirementNotFulfilledException {
+		List<RequirementBase> order = getOrder();
+		ExecutorService executor = null;
+		Map<Node, Future<Void>> futures = new IdentityHashMap<Node, Future<Void>>();
+		if (order.size() > 1 && Boolean.parseBoolean(System.getProperty(PARALLEL_PREPARE, "true"))) {
+			executor = Executors.newFixedThreadPool(Math.min(order.size(), Runtime.getRuntime().availableProcessors()),
+					new ThreadFactory() {
+						public Thread newThread(Runnable r) {
+							Thread thread = new Thread(r, "Requirement preparer");
+							thread.setDaemon(true);
+							return thread;
+						}
+					});
+			prepare(order, executor, futures);
+		}
+		try {
+			for (RequirementBase req : order) {
+				Future<Void> future = futures.get(index.get(req));
+				if (future != null) {
+					awaitPrepared(req, future);
+				}
+				req.fulfill(false);
+			}
+		} finally {
+			if (executor != null) {
+				executor.shutdownNow();
+			}
+		}
+	}
+
+	/**
+	 * submits {@link RequirementBase#prepareOnce()} of all requirements,
+	 * requirement waits for all requirements it depends on to be prepared
+	 *
+	 * @param order
+	 *            requirements in topological order
+	 */
+	private void prepare(List<RequirementBase> order, ExecutorService executor, Map<Node, Future<Void>> futures) {
+		// tasks are submitted in topological order, so that a task waits
+		// only for tasks which have already been taken by the pool
+		for (RequirementBase req : order) {
+			final Node node = index.get(req);
+			final List<Future<Void>> deps = new LinkedList<Future<Void>>();
+			for (Node dep : node.dependsOn) {
+				deps.add(futures.get(dep));
+			}
+			futures.put(node, executor.submit(new Callable<Void>() {
+				public Void call() throws Exception {
+					for (Future<Void> dep : deps) {
+						dep.get();
+					}
+					log.info("Preparing requirement '" + node.req.getClass().getName() + "'");
+					node.req.prepareOnce();
+					return null;
+				}
+			}));
+		}
+	}
+
+	/**
+	 * waits for preparation of requirement, failure of preparation is thrown
+	 * on the calling thread
+	 */
+	private void awaitPrepared(RequirementBase req, Future<Void> future) throws RequirementNotFulfilledException {
+		try {
+			future.get();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			while (cause instanceof ExecutionException) {
+				// failed preparation of a dependency
+				cause = cause.getCause();
+			}
+			throw new RequirementNotFulfilledException("Unable to prepare requirement "
+					+ req.getClass().getCanonicalName(), cause);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RequirementNotFulfilledException("Interrupted while preparing requirements", e);
+		}
+	}
+
+	private static class Node {
+		private final RequirementBase req;
+		private final int order;
+		private final List<Node> dependsOn = new ArrayList<Node>();
+		private final List<Node> dependants = new ArrayList<Node>();
+
+		public Node(RequirementBase req, int order) {
+			this.req = req;
+			this.order = order;
+		}
+	}
+}
@@ -0,0 +1,185 @@
+package org.jboss.tools.ui.bot.ext.config.requirement;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.util.Properties;
+
+import org.apache.log4j.Logger;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.preferences.InstanceScope;
+import org.jboss.tools.ui.bot.ext.Activator;
+
+/**
+ * Persistent cache of fulfilled requirements. Every requirement which provides
+ * {@link RequirementBase#getFingerprint()} gets its fingerprint stored after it
+ * was handled. The cache is stored in workspace metadata (plugin state
+ * location), so that it survives between test configurations and test runs
+ * against the same workspace. When fingerprint of requirement matches stored one
+ * (and {@link RequirementBase#probe()} confirms it), requirement is restored by
+ * {@link RequirementBase#restore()} instead of being handled again.
+ *
+ * Cache can be switched off by -Dswtbotext.requirements.cache=false
+ */
+public class RequirementStateCache {
+
+	private static final Logger log = Logger.getLogger(RequirementStateCache.class);
+
+	/**
+	 * system property to disable requirement state cache
+	 */
+	public static final String ENABLED = "swtbotext.requirements.cache";
+
+	private static final String FILE_NAME = "requirements.properties";
+
+	private static RequirementStateCache instance;
+
+	private final Properties states = new Properties();
+	private final File file;
+	private final boolean enabled;
+
+	private RequirementStateCache() {
+		enabled = Boolean.parseBoolean(System.getProperty(ENABLED, "true"));
+		file = Activator.getDefault() == null ? null
+				: Activator.getDefault().getStateLocation().append(FILE_NAME).toFile();
+		if (enabled && file != null && file.isFile()) {
+			InputStream is = null;
+			try {
+				is = new FileInputStream(file);
+				states.load(is);
+				log.info("Loaded " + states.size() + " requirement states from " + file);
+			} catch (IOException e) {
+				log.error("Unable to load requirement states from " + file, e);
+			} finally {
+				close(is);
+			}
+		}
+	}
+
+	public static synchronized RequirementStateCache getInstance() {
+		if (instance == null) {
+			instance = new RequirementStateCache();
+		}
+		return instance;
+	}
+
+	/**
+	 * returns true if requirement was already handled with same fingerprint
+	 *
+	 * @param req
+	 * @return
+	 */
+	public boolean isWarm(RequirementBase req) {
+		if (!enabled) {
+			return false;
+		}
+		String fingerprint = req.getFingerprint();
+		return fingerprint != null && fingerprint.equals(states.getProperty(req.getStateKey()));
+	}
+
+	/**
+	 * stores fingerprint of handled requirement
+	 *
+	 * @param req
+	 */
+	public synchronized void store(RequirementBase req) {
+		String fingerprint = req.getFingerprint();
+		if (!enabled || fingerprint == null) {
+			return;
+		}
+		states.setProperty(req.getStateKey(), fingerprint);
+		save();
+	}
+
+	/**
+	 * removes stored state, should be called by requirements reverting work done
+	 * by other requirement
+	 *
+	 * @param stateKey
+	 *            see {@link RequirementBase#getStateKey()}
+	 */
+	public synchronized void invalidate(String stateKey) {
+		if (states.remove(stateKey) != null) {
+			save();
+		}
+	}
+
+	private void save() {
+		if (file == null) {
+			return;
+		}
+		OutputStream os = null;
+		try {
+			file.getParentFile().mkdirs();
+			os = new FileOutputStream(file);
+			states.store(os, "Fulfilled requirements");
+		} catch (IOException e) {
+			log.error("Unable to store requirement states to " + file, e);
+		} finally {
+			close(os);
+		}
+	}
+
+	/**
+	 * returns true if given instance scope preference contains given text
+	 *
+	 * @param qualifier
+	 *            preference node (plugin id)
+	 * @param key
+	 *            preference key
+	 * @param text
+	 * @return
+	 */
+	public static boolean preferenceContains(String qualifier, String key, String text) {
+		String value = InstanceScope.INSTANCE.getNode(qualifier).get(key, null);
+		return value != null && value.contains(text);
+	}
+
+	/**
+	 * returns true if file located in workspace metadata contains given text
+	 *
+	 * @param path
+	 *            path relative to workspace .metadata directory
+	 * @param text
+	 * @return
+	 */
+	public static boolean metadataFileContains(String path, String text) {
+		File metadataFile = ResourcesPlugin.getWorkspace().getRoot().getLocation()
+				.append(".metadata").append(path).toFile();
+		if (!metadataFile.isFile()) {
+			return false;
+		}
+		StringBuilder content = new StringBuilder();
+		Reader reader = null;
+		try {
+			reader = new InputStreamReader(new FileInputStream(metadataFile), "UTF-8");
+			char[] buffer = new char[4096];
+			int read;
+			while ((read = reader.read(buffer)) != -1) {
+				content.append(buffer, 0, read);
+			}
+		} catch (IOException e) {
+			log.error("Unable to read " + metadataFile, e);
+			return false;
+		} finally {
+			close(reader);
+		}
+		return content.indexOf(text) >= 0;
+	}
+
+	private static void close(Closeable closeable) {
+		if (closeable != null) {
+			try {
+				closeable.close();
+			} catch (IOException e) {
+				// ignore
+			}
+		}
+	}
+}
@@ -712,8 +712,16 @@ public class ContextMenuHelper {
   }
   
   public static String[] getFilteredMenuItemLabels (final Menu menu , String... ignoredMenuItems){
+    return filterMenuItemLabels(ContextMenuHelper.getMenuItemLabels(menu), ignoredMenuItems);
+  }
+  /**
+   * Returns menu item labels without ignored labels, does not touch UI
+   * @param menuItems
+   * @param ignoredMenuItems
+   * @return
+   */
+  public static String[] filterMenuItemLabels (String[] menuItems , String... ignoredMenuItems){
     LinkedList<String> result = null;
-    String[] menuItems = ContextMenuHelper.getMenuItemLabels(menu);
     
     if (menuItems != null && ignoredMenuItems != null){
       result = new LinkedList<String>();
@@ -0,0 +1,397 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributor:
+ *     Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package org.jboss.tools.ui.bot.ext.helper;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.log4j.Logger;
+import org.hsqldb.Server;
+
+/**
+ * Internal HSQLDB database fixtures. A database seeded by SQL script is built
+ * once into an image (base database files are copied, the script is run by
+ * JDBC and database files are kept under
+ * ${java.io.tmpdir}/jbosstools-db-images/&lt;digest&gt;), every fixture then
+ * runs on its own copy of the image files, so tests can change data without
+ * affecting other fixtures and without re-running the script. Image digest
+ * covers HSQLDB version, base database files and the script.
+ *
+ * Servers run in this VM on free ports taken from a pool and a fixture is
+ * returned once the server is online and the database answers a JDBC ping.
+ *
+ * Configured by system properties
+ * <ul>
+ * <li><code>swtbotext.db.images</code> - images directory</li>
+ * <li><code>swtbotext.db.ports</code> - port pool, e.g. 9001-9020 (default)</li>
+ * <li><code>swtbotext.db.timeout</code> - readiness timeout in ms (default
+ * 30000)</li>
+ * </ul>
+ */
+public class DatabaseFixture {
+
+	private static final Logger log = Logger.getLogger(DatabaseFixture.class);
+
+	public static final String IMAGES_DIR = "swtbotext.db.images";
+	public static final String PORTS = "swtbotext.db.ports";
+	public static final String TIMEOUT = "swtbotext.db.timeout";
+
+	public static final String USER = "sa";
+	public static final String PASSWORD = "";
+
+	private static final String DRIVER = "org.hsqldb.jdbcDriver";
+	/** database files name in image and clone directories */
+	private static final String DB_FILE = "db";
+	private static final String PING = "SELECT COUNT(*) FROM INFORMATION_SCHEMA.SYSTEM_USERS";
+	private static final long PING_INTERVAL = 50;
+	/** ServerConstants.SERVER_STATE_ONLINE */
+	private static final int SERVER_STATE_ONLINE = 1;
+	/** extensions of HSQLDB database files */
+	private static final String[] DB_FILE_EXTENSIONS = { ".properties", ".script", ".data", ".backup" };
+
+	private static String version;
+
+	private static final Set<Integer> leasedPorts = new HashSet<Integer>();
+
+	private final Server server;
+	private final String dbname;
+	private final int port;
+	/** clone directory deleted on stop, null when database files are not a clone */
+	private final File cloneDir;
+
+	private DatabaseFixture(Server server, String dbname, int port, File cloneDir) {
+		this.server = server;
+		this.dbname = dbname;
+		this.port = port;
+		this.cloneDir = cloneDir;
+	}
+
+	/**
+	 * Starts server on given database files
+	 *
+	 * @param dbFilePath database files path (without extension)
+	 * @param dbname database alias
+	 */
+	public static DatabaseFixture start(String dbFilePath, String dbname) {
+		return start(dbFilePath, dbname, null);
+	}
+
+	/**
+	 * Starts server on a copy of database image built from base database and
+	 * seeded by given script
+	 *
+	 * @param dbname database alias
+	 * @param baseDbFilePath base database files path (without extension), may
+	 *            be null or not exist for empty database
+	 * @param script SQL script, statements are terminated by semicolon at line
+	 *            end, may be null
+	 */
+	public static DatabaseFixture startClone(String dbname, String baseDbFilePath, String script) {
+		try {
+			File image = getImage(baseDbFilePath, script == null ? "" : script);
+			File clone = Files.createTempDirectory("jbosstools-db-").toFile();
+			for (File file : image.listFiles()) {
+				Files.copy(file.toPath(), new File(clone, file.getName()).toPath(),
+						StandardCopyOption.REPLACE_EXISTING);
+			}
+			return start(new File(clone, DB_FILE).getAbsolutePath(), dbname, clone);
+		} catch (IOException | SQLException e) {
+			throw new RuntimeException("Unable to prepare database image", e);
+		}
+	}
+
+	private static DatabaseFixture start(String dbFilePath, String dbname, File cloneDir) {
+		loadDriver();
+		int[] range = getPortRange();
+		for (int port = range[0]; port <= range[1]; port++) {
+			if (!lease(port)) {
+				continue;
+			}
+			if (!DatabaseHelper.portAvailable(port)) {
+				// e.g. HSQLDB of other process
+				log.info("Port " + port + " is used, trying next one");
+				release(port);
+				continue;
+			}
+			Server server = new Server();
+			server.setLogWriter(null);
+			server.setErrWriter(null);
+			server.setSilent(true);
+			server.setNoSystemExit(true);
+			server.setDatabaseName(0, dbname);
+			server.setDatabasePath(0, "file:" + dbFilePath);
+			server.setPort(port);
+			server.start();
+			DatabaseFixture fixture = new DatabaseFixture(server, dbname, port, cloneDir);
+			if (fixture.awaitReady(Long.getLong(TIMEOUT, 30000))) {
+				log.info("HSQLDB " + dbname + " is ready on port " + port);
+				return fixture;
+			}
+			// port is used by other process or database cannot be opened
+			log.info("HSQLDB " + dbname + " did not start on port " + port + ": " + server.getServerError());
+			server.stop();
+			release(port);
+			if (server.getServerError() == null) {
+				break;
+			}
+		}
+		if (cloneDir != null) {
+			delete(cloneDir);
+		}
+		throw new RuntimeException("Unable to start HSQLDB " + dbname + " on ports " + range[0] + "-" + range[1]);
+	}
+
+	public String getJdbcUrl() {
+		return "jdbc:hsqldb:hsql://localhost:" + port + "/" + dbname;
+	}
+
+	public int getPort() {
+		return port;
+	}
+
+	/**
+	 * Stops server, database clone is deleted
+	 */
+	public void stop() {
+		try {
+			Connection connection = DriverManager.getConnection(getJdbcUrl(), USER, PASSWORD);
+			try {
+				connection.createStatement().execute("SHUTDOWN");
+			} finally {
+				connection.close();
+			}
+		} catch (SQLException e) {
+			log.info("Unable to shutdown HSQLDB " + dbname + ": " + e);
+		}
+		server.stop();
+		release(port);
+		if (cloneDir != null) {
+			delete(cloneDir);
+		}
+	}
+
+	/**
+	 * Waits until server is online (server starts in its own thread) and
+	 * database answers JDBC ping, or until server fails
+	 */
+	private boolean awaitReady(long timeOut) {
+		long deadline = System.currentTimeMillis() + timeOut;
+		while (System.currentTimeMillis() < deadline) {
+			if (server.getServerError() != null) {
+				return false;
+			}
+			if (server.getState() == SERVER_STATE_ONLINE && ping(getJdbcUrl(), USER, PASSWORD)) {
+				return true;
+			}
+			try {
+				Thread.sleep(PING_INTERVAL);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return false;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns true if database at given url accepts connection and answers
+	 * query
+	 */
+	public static boolean ping(String url, String user, String password) {
+		try {
+			Connection connection = DriverManager.getConnection(url, user, password);
+			try {
+				connection.createStatement().executeQuery(PING).close();
+				return true;
+			} finally {
+				connection.close();
+			}
+		} catch (SQLException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Returns image directory for base database and script, image is built if
+	 * it does not exist
+	 */
+	private static synchronized File getImage(String baseDbFilePath, String script) throws IOException,
+			SQLException {
+		File images = new File(System.getProperty(IMAGES_DIR, System.getProperty("java.io.tmpdir")
+				+ File.separator + "jbosstools-db-images"));
+		List<File> baseFiles = getDbFiles(baseDbFilePath);
+		File image = new File(images, digest(baseFiles, script));
+		if (image.isDirectory()) {
+			return image;
+		}
+		log.info("Building database image " + image.getName());
+		File tmp = new File(images, image.getName() + ".tmp");
+		delete(tmp);
+		if (!tmp.mkdirs()) {
+			throw new IOException("Can not create dir " + tmp);
+		}
+		for (File file : baseFiles) {
+			String name = file.getName();
+			Files.copy(file.toPath(), new File(tmp, DB_FILE + name.substring(name.lastIndexOf('.'))).toPath());
+		}
+		loadDriver();
+		Connection connection = DriverManager.getConnection("jdbc:hsqldb:file:"
+				+ new File(tmp, DB_FILE).getAbsolutePath(), USER, PASSWORD);
+		try {
+			Statement statement = connection.createStatement();
+			for (String sql : split(script)) {
+				statement.execute(sql);
+			}
+			// writes whole database to script file and closes it
+			statement.execute("SHUTDOWN COMPACT");
+		} finally {
+			connection.close();
+		}
+		if (!tmp.renameTo(image)) {
+			delete(tmp);
+			if (!image.isDirectory()) {
+				throw new IOException("Can not create database image " + image);
+			}
+		}
+		return image;
+	}
+
+	/**
+	 * splits script to statements terminated by semicolon at line end, lines
+	 * starting with -- are skipped
+	 */
+	private static List<String> split(String script) {
+		List<String> statements = new ArrayList<String>();
+		StringBuilder statement = new StringBuilder();
+		for (String line : script.split("\r?\n")) {
+			String trimmed = line.trim();
+			if (trimmed.isEmpty() || trimmed.startsWith("--")) {
+				continue;
+			}
+			statement.append(line).append('\n');
+			if (trimmed.endsWith(";")) {
+				statements.add(statement.substring(0, statement.lastIndexOf(";")).trim());
+				statement.setLength(0);
+			}
+		}
+		if (statement.toString().trim().length() > 0) {
+			statements.add(statement.toString().trim());
+		}
+		return statements;
+	}
+
+	/**
+	 * returns existing database files of given database path
+	 */
+	private static List<File> getDbFiles(String dbFilePath) {
+		List<File> files = new ArrayList<File>();
+		if (dbFilePath != null) {
+			for (String extension : DB_FILE_EXTENSIONS) {
+				File file = new File(dbFilePath + extension);
+				if (file.isFile()) {
+					files.add(file);
+				}
+			}
+		}
+		return files;
+	}
+
+	/**
+	 * returns digest of HSQLDB version, base database files and script
+	 */
+	private static String digest(List<File> baseFiles, String script) throws IOException, SQLException {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-1");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+		digest.update(getVersion().getBytes(StandardCharsets.UTF_8));
+		for (File file : baseFiles) {
+			digest.update(file.getName().getBytes(StandardCharsets.UTF_8));
+			digest.update(Files.readAllBytes(file.toPath()));
+		}
+		digest.update(script.getBytes(StandardCharsets.UTF_8));
+		StringBuilder id = new StringBuilder();
+		for (byte b : digest.digest()) {
+			id.append(String.format("%02x", b));
+		}
+		return id.toString();
+	}
+
+	/**
+	 * returns version of HSQLDB used in this VM, image files depend on it
+	 */
+	private static synchronized String getVersion() throws SQLException {
+		if (version == null) {
+			loadDriver();
+			Connection connection = DriverManager.getConnection("jdbc:hsqldb:mem:jbosstools-version", USER,
+					PASSWORD);
+			try {
+				version = connection.getMetaData().getDatabaseProductVersion();
+				connection.createStatement().execute("SHUTDOWN");
+			} finally {
+				connection.close();
+			}
+		}
+		return version;
+	}
+
+	private static int[] getPortRange() {
+		String[] range = System.getProperty(PORTS, "9001-9020").split("-");
+		int first = Integer.parseInt(range[0].trim());
+		int last = range.length > 1 ? Integer.parseInt(range[1].trim()) : first;
+		return new int[] { first, last };
+	}
+
+	private static boolean lease(int port) {
+		synchronized (leasedPorts) {
+			return leasedPorts.add(port);
+		}
+	}
+
+	private static void release(int port) {
+		synchronized (leasedPorts) {
+			leasedPorts.remove(port);
+		}
+	}
+
+	private static void loadDriver() {
+		try {
+			Class.forName(DRIVER);
+		} catch (ClassNotFoundException e) {
+			throw new RuntimeException("HSQLDB driver not found", e);
+		}
+	}
+
+	private static void delete(File file) {
+		File[] files = file.listFiles();
+		if (files != null) {
+			for (File child : files) {
+				delete(child);
+			}
+		}
+		file.delete();
+	}
+}
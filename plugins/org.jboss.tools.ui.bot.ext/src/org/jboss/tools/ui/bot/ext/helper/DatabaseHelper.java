@@ -11,10 +11,6 @@ import java.io.IOException;
 import java.net.DatagramSocket;
 import java.net.ServerSocket;
 import java.nio.channels.FileChannel;
-import java.sql.Connection;
-import java.sql.ResultSet;
-import java.sql.SQLException;
-import java.sql.Statement;
 import java.util.Properties;
 
 import org.apache.log4j.Logger;
@@ -24,6 +20,7 @@ import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.datatools.connectivity.ConnectionProfileConstants;
 import org.eclipse.datatools.connectivity.ConnectionProfileException;
+import org.eclipse.datatools.connectivity.IConnectionProfile;
 import org.eclipse.datatools.connectivity.ProfileManager;
 import org.eclipse.datatools.connectivity.db.generic.IDBConnectionProfileConstants;
 import org.eclipse.datatools.connectivity.db.generic.IDBDriverDefinitionConstants;
@@ -40,7 +37,6 @@ import org.eclipse.swtbot.swt.finder.widgets.SWTBotTree;
 import org.eclipse.swtbot.swt.finder.widgets.SWTBotTreeItem;
 import org.eclipse.ui.IViewReference;
 import org.hamcrest.Matcher;
-import org.hsqldb.Server;
 import org.jboss.tools.ui.bot.ext.Activator;
 import org.jboss.tools.ui.bot.ext.SWTEclipseExt;
 import org.jboss.tools.ui.bot.ext.SWTUtilExt;
@@ -52,7 +48,7 @@ public class DatabaseHelper {
 	
 	public static int SLEEP = 1000;
 	public static Logger log = Logger.getLogger(DatabaseHelper.class);
-	private static boolean hsqlRunning = false;
+	private static DatabaseFixture hsqlFixture;
 
 	/**
 	 * Create HSQLDB Driver 
@@ -71,6 +67,15 @@ public class DatabaseHelper {
 		}
 		
 		DriverInstance driver = DriverManager.getInstance().getDriverInstanceByName(entity.getInstanceName());
+		if (driver != null && !entity.getJdbcString().equals(driver.getProperty(IDBDriverDefinitionConstants.URL_PROP_ID))) {
+			// e.g. internal database runs on other port than before
+			IConnectionProfile profile = ProfileManager.getInstance().getProfileByName(profileName);
+			if (profile != null) {
+				ProfileManager.getInstance().deleteProfile(profile);
+			}
+			DriverManager.getInstance().removeDriverInstance(driver.getId());
+			driver = null;
+		}
 		if (driver == null) {
 			TemplateDescriptor descr = TemplateDescriptor.getDriverTemplateDescriptor(entity.getDriverTemplateDescId());
 			IPropertySet instance = new PropertySetImpl(entity.getInstanceName(), entity.getDriverDefId());
@@ -364,71 +369,49 @@ public class DatabaseHelper {
 	public static void startHSQLDBServer(final String dbFilePath, final String dbname) {
 		if (isHSQLDBRunning()) {
 			log.info("Internal HSQLDB is already running");
-		}		
-		// port check
-		log.info("Check HSQLDB (9001) port availablity");
-		boolean available = portAvailable(9001);
-		if (!available) throw new RuntimeException("HSQLDB port is already in use");		
-		
-		Thread hsqlThread = null;
+			return;
+		}
 		log.info("Starting HSQLDB...");
-		try {
-			Class.forName("org.hsqldb.jdbcDriver");
-		} catch (ClassNotFoundException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
+		hsqlFixture = DatabaseFixture.start(dbFilePath, dbname);
+		log.info("HSQLDB started");
+	}
+
+	/**
+	 * Run HSQLDB database in server mode on a copy of given database seeded by
+	 * given script, see {@link DatabaseFixture}. Running database is stopped
+	 * first.
+	 * @param dbFilePath - base database file path
+	 * @param dbname - database name
+	 * @param script - SQL script, may be null
+	 * @return jdbc url of the database
+	 */
+	public static String startHSQLDBServerWithScript(String dbFilePath, String dbname, String script) {
+		if (isHSQLDBRunning()) {
+			log.info("Internal HSQLDB is already running, stopping it");
+			stopHSQLDBServer();
 		}
-		Runnable runable = new Runnable() {
-			
-			public void run() {
-				Server.main(new String[] {"-database.0","file:" + dbFilePath,"-dbname.0",dbname });
-			}
-		};
-		
-		hsqlThread = new Thread(runable);
-		hsqlThread.start();
-		hsqlRunning = true;
+		log.info("Starting seeded HSQLDB...");
+		hsqlFixture = DatabaseFixture.startClone(dbname, dbFilePath, script);
 		log.info("HSQLDB started");
+		return hsqlFixture.getJdbcUrl();
 	}
 	
-	
-	
-	
 	/**
 	 * Stop HSQL Database by sending SHUTDOWN command
 	 */
 	public static void stopHSQLDBServer() {
-		if (!hsqlRunning) return;
+		if (!isHSQLDBRunning()) return;
 		
-		try {		
-			Class.forName("org.hsqldb.jdbcDriver");
-			
-			Connection connection = java.sql.DriverManager.getConnection("jdbc:hsqldb:hsql://localhost/xdb");
-			
-			Statement statement = connection.createStatement();
-			ResultSet resultset = statement.executeQuery("SHUTDOWN");
-			
-			resultset.close();
-			statement.close();
-			connection.close();
-
-			hsqlRunning = false;
-			log.error("Internal hql server stopped");
-
-			
-		} catch (SQLException e) {
-			
-		}
-		catch (ClassNotFoundException e) {
-			log.error("Unable to stop HSQLDB " + e);
-		}
+		hsqlFixture.stop();
+		hsqlFixture = null;
+		log.info("Internal hql server stopped");
 	}
 	
 	/**
 	 * Returns flag refering if HSQLDB is running
 	 */
 	public static boolean isHSQLDBRunning() {
-		return hsqlRunning;
+		return hsqlFixture != null;
 	}
 	
 	/**
@@ -0,0 +1,260 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributor:
+ *     Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package org.jboss.tools.ui.bot.ext.helper;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * NIO based copying of files, directory trees and zip archives. Files are
+ * copied by {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)}
+ * so that the content does not pass through java heap, directory trees are
+ * walked once (directories are created during the walk) while files are
+ * copied in parallel by a bounded pool. Archives are extracted in the same
+ * way, all directories are created first and entries are inflated in parallel.
+ *
+ * Number of copying threads is set by -Dswtbotext.copy.threads (default is
+ * number of processors, at most 4).
+ */
+public class FileCopyEngine {
+
+	/**
+	 * system property with number of copying threads
+	 */
+	public static final String THREADS = "swtbotext.copy.threads";
+
+	private static ForkJoinPool pool;
+
+	private static synchronized ForkJoinPool getPool() {
+		if (pool == null) {
+			int threads = Integer.getInteger(THREADS,
+					Math.min(4, Runtime.getRuntime().availableProcessors()));
+			pool = new ForkJoinPool(Math.max(1, threads));
+		}
+		return pool;
+	}
+
+	/**
+	 * Copies file to target file
+	 *
+	 * @param source
+	 * @param target
+	 *            target file (not directory)
+	 * @param skipUpToDate
+	 *            when true, target with the same size and checksum is not
+	 *            rewritten
+	 * @return true if file was copied, false if it was up to date
+	 * @throws IOException
+	 */
+	public static boolean copyFile(File source, File target, boolean skipUpToDate) throws IOException {
+		if (skipUpToDate && isUpToDate(source, target)) {
+			return false;
+		}
+		FileChannel in = FileChannel.open(source.toPath(), StandardOpenOption.READ);
+		try {
+			FileChannel out = FileChannel.open(target.toPath(), StandardOpenOption.WRITE,
+					StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+			try {
+				long size = in.size();
+				long position = 0;
+				// transferTo may transfer less than requested
+				while (position < size) {
+					position += in.transferTo(position, size - position, out);
+				}
+			} finally {
+				out.close();
+			}
+		} finally {
+			in.close();
+		}
+		return true;
+	}
+
+	/**
+	 * Recursively copies files and subdirectories accepted by file filter from
+	 * fromLocation to toLocation
+	 *
+	 * @param fromLocation
+	 * @param toLocation
+	 * @param fileFilter
+	 *            filter applied to files and directories, may be null
+	 * @param skipUpToDate
+	 *            when true, files which are already up to date are not
+	 *            rewritten
+	 * @throws IOException
+	 */
+	public static void copyTree(File fromLocation, final File toLocation, final FileFilter fileFilter,
+			final boolean skipUpToDate) throws IOException {
+		if (!fromLocation.exists()) {
+			return;
+		}
+		final Path from = fromLocation.toPath();
+		final List<Callable<Void>> copies = new ArrayList<Callable<Void>>();
+		Files.walkFileTree(from, new SimpleFileVisitor<Path>() {
+			@Override
+			public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+				if (!dir.equals(from) && fileFilter != null && !fileFilter.accept(dir.toFile())) {
+					return FileVisitResult.SKIP_SUBTREE;
+				}
+				Files.createDirectories(toLocation.toPath().resolve(from.relativize(dir).toString()));
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+				final File source = file.toFile();
+				if (fileFilter == null || fileFilter.accept(source)) {
+					final File target = toLocation.toPath().resolve(from.relativize(file).toString()).toFile();
+					copies.add(new Callable<Void>() {
+						public Void call() throws Exception {
+							copyFile(source, target, skipUpToDate);
+							return null;
+						}
+					});
+				}
+				return FileVisitResult.CONTINUE;
+			}
+		});
+		runAll(copies);
+	}
+
+	/**
+	 * Extracts archive to output directory. Directory entries replace existing
+	 * directories, file entries are extracted in parallel.
+	 *
+	 * @param archive
+	 * @param outputDir
+	 * @throws IOException
+	 */
+	public static void unzip(File archive, File outputDir) throws IOException {
+		final ZipFile zipfile = new ZipFile(archive);
+		try {
+			List<Callable<Void>> extractions = new ArrayList<Callable<Void>>();
+			// directories first, so that parallel extraction does not race on them
+			for (Enumeration<? extends ZipEntry> e = zipfile.entries(); e.hasMoreElements();) {
+				ZipEntry entry = e.nextElement();
+				if (entry.isDirectory()) {
+					createDir(new File(outputDir, entry.getName()));
+				}
+			}
+			for (Enumeration<? extends ZipEntry> e = zipfile.entries(); e.hasMoreElements();) {
+				final ZipEntry entry = e.nextElement();
+				if (entry.isDirectory()) {
+					continue;
+				}
+				final File outputFile = new File(outputDir, entry.getName());
+				File parent = outputFile.getParentFile();
+				if (!parent.exists() && !parent.mkdirs() && !parent.isDirectory()) {
+					throw new IOException("Can not create dir " + parent);
+				}
+				extractions.add(new Callable<Void>() {
+					public Void call() throws Exception {
+						InputStream inputStream = zipfile.getInputStream(entry);
+						try {
+							Files.copy(inputStream, outputFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+						} finally {
+							inputStream.close();
+						}
+						return null;
+					}
+				});
+			}
+			runAll(extractions);
+		} finally {
+			zipfile.close();
+		}
+	}
+
+	/**
+	 * Returns true when target exists and has the same size and checksum as
+	 * source
+	 */
+	private static boolean isUpToDate(File source, File target) throws IOException {
+		return target.isFile() && target.length() == source.length() && checksum(source) == checksum(target);
+	}
+
+	private static long checksum(File file) throws IOException {
+		CRC32 crc = new CRC32();
+		InputStream is = new FileInputStream(file);
+		try {
+			byte[] buffer = new byte[65536];
+			int read;
+			while ((read = is.read(buffer)) != -1) {
+				crc.update(buffer, 0, read);
+			}
+		} finally {
+			is.close();
+		}
+		return crc.getValue();
+	}
+
+	private static void runAll(List<Callable<Void>> tasks) throws IOException {
+		if (tasks.isEmpty()) {
+			return;
+		}
+		for (Future<Void> future : getPool().invokeAll(tasks)) {
+			try {
+				future.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IOException("Copying was interrupted", e);
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof IOException) {
+					throw (IOException) e.getCause();
+				}
+				throw new IOException(e.getCause());
+			}
+		}
+	}
+
+	private static void createDir(File dir) {
+		if (dir.exists()) {
+			deleteDirectory(dir);
+		}
+		if (!dir.mkdirs())
+			throw new RuntimeException("Can not create dir " + dir);
+	}
+
+	private static boolean deleteDirectory(File path) {
+		if (path.exists()) {
+			File[] files = path.listFiles();
+			for (int i = 0; i < files.length; i++) {
+				if (files[i].isDirectory()) {
+					deleteDirectory(files[i]);
+				} else {
+					files[i].delete();
+				}
+			}
+		}
+		return (path.delete());
+	}
+}
@@ -10,20 +10,11 @@
  ******************************************************************************/
 package org.jboss.tools.ui.bot.ext.helper;
 
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileFilter;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
-import java.util.Enumeration;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipFile;
 
 import org.apache.log4j.Logger;
 import org.eclipse.core.resources.ResourcesPlugin;
@@ -53,17 +44,27 @@ public class FileHelper {
 	 */
 	public static void copyFilesBinaryRecursively(File fromLocation,
 			File toLocation, FileFilter fileFilter) throws IOException {
-		if (fromLocation.exists()) {
-			for (File fileToCopy : fromLocation.listFiles(fileFilter)) {
-				if (fileToCopy.isDirectory()) {
-					File newToDir = new File(toLocation, fileToCopy.getName());
-					newToDir.mkdir();
-					copyFilesBinaryRecursively(fileToCopy, newToDir, fileFilter);
-				} else {
-					copyFilesBinary(fileToCopy, toLocation);
-				}
-			}
-		}
+		copyFilesBinaryRecursively(fromLocation, toLocation, fileFilter, false);
+	}
+
+	/**
+	 * Recursively copies files and subdirectories from fromLocation to
+	 * toLocation using FileFilter fileFliter, files are copied in parallel
+	 * (see {@link FileCopyEngine})
+	 * 
+	 * @param fromLocation
+	 * @param toLocation
+	 * @param fileFilter
+	 * @param skipUpToDate
+	 *            when true, files with the same size and checksum are not
+	 *            copied again
+	 * @throws IOException
+	 */
+	public static void copyFilesBinaryRecursively(File fromLocation,
+			File toLocation, FileFilter fileFilter, boolean skipUpToDate)
+			throws IOException {
+		FileCopyEngine.copyTree(fromLocation, toLocation, fileFilter,
+				skipUpToDate);
 	}
 
 	/**
@@ -75,36 +76,8 @@ public class FileHelper {
 	 */
 	public static void copyFilesBinary(File originalFile, File toLocation)
 			throws IOException {
-		FileInputStream fis = null;
-		FileOutputStream fos = null;
-		try {
-			fis = new FileInputStream(originalFile);
-			fos = new FileOutputStream(new File(toLocation,
-					originalFile.getName()));
-			byte[] buffer = new byte[4096];
-			int bytesRead;
-
-			while ((bytesRead = fis.read(buffer)) != -1) {
-				fos.write(buffer, 0, bytesRead); // write
-			}
-
-		} finally {
-			if (fis != null) {
-				try {
-					fis.close();
-				} catch (IOException e) {
-					// do nothing
-				}
-			}
-			if (fos != null) {
-				try {
-					fos.flush();
-					fos.close();
-				} catch (IOException e) {
-					// do nothing
-				}
-			}
-		}
+		FileCopyEngine.copyFile(originalFile,
+				new File(toLocation, originalFile.getName()), false);
 	}
 
 	public static String getProjectLocation(String projectName, SWTBot bot) {
@@ -139,73 +112,10 @@ public class FileHelper {
 			throws Exception {
 		log.info("Unzipping " + archive.getCanonicalPath() + " to "
 				+ outputDir.getCanonicalPath());
-		ZipFile zipfile = new ZipFile(archive);
-		for (Enumeration<? extends ZipEntry> e = zipfile.entries(); e
-				.hasMoreElements();) {
-			ZipEntry entry = (ZipEntry) e.nextElement();
-			unzipEntry(zipfile, entry, outputDir);
-		}
+		FileCopyEngine.unzip(archive, outputDir);
 		log.info("DONE");
 	}
 
-	static private boolean deleteDirectory(File path) {
-		if (path.exists()) {
-			File[] files = path.listFiles();
-			for (int i = 0; i < files.length; i++) {
-				if (files[i].isDirectory()) {
-					deleteDirectory(files[i]);
-				} else {
-					files[i].delete();
-				}
-			}
-		}
-		return (path.delete());
-	}
-
-	private static void unzipEntry(ZipFile zipfile, ZipEntry entry,
-			File outputDir) throws IOException {
-
-		if (entry.isDirectory()) {
-			createDir(new File(outputDir, entry.getName()));
-			return;
-		}
-
-		File outputFile = new File(outputDir, entry.getName());
-		if (!outputFile.getParentFile().exists()) {
-			createDir(outputFile.getParentFile());
-		}
-
-		BufferedInputStream inputStream = new BufferedInputStream(
-				zipfile.getInputStream(entry));
-		BufferedOutputStream outputStream = new BufferedOutputStream(
-				new FileOutputStream(outputFile));
-
-		try {
-			copy(inputStream, outputStream);
-		} finally {
-			outputStream.close();
-			inputStream.close();
-		}
-	}
-
-	private static void copy(InputStream in, OutputStream out)
-			throws IOException {
-		byte[] buf = new byte[1024];
-		int len;
-		while ((len = in.read(buf)) > 0) {
-			out.write(buf, 0, len);
-		}
-		in.close();
-		out.close();
-	}
-
-	private static void createDir(File dir) {
-		if (dir.exists()) {
-			deleteDirectory(dir);
-		}
-		if (!dir.mkdirs())
-			throw new RuntimeException("Can not create dir " + dir);
-	}
 	/**
 	 * Modify file fileLocation to have content fileContent
 	 * @param fileLocation
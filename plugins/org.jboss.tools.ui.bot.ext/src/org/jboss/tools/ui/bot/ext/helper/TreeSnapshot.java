@@ -0,0 +1,482 @@
+package org.jboss.tools.ui.bot.ext.helper;
+
+import static org.eclipse.swtbot.swt.finder.finders.UIThreadRunnable.syncExec;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.log4j.Logger;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Event;
+import org.eclipse.swt.widgets.Listener;
+import org.eclipse.swt.widgets.Tree;
+import org.eclipse.swt.widgets.TreeItem;
+import org.eclipse.swtbot.swt.finder.exceptions.WidgetNotFoundException;
+import org.eclipse.swtbot.swt.finder.results.Result;
+import org.eclipse.swtbot.swt.finder.results.VoidResult;
+import org.eclipse.swtbot.swt.finder.utils.SWTBotPreferences;
+import org.eclipse.swtbot.swt.finder.widgets.SWTBotTree;
+import org.eclipse.swtbot.swt.finder.widgets.SWTBotTreeItem;
+
+/**
+ * In-memory snapshot of SWT tree (text, data, expansion state and children of
+ * items). Items are read in UI thread in one pass, nodes expanded by the pass
+ * whose children are not known yet (JFace dummy item, "Pending..." or
+ * "Loading..." placeholder) are read again as soon as the tree reports
+ * expand, paint or set data event, so no fixed sleeps are needed. Path and
+ * prefix queries are then answered from index of captured nodes.
+ */
+public class TreeSnapshot {
+
+	private static final Logger log = Logger.getLogger(TreeSnapshot.class);
+
+	/** longest wait for tree event before captured nodes are checked again */
+	private static final long EVENT_SLICE = 500;
+
+	/**
+	 * Captured tree item
+	 */
+	public static class Node {
+		private final TreeItem item;
+		private final String text;
+		private final Object data;
+		private final List<String> path;
+		private boolean expanded;
+		private final List<Node> children = new ArrayList<Node>();
+
+		private Node(Node parent, TreeItem item) {
+			this.item = item;
+			this.text = item == null ? "" : item.getText();
+			this.data = item == null ? null : item.getData();
+			this.expanded = item == null || item.getExpanded();
+			if (parent == null) {
+				this.path = item == null ? Collections.<String> emptyList() : Collections.singletonList(text);
+			} else {
+				List<String> childPath = new ArrayList<String>(parent.path);
+				childPath.add(text);
+				this.path = Collections.unmodifiableList(childPath);
+			}
+		}
+
+		public String getText() {
+			return text;
+		}
+
+		public Object getData() {
+			return data;
+		}
+
+		public boolean isExpanded() {
+			return expanded;
+		}
+
+		/**
+		 * Returns texts of items from the snapshot root to this node
+		 */
+		public List<String> getPath() {
+			return path;
+		}
+
+		public List<Node> getChildren() {
+			return Collections.unmodifiableList(children);
+		}
+
+		/**
+		 * Returns bot of captured tree item
+		 */
+		public SWTBotTreeItem getItem() {
+			if (item == null) {
+				throw new WidgetNotFoundException("Tree root is not tree item");
+			}
+			return new SWTBotTreeItem(item);
+		}
+	}
+
+	/**
+	 * counts events of the tree, snapshot waits for them instead of sleeping
+	 */
+	private static class TreeEvents implements Listener {
+		private static final int[] TYPES = { SWT.Expand, SWT.Paint, SWT.SetData };
+		private int count;
+
+		public synchronized void handleEvent(Event event) {
+			count++;
+			notifyAll();
+		}
+
+		private synchronized int getCount() {
+			return count;
+		}
+
+		/**
+		 * waits until any event arrives after seen count of events
+		 */
+		private synchronized void await(int seen, long timeOut) {
+			long end = System.currentTimeMillis() + timeOut;
+			long remaining = timeOut;
+			while (count == seen && remaining > 0) {
+				try {
+					wait(remaining);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+				remaining = end - System.currentTimeMillis();
+			}
+		}
+	}
+
+	/**
+	 * matches text of child item
+	 */
+	private interface TextMatcher {
+		boolean matches(String text);
+
+		String describe();
+	}
+
+	private final Tree tree;
+	private final Node root;
+	private final TreeEvents events = new TreeEvents();
+	private final Map<List<String>, Node> index = new HashMap<List<String>, Node>();
+
+	private TreeSnapshot(Tree tree, TreeItem rootItem) {
+		this.tree = tree;
+		Node parent = null;
+		if (rootItem != null) {
+			// nodes are indexed by path from the tree root
+			List<TreeItem> ancestors = new ArrayList<TreeItem>();
+			for (TreeItem item = rootItem.getParentItem(); item != null; item = item.getParentItem()) {
+				ancestors.add(0, item);
+			}
+			for (TreeItem item : ancestors) {
+				parent = new Node(parent, item);
+			}
+		}
+		this.root = new Node(parent, rootItem);
+	}
+
+	/**
+	 * Captures all items of tree
+	 *
+	 * @param expand
+	 *            if true, collapsed items are expanded and their children are
+	 *            captured too
+	 */
+	public static TreeSnapshot take(SWTBotTree tree, boolean expand) {
+		return take(tree, null, expand);
+	}
+
+	/**
+	 * Captures all items under parent item
+	 *
+	 * @param parent
+	 *            item whose subtree is captured, whole tree is captured if null
+	 * @param expand
+	 *            if true, collapsed items are expanded and their children are
+	 *            captured too
+	 */
+	public static TreeSnapshot take(SWTBotTree tree, final SWTBotTreeItem parent, final boolean expand) {
+		final TreeSnapshot snapshot = create(tree, parent);
+		try {
+			List<Node> pending = Collections.singletonList(snapshot.root);
+			long deadline = System.currentTimeMillis() + SWTBotPreferences.TIMEOUT;
+			while (true) {
+				final List<Node> toCapture = pending;
+				final int seen = snapshot.events.getCount();
+				List<Node> stillPending = syncExec(new Result<List<Node>>() {
+					public List<Node> run() {
+						List<Node> notKnown = new ArrayList<Node>();
+						for (Node node : toCapture) {
+							snapshot.captureSubtree(node, expand, notKnown);
+						}
+						return notKnown;
+					}
+				});
+				if (stillPending.isEmpty()) {
+					break;
+				}
+				if (!stillPending.equals(pending)) {
+					// some children arrived, give the rest full time again
+					deadline = System.currentTimeMillis() + SWTBotPreferences.TIMEOUT;
+				}
+				long remaining = deadline - System.currentTimeMillis();
+				if (remaining <= 0) {
+					log.warn("Children of " + stillPending.size() + " tree item(s) were not loaded in time");
+					break;
+				}
+				pending = stillPending;
+				snapshot.events.await(seen, Math.min(remaining, EVENT_SLICE));
+			}
+		} finally {
+			snapshot.dispose();
+		}
+		snapshot.buildIndex(snapshot.root);
+		return snapshot;
+	}
+
+	/**
+	 * Returns item with text located on path, every item on path is expanded
+	 * and waited for
+	 *
+	 * @param timeOut
+	 *            maximum time (ms) to wait for one item, at least
+	 *            {@link SWTBotPreferences#TIMEOUT} is used
+	 */
+	public static SWTBotTreeItem findItem(SWTBotTree tree, long timeOut, final String text, String... path) {
+		return walk(tree, timeOut, path, new TextMatcher() {
+			public boolean matches(String itemText) {
+				return itemText.equals(text);
+			}
+
+			public String describe() {
+				return "with label " + text;
+			}
+		}).getItem();
+	}
+
+	/**
+	 * Returns first item with text (trimmed) starting with prefix which is
+	 * child of item on path, every item on path is expanded and waited for
+	 *
+	 * @param timeOut
+	 *            maximum time (ms) to wait for one item, at least
+	 *            {@link SWTBotPreferences#TIMEOUT} is used
+	 */
+	public static SWTBotTreeItem findItemStartsWith(SWTBotTree tree, long timeOut, final String prefix,
+			String... path) {
+		return walk(tree, timeOut, path, new TextMatcher() {
+			public boolean matches(String itemText) {
+				return itemText.trim().startsWith(prefix);
+			}
+
+			public String describe() {
+				return "with label starting with " + prefix;
+			}
+		}).getItem();
+	}
+
+	private static Node walk(SWTBotTree tree, long timeOut, String[] path, TextMatcher target) {
+		TreeSnapshot snapshot = create(tree, null);
+		long limit = Math.max(timeOut, SWTBotPreferences.TIMEOUT);
+		try {
+			Node node = snapshot.root;
+			if (path != null) {
+				for (final String segment : path) {
+					node = snapshot.awaitChild(node, new TextMatcher() {
+						public boolean matches(String text) {
+							return text.equals(segment);
+						}
+
+						public String describe() {
+							return segment;
+						}
+					}, limit);
+				}
+			}
+			return snapshot.awaitChild(node, target, limit);
+		} finally {
+			snapshot.dispose();
+		}
+	}
+
+	private static TreeSnapshot create(final SWTBotTree tree, final SWTBotTreeItem parent) {
+		return syncExec(new Result<TreeSnapshot>() {
+			public TreeSnapshot run() {
+				TreeSnapshot snapshot = new TreeSnapshot(tree.widget, parent == null ? null : parent.widget);
+				for (int type : TreeEvents.TYPES) {
+					tree.widget.addListener(type, snapshot.events);
+				}
+				return snapshot;
+			}
+		});
+	}
+
+	private void dispose() {
+		syncExec(new VoidResult() {
+			public void run() {
+				if (!tree.isDisposed()) {
+					for (int type : TreeEvents.TYPES) {
+						tree.removeListener(type, events);
+					}
+				}
+			}
+		});
+	}
+
+	/**
+	 * expands node (unless it is the root) and waits until it has matching
+	 * child
+	 */
+	private Node awaitChild(final Node node, final TextMatcher matcher, long timeOut) {
+		long deadline = System.currentTimeMillis() + timeOut;
+		while (true) {
+			final int seen = events.getCount();
+			Node child = syncExec(new Result<Node>() {
+				public Node run() {
+					captureChildren(node, true);
+					for (Node candidate : node.children) {
+						if (matcher.matches(candidate.text)) {
+							return candidate;
+						}
+					}
+					return null;
+				}
+			});
+			if (child != null) {
+				return child;
+			}
+			long remaining = deadline - System.currentTimeMillis();
+			if (remaining <= 0) {
+				throw new WidgetNotFoundException("Unable to find Tree Item " + matcher.describe() + " under "
+						+ (node.path.isEmpty() ? "tree root" : node.path));
+			}
+			events.await(seen, Math.min(remaining, EVENT_SLICE));
+		}
+	}
+
+	/**
+	 * captures node and its subtree, nodes whose children are not known yet
+	 * are added to pending, has to be called in UI thread
+	 */
+	private void captureSubtree(Node node, boolean expand, List<Node> pending) {
+		if (!captureChildren(node, expand)) {
+			pending.add(node);
+		}
+		for (Node child : node.children) {
+			captureSubtree(child, expand, pending);
+		}
+	}
+
+	/**
+	 * captures children of node, returns false if node is expanded and its
+	 * children are not known yet, has to be called in UI thread
+	 */
+	private boolean captureChildren(Node node, boolean expand) {
+		node.children.clear();
+		TreeItem[] items;
+		if (node.item == null) {
+			if (tree.isDisposed()) {
+				return true;
+			}
+			items = tree.getItems();
+		} else {
+			if (node.item.isDisposed()) {
+				return true;
+			}
+			if (expand && node.item.getItemCount() > 0 && !node.item.getExpanded()) {
+				expand(node.item);
+			}
+			node.expanded = node.item.getExpanded();
+			items = node.item.getItems();
+		}
+		boolean known = true;
+		for (TreeItem item : items) {
+			if (isPlaceholder(item)) {
+				known &= !node.expanded;
+			} else if (item.getText().length() > 0) {
+				node.children.add(new Node(node, item));
+			}
+		}
+		return known;
+	}
+
+	/**
+	 * expands item the way user does, listeners populate its children
+	 */
+	private static void expand(TreeItem item) {
+		Event event = new Event();
+		event.item = item;
+		event.widget = item.getParent();
+		event.display = item.getDisplay();
+		item.getParent().notifyListeners(SWT.Expand, event);
+		if (!item.isDisposed()) {
+			item.setExpanded(true);
+		}
+	}
+
+	private static boolean isPlaceholder(TreeItem item) {
+		String text = item.getText();
+		return (text.length() == 0 && item.getData() == null) || "Pending...".equals(text)
+				|| "Loading...".equals(text);
+	}
+
+	private void buildIndex(Node node) {
+		if (!index.containsKey(node.path)) {
+			index.put(node.path, node);
+		}
+		for (Node child : node.children) {
+			buildIndex(child);
+		}
+	}
+
+	/**
+	 * Returns captured node on path from the tree root or null if it was not
+	 * captured
+	 */
+	public Node getNode(String... path) {
+		return index.get(Arrays.asList(path));
+	}
+
+	/**
+	 * Returns captured item on path from the tree root
+	 */
+	public SWTBotTreeItem getItem(String... path) {
+		Node node = getNode(path);
+		if (node == null) {
+			throw new WidgetNotFoundException("Unable to find Tree Item " + Arrays.toString(path));
+		}
+		return node.getItem();
+	}
+
+	/**
+	 * Returns first captured child of item on parent path with text (trimmed)
+	 * starting with prefix
+	 */
+	public SWTBotTreeItem getItemStartsWith(String prefix, String... parentPath) {
+		Node parent = getNode(parentPath);
+		if (parent != null) {
+			for (Node child : parent.children) {
+				if (child.text.trim().startsWith(prefix)) {
+					return child.getItem();
+				}
+			}
+		}
+		throw new WidgetNotFoundException("Unable to find Tree Item with label starting with " + prefix);
+	}
+
+	/**
+	 * Returns all captured nodes under the snapshot root in tree order
+	 */
+	public List<Node> getNodes() {
+		List<Node> nodes = new ArrayList<Node>();
+		addNodes(root, nodes);
+		return nodes;
+	}
+
+	private static void addNodes(Node node, List<Node> nodes) {
+		for (Node child : node.children) {
+			nodes.add(child);
+			addNodes(child, nodes);
+		}
+	}
+
+	/**
+	 * Returns all captured items under the snapshot root in tree order
+	 */
+	public List<SWTBotTreeItem> getItems() {
+		List<SWTBotTreeItem> items = new ArrayList<SWTBotTreeItem>();
+		for (Node node : getNodes()) {
+			items.add(node.getItem());
+		}
+		return items;
+	}
+
+	public Node getRoot() {
+		return root;
+	}
+}
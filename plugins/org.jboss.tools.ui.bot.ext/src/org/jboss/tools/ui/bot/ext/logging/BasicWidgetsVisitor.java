@@ -1,7 +1,5 @@
 package org.jboss.tools.ui.bot.ext.logging;
 
-import javax.swing.table.TableColumn;
-
 import org.eclipse.swt.browser.Browser;
 import org.eclipse.swt.custom.CCombo;
 import org.eclipse.swt.custom.CLabel;
@@ -34,7 +32,8 @@ import org.eclipse.swt.widgets.Widget;
 import org.eclipse.ui.forms.widgets.Hyperlink;
 
 /**
- * Distinguishes basic types that are known for SWTBot.  
+ * Distinguishes basic types that are known for SWTBot, visit methods get
+ * snapshot of the widget.
  * 
  * @author Lucia Jelinkova
  *
@@ -42,129 +41,130 @@ import org.eclipse.ui.forms.widgets.Hyperlink;
 public abstract class BasicWidgetsVisitor implements WidgetVisitor {
 
 	@Override
-	public void visit(Widget widget) {
+	public void visit(WidgetSnapshot snapshot) {
+		Widget widget = snapshot.getWidget();
 		if (widget instanceof Button){
-			visitButton((Button) widget);
+			visitButton(snapshot);
 		} else if (widget instanceof Browser){
-			visitBrowser((Browser) widget);
+			visitBrowser(snapshot);
 		} else if (widget instanceof CCombo){
-			visitCCombo((CCombo) widget);
+			visitCCombo(snapshot);
 		} else if (widget instanceof CLabel){
-			visitCLabel((CLabel) widget);
+			visitCLabel(snapshot);
 		} else if (widget instanceof Combo){
-			visitCombo((Combo) widget);
+			visitCombo(snapshot);
 		} else if (widget instanceof CTabItem){
-			visitCTabItem((CTabItem) widget);
+			visitCTabItem(snapshot);
 		} else if (widget instanceof DateTime){
-			visitDateTime((DateTime) widget);
+			visitDateTime(snapshot);
 		} else if (widget instanceof ExpandBar){
-			visitExpandBar((ExpandBar) widget);
+			visitExpandBar(snapshot);
 		} else if (widget instanceof ExpandItem){
-			visitExpandItem((ExpandItem) widget);
+			visitExpandItem(snapshot);
 		} else if (widget instanceof Label){
-			visitLabel((Label) widget);
+			visitLabel(snapshot);
 		} else if (widget instanceof Link){
-			visitLink((Link) widget);
+			visitLink(snapshot);
 		} else if (widget instanceof List){
-			visitList((List) widget);
+			visitList(snapshot);
 		} else if (widget instanceof Menu){
-			visitMenu((Menu) widget);
+			visitMenu(snapshot);
 		} else if (widget instanceof Scale){
-			visitScale((Scale) widget);
+			visitScale(snapshot);
 		} else if (widget instanceof Shell){
-			visitShell((Shell) widget);
+			visitShell(snapshot);
 		} else if (widget instanceof Slider){
-			visitSlider((Slider) widget);
+			visitSlider(snapshot);
 		} else if (widget instanceof Spinner){
-			visitSpinner((Spinner) widget);
+			visitSpinner(snapshot);
 		} else if (widget instanceof StyledText){
-			visitStyledText((StyledText) widget);
+			visitStyledText(snapshot);
 		} else if (widget instanceof TabItem){
-			visitTabItem((TabItem) widget);
+			visitTabItem(snapshot);
 		} else if (widget instanceof Table){
-			visitTable((Table) widget);
+			visitTable(snapshot);
 		} else if (widget instanceof TableItem){
-			visitTableItem((TableItem) widget);
+			visitTableItem(snapshot);
 		} else if (widget instanceof Text){
-			visitText((Text) widget);
+			visitText(snapshot);
 		} else if (widget instanceof ToolBar){
-			visitToolBar((ToolBar) widget);
+			visitToolBar(snapshot);
 		} else if (widget instanceof ToolItem){
-			visitToolItem((ToolItem) widget);
+			visitToolItem(snapshot);
 		} else if (widget instanceof Tray){
-			visitTray((Tray) widget);
+			visitTray(snapshot);
 		} else if (widget instanceof Tree){
-			visitTree((Tree) widget);
+			visitTree(snapshot);
 		} else if (widget instanceof TreeItem){
-			visitTreeItem((TreeItem) widget);
+			visitTreeItem(snapshot);
 		} else if (widget instanceof Hyperlink){
-			visitHyperLink((Hyperlink) widget);
+			visitHyperLink(snapshot);
 		} else if (widget instanceof Group){
-			visitGroup((Group) widget);
+			visitGroup(snapshot);
 		} else {
-			visitUnkownItem(widget);
+			visitUnkownItem(snapshot);
 		}
 	}
 
-	protected abstract void visitButton(Button widget);
+	protected abstract void visitButton(WidgetSnapshot widget);
 
-	protected abstract void visitBrowser(Browser widget);
+	protected abstract void visitBrowser(WidgetSnapshot widget);
 
-	protected abstract void visitCCombo(CCombo widget);
+	protected abstract void visitCCombo(WidgetSnapshot widget);
 
-	protected abstract void visitCLabel(CLabel widget);
+	protected abstract void visitCLabel(WidgetSnapshot widget);
 
-	protected abstract void visitCombo(Combo widget);
+	protected abstract void visitCombo(WidgetSnapshot widget);
 
-	protected abstract void visitCTabItem(CTabItem widget);
+	protected abstract void visitCTabItem(WidgetSnapshot widget);
 
-	protected abstract void visitDateTime(DateTime widget);
+	protected abstract void visitDateTime(WidgetSnapshot widget);
 
-	protected abstract void visitExpandBar(ExpandBar widget);
+	protected abstract void visitExpandBar(WidgetSnapshot widget);
 
-	protected abstract void visitExpandItem(ExpandItem widget);
+	protected abstract void visitExpandItem(WidgetSnapshot widget);
 
-	protected abstract void visitLabel(Label widget);
+	protected abstract void visitLabel(WidgetSnapshot widget);
 
-	protected abstract void visitLink(Link widget);
+	protected abstract void visitLink(WidgetSnapshot widget);
 
-	protected abstract void visitList(List widget);
+	protected abstract void visitList(WidgetSnapshot widget);
 
-	protected abstract void visitMenu(Menu widget);
+	protected abstract void visitMenu(WidgetSnapshot widget);
 
-	protected abstract void visitScale(Scale widget);
+	protected abstract void visitScale(WidgetSnapshot widget);
 
-	protected abstract void visitShell(Shell widget);
+	protected abstract void visitShell(WidgetSnapshot widget);
 
-	protected abstract void visitSlider(Slider widget);
+	protected abstract void visitSlider(WidgetSnapshot widget);
 
-	protected abstract void visitSpinner(Spinner widget);
+	protected abstract void visitSpinner(WidgetSnapshot widget);
 
-	protected abstract void visitStyledText(StyledText widget);
+	protected abstract void visitStyledText(WidgetSnapshot widget);
 
-	protected abstract void visitTabItem(TabItem widget);
+	protected abstract void visitTabItem(WidgetSnapshot widget);
 
-	protected abstract void visitTable(Table widget);
+	protected abstract void visitTable(WidgetSnapshot widget);
 
-	protected abstract void visitTableColumn(TableColumn widget);
+	protected abstract void visitTableColumn(WidgetSnapshot widget);
 
-	protected abstract void visitTableItem(TableItem widget);
+	protected abstract void visitTableItem(WidgetSnapshot widget);
 
-	protected abstract void visitText(Text widget);
+	protected abstract void visitText(WidgetSnapshot widget);
 
-	protected abstract void visitToolBar(ToolBar widget);
+	protected abstract void visitToolBar(WidgetSnapshot widget);
 	
-	protected abstract void visitToolItem(ToolItem widget);
+	protected abstract void visitToolItem(WidgetSnapshot widget);
 
-	protected abstract void visitTray(Tray widget);
+	protected abstract void visitTray(WidgetSnapshot widget);
 
-	protected abstract void visitTree(Tree widget);
+	protected abstract void visitTree(WidgetSnapshot widget);
 
-	protected abstract void visitTreeItem(TreeItem widget);
+	protected abstract void visitTreeItem(WidgetSnapshot widget);
 	
-	protected abstract void visitHyperLink(Hyperlink widget);
+	protected abstract void visitHyperLink(WidgetSnapshot widget);
 	
-	protected abstract void visitGroup(Group widget);
+	protected abstract void visitGroup(WidgetSnapshot widget);
 
-	protected abstract void visitUnkownItem(Widget widget);
+	protected abstract void visitUnkownItem(WidgetSnapshot widget);
 }
@@ -1,62 +1,28 @@
 package org.jboss.tools.ui.bot.ext.logging;
 
-import javax.swing.table.TableColumn;
-
 import org.apache.log4j.Logger;
-import org.eclipse.swt.browser.Browser;
-import org.eclipse.swt.custom.CCombo;
-import org.eclipse.swt.custom.CLabel;
-import org.eclipse.swt.custom.CTabItem;
-import org.eclipse.swt.custom.StyledText;
-import org.eclipse.swt.widgets.Button;
-import org.eclipse.swt.widgets.Combo;
-import org.eclipse.swt.widgets.DateTime;
-import org.eclipse.swt.widgets.ExpandBar;
-import org.eclipse.swt.widgets.ExpandItem;
-import org.eclipse.swt.widgets.Group;
-import org.eclipse.swt.widgets.Label;
-import org.eclipse.swt.widgets.Link;
-import org.eclipse.swt.widgets.List;
-import org.eclipse.swt.widgets.Menu;
-import org.eclipse.swt.widgets.Scale;
-import org.eclipse.swt.widgets.Shell;
-import org.eclipse.swt.widgets.Slider;
-import org.eclipse.swt.widgets.Spinner;
-import org.eclipse.swt.widgets.TabItem;
-import org.eclipse.swt.widgets.Table;
-import org.eclipse.swt.widgets.TableItem;
-import org.eclipse.swt.widgets.Text;
-import org.eclipse.swt.widgets.ToolBar;
-import org.eclipse.swt.widgets.ToolItem;
-import org.eclipse.swt.widgets.Tray;
-import org.eclipse.swt.widgets.Tree;
-import org.eclipse.swt.widgets.TreeItem;
-import org.eclipse.swt.widgets.Widget;
-import org.eclipse.swtbot.swt.finder.widgets.SWTBotTree;
-import org.eclipse.swtbot.swt.finder.widgets.SWTBotTreeItem;
-import org.eclipse.ui.forms.widgets.Hyperlink;
 
 class LogWidgetsVisitor extends BasicWidgetsVisitor {
 
 	private Logger log = Logger.getLogger(LogWidgetsVisitor.class);
 	
 	@Override
-	protected void visitButton(Button widget) {
+	protected void visitButton(WidgetSnapshot widget) {
 		log.info(widget);
 	}
 
 	@Override
-	protected void visitBrowser(Browser widget) {
+	protected void visitBrowser(WidgetSnapshot widget) {
 		log.info(widget);
 	}
 
 	@Override
-	protected void visitCCombo(CCombo widget) {
+	protected void visitCCombo(WidgetSnapshot widget) {
 		log.info(widget);
 	}
 
 	@Override
-	protected void visitCLabel(CLabel widget) {
+	protected void visitCLabel(WidgetSnapshot widget) {
 		StringBuilder text = new StringBuilder();
 		text.append("CLabel {");
 		text.append(widget.getText());
@@ -65,7 +31,7 @@ class LogWidgetsVisitor extends BasicWidgetsVisitor {
 	}
 
 	@Override
-	protected void visitCombo(Combo widget) {
+	protected void visitCombo(WidgetSnapshot widget) {
 		StringBuilder text = new StringBuilder();
 		text.append("Combo {");
 		text.append("selected = '");
@@ -81,92 +47,92 @@ class LogWidgetsVisitor extends BasicWidgetsVisitor {
 	}
 
 	@Override
-	protected void visitCTabItem(CTabItem widget) {
+	protected void visitCTabItem(WidgetSnapshot widget) {
 		log.info(widget);
 	}
 
 	@Override
-	protected void visitDateTime(DateTime widget) {
+	protected void visitDateTime(WidgetSnapshot widget) {
 		log.info(widget);
 	}
 
 	@Override
-	protected void visitExpandBar(ExpandBar widget) {
+	protected void visitExpandBar(WidgetSnapshot widget) {
 		log.info(widget);
 	}
 
 	@Override
-	protected void visitExpandItem(ExpandItem widget) {
+	protected void visitExpandItem(WidgetSnapshot widget) {
 		log.info(widget);
 	}
 
 	@Override
-	protected void visitLabel(Label widget) {
+	protected void visitLabel(WidgetSnapshot widget) {
 		log.info(widget);
 	}
 
 	@Override
-	protected void visitLink(Link widget) {
+	protected void visitLink(WidgetSnapshot widget) {
 		log.info(widget);
 	}
 
 	@Override
-	protected void visitList(List widget) {
+	protected void visitList(WidgetSnapshot widget) {
 		log.info(widget);
 	}
 
 	@Override
-	protected void visitMenu(Menu widget) {
+	protected void visitMenu(WidgetSnapshot widget) {
 		log.info(widget);
 	}
 
 	@Override
-	protected void visitScale(Scale widget) {
+	protected void visitScale(WidgetSnapshot widget) {
 		log.info(widget);
 	}
 
 	@Override
-	protected void visitShell(Shell widget) {
+	protected void visitShell(WidgetSnapshot widget) {
 		log.info(widget);
 	}
 
 	@Override
-	protected void visitSlider(Slider widget) {
+	protected void visitSlider(WidgetSnapshot widget) {
 		log.info(widget);
 	}
 
 	@Override
-	protected void visitSpinner(Spinner widget) {
+	protected void visitSpinner(WidgetSnapshot widget) {
 		log.info(widget);
 	}
 
 	@Override
-	protected void visitStyledText(StyledText widget) {
+	protected void visitStyledText(WidgetSnapshot widget) {
 		log.info(widget);
 	}
 
 	@Override
-	protected void visitTabItem(TabItem widget) {
+	protected void visitTabItem(WidgetSnapshot widget) {
 		log.info(widget);
 	}
 
 	@Override
-	protected void visitTable(Table widget) {
+	protected void visitTable(WidgetSnapshot widget) {
 		log.info(widget);
 	}
 
 	@Override
-	protected void visitTableColumn(TableColumn widget) {
+	protected void visitTableColumn(WidgetSnapshot widget) {
 		log.info(widget);
 	}
 
 	@Override
-	protected void visitTableItem(TableItem widget) {
+	protected void visitTableItem(WidgetSnapshot widget) {
 		log.info(widget);
 	}
 
 	@Override
-	protected void visitText(Text widget) {
+	protected void visitText(WidgetSnapshot widget) {
 		StringBuilder text = new StringBuilder();
 		text.append("Text {");
 		text.append(widget.getText());
@@ -175,7 +141,7 @@ class LogWidgetsVisitor extends BasicWidgetsVisitor {
 	}
 
 	@Override
-	protected void visitToolBar(ToolBar widget) {
+	protected void visitToolBar(WidgetSnapshot widget) {
 		StringBuilder text = new StringBuilder();
 		text.append("Toolbar {");
 		text.append(widget.getRowCount() + " row(s), ");
@@ -185,7 +151,7 @@ class LogWidgetsVisitor extends BasicWidgetsVisitor {
 	}
 
 	@Override
-	protected void visitToolItem(ToolItem widget) {
+	protected void visitToolItem(WidgetSnapshot widget) {
 		StringBuilder text = new StringBuilder();
 		text.append("Toolitem {");
 		text.append("text = '" + widget.getText() + "', ");
@@ -195,19 +161,19 @@ class LogWidgetsVisitor extends BasicWidgetsVisitor {
 	}
 	
 	@Override
-	protected void visitTray(Tray widget) {
+	protected void visitTray(WidgetSnapshot widget) {
 		log.info(widget);
 	}
 
 	@Override
-	protected void visitTree(Tree widget) {
+	protected void visitTree(WidgetSnapshot widget) {
 		StringBuilder text = new StringBuilder();
 		text.append("Tree {");
 		text.append(widget.getItemCount() + " item(s), ");
 		text.append(widget.getColumnCount() + " columns(s), ");
 		text.append("items = {");
-		for (SWTBotTreeItem item : new SWTBotTree(widget).getAllItems()){
-			text.append(item.getText() + ", ");
+		for (String item : widget.getItems()){
+			text.append(item + ", ");
 		}
 		text.append("}");
 		text.append("}");
@@ -215,12 +181,12 @@ class LogWidgetsVisitor extends BasicWidgetsVisitor {
 	}
 
 	@Override
-	protected void visitTreeItem(TreeItem widget) {
+	protected void visitTreeItem(WidgetSnapshot widget) {
 		log.info(widget);
 	}
 	
 	@Override
-	protected void visitHyperLink(Hyperlink widget) {
+	protected void visitHyperLink(WidgetSnapshot widget) {
 		StringBuilder text = new StringBuilder();
 		text.append("Hyperlink {");
 		text.append("text = '" + widget.getText() + "'");
@@ -229,12 +195,12 @@ class LogWidgetsVisitor extends BasicWidgetsVisitor {
 	}
 	
 	@Override
-	protected void visitGroup(Group widget) {
+	protected void visitGroup(WidgetSnapshot widget) {
 		log.info(widget);
 	}
 
 	@Override
-	protected void visitUnkownItem(Widget widget) {
+	protected void visitUnkownItem(WidgetSnapshot widget) {
 		log.info("Unknown: " + widget);
 	}
 }
\ No newline at end of file
@@ -1,9 +1,7 @@
 package org.jboss.tools.ui.bot.ext.logging;
 
-import org.eclipse.swt.widgets.Widget;
-
 /**
- * Wraps {@link Widget} so that it can be used
+ * Wraps {@link WidgetSnapshot} so that it can be used
  * in Visitor pattern. 
  * 
  * @author Lucia Jelinkova
@@ -11,9 +9,9 @@ import org.eclipse.swt.widgets.Widget;
  */
 public class VisitableWidget {
 	
-	private Widget widget;
+	private WidgetSnapshot widget;
 	
-	public VisitableWidget(Widget w) {
+	public VisitableWidget(WidgetSnapshot w) {
 		this.widget = w;
 	}
 
@@ -0,0 +1,186 @@
+package org.jboss.tools.ui.bot.ext.logging;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.swt.custom.CCombo;
+import org.eclipse.swt.widgets.Combo;
+import org.eclipse.swt.widgets.ToolBar;
+import org.eclipse.swt.widgets.Tree;
+import org.eclipse.swt.widgets.TreeItem;
+import org.eclipse.swt.widgets.Widget;
+import org.jboss.tools.ui.bot.ext.SWTUtilExt;
+
+/**
+ * Immutable snapshot of a widget and its descendants. All properties are read
+ * when the snapshot is created (in UI thread), so that the snapshot can be
+ * read later from any thread without touching the Display.
+ *
+ * Snapshots are created by {@link WidgetsFinder#snapshot()}.
+ */
+public final class WidgetSnapshot {
+
+	private final Widget widget;
+
+	private final String className;
+
+	private final String text;
+
+	private final String toolTipText;
+
+	private final String description;
+
+	private final List<String> items;
+
+	private final int itemCount;
+
+	private final int rowCount;
+
+	private final int columnCount;
+
+	private final boolean matching;
+
+	private final List<WidgetSnapshot> children;
+
+	/**
+	 * Reads properties of the widget, must be called in UI thread.
+	 */
+	WidgetSnapshot(Widget widget, boolean matching, List<WidgetSnapshot> children) {
+		this.widget = widget;
+		this.className = widget.getClass().getSimpleName();
+		this.text = SWTUtilExt.invokeMethod(widget, "getText");
+		this.toolTipText = SWTUtilExt.invokeMethod(widget, "getToolTipText");
+		String toString;
+		try {
+			toString = widget.toString();
+		} catch (RuntimeException e) {
+			toString = "<null>";
+		}
+		this.description = toString;
+		List<String> items = Collections.emptyList();
+		int itemCount = -1;
+		int rowCount = -1;
+		int columnCount = -1;
+		if (widget instanceof Combo) {
+			items = Arrays.asList(((Combo) widget).getItems());
+		} else if (widget instanceof CCombo) {
+			items = Arrays.asList(((CCombo) widget).getItems());
+		} else if (widget instanceof org.eclipse.swt.widgets.List) {
+			items = Arrays.asList(((org.eclipse.swt.widgets.List) widget).getItems());
+		} else if (widget instanceof Tree) {
+			Tree tree = (Tree) widget;
+			items = new ArrayList<String>();
+			for (TreeItem item : tree.getItems()) {
+				items.add(item.getText());
+			}
+			itemCount = items.size();
+			columnCount = tree.getColumnCount();
+		} else if (widget instanceof ToolBar) {
+			ToolBar toolBar = (ToolBar) widget;
+			itemCount = toolBar.getItemCount();
+			rowCount = toolBar.getRowCount();
+		}
+		this.items = Collections.unmodifiableList(items);
+		this.itemCount = itemCount;
+		this.rowCount = rowCount;
+		this.columnCount = columnCount;
+		this.matching = matching;
+		this.children = Collections.unmodifiableList(children);
+	}
+
+	/**
+	 * Returns the widget, its methods can be called in UI thread only.
+	 */
+	public Widget getWidget() {
+		return widget;
+	}
+
+	public String getClassName() {
+		return className;
+	}
+
+	/**
+	 * Returns the widget text or "&lt;null&gt;" if widget has no text
+	 */
+	public String getText() {
+		return text;
+	}
+
+	/**
+	 * Returns the widget tooltip or "&lt;null&gt;" if widget has no tooltip
+	 */
+	public String getToolTipText() {
+		return toolTipText;
+	}
+
+	public String getDescription() {
+		return description;
+	}
+
+	/**
+	 * Returns texts of items of combo, list or top level items of tree, empty
+	 * list for other widgets
+	 */
+	public List<String> getItems() {
+		return items;
+	}
+
+	/**
+	 * Returns item count of tree or toolbar, -1 for other widgets
+	 */
+	public int getItemCount() {
+		return itemCount;
+	}
+
+	/**
+	 * Returns row count of toolbar, -1 for other widgets
+	 */
+	public int getRowCount() {
+		return rowCount;
+	}
+
+	/**
+	 * Returns column count of tree, -1 for other widgets
+	 */
+	public int getColumnCount() {
+		return columnCount;
+	}
+
+	/**
+	 * Returns true if the widget met matcher condition of the
+	 * {@link WidgetsFinder} (the root widget always does).
+	 */
+	public boolean isMatching() {
+		return matching;
+	}
+
+	public List<WidgetSnapshot> getChildren() {
+		return children;
+	}
+
+	/**
+	 * Returns this snapshot and all descendants meeting matcher condition in
+	 * the depth-first order.
+	 */
+	public List<WidgetSnapshot> getMatchingWidgets() {
+		List<WidgetSnapshot> result = new ArrayList<WidgetSnapshot>();
+		collectMatching(this, result);
+		return result;
+	}
+
+	private static void collectMatching(WidgetSnapshot snapshot, List<WidgetSnapshot> result) {
+		if (snapshot.matching) {
+			result.add(snapshot);
+		}
+		for (WidgetSnapshot child : snapshot.children) {
+			collectMatching(child, result);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return description;
+	}
+}
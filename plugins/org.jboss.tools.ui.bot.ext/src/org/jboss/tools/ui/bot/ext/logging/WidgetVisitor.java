@@ -1,15 +1,14 @@
 package org.jboss.tools.ui.bot.ext.logging;
 
-import org.eclipse.swt.widgets.Widget;
-
 /**
- * Visitor for the {@link Widget} objects.
+ * Visitor for the {@link WidgetSnapshot} objects, widget properties are
+ * already read so visitor does not need to run in UI thread.
  * 
  * @author Lucia Jelinkova
  *
  */
 public interface WidgetVisitor {
 
-	void visit(Widget widget);
+	void visit(WidgetSnapshot widget);
 	
 }
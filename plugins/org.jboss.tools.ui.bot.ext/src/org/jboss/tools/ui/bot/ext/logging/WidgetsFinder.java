@@ -4,12 +4,16 @@ import static org.eclipse.swtbot.swt.finder.finders.UIThreadRunnable.syncExec;
 import static org.eclipse.swtbot.swt.finder.matchers.WidgetMatcherFactory.widgetOfType;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
 
-import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Widget;
 import org.eclipse.swtbot.swt.finder.SWTBot;
-import org.eclipse.swtbot.swt.finder.results.VoidResult;
+import org.eclipse.swtbot.swt.finder.resolvers.ChildrenResolver;
+import org.eclipse.swtbot.swt.finder.resolvers.DefaultChildrenResolver;
+import org.eclipse.swtbot.swt.finder.results.Result;
 import org.hamcrest.Matcher;
 
 /**
@@ -28,7 +32,7 @@ public class WidgetsFinder {
 	
 	private WidgetVisitor visitor;
 	
-	private SWTBot bot;
+	private final ChildrenResolver childrenResolver = new DefaultChildrenResolver();
 	
 	/**
 	 * Finds all widgets for the active shell. 
@@ -46,6 +50,17 @@ public class WidgetsFinder {
 		this(null, matcher, visitor);
 	}
 
+	/**
+	 * Finds all widgets starting from the specified widget meeting
+	 * specified matcher condition, no visitor is used (see {@link #snapshot()}). 
+	 * 
+	 * @param widget
+	 * @param matcher
+	 */
+	public WidgetsFinder(Widget widget, Matcher<? extends Widget> matcher) {
+		this(widget, matcher, null);
+	}
+
 	/**
 	 * Finds all widgets starting from the specified widget meeting
 	 * specified matcher condition. 
@@ -60,36 +75,54 @@ public class WidgetsFinder {
 		this.visitor = visitor;
 	}
 
+	/**
+	 * Visits all found widgets. Widgets are read during single pass in the UI
+	 * thread, visitor gets their snapshots afterwards.
+	 */
 	public void find() {
-		syncExec(new VoidResult() {
+		for (WidgetSnapshot snapshot : snapshot().getMatchingWidgets()){
+			visitWidget(snapshot);
+		}
+	}
+
+	/**
+	 * Creates immutable snapshot of the widget tree starting from the parent
+	 * widget. The snapshot can be read from non-UI thread.
+	 * 
+	 * @return snapshot of parent widget
+	 */
+	public WidgetSnapshot snapshot() {
+		return syncExec(new Result<WidgetSnapshot>() {
 
 			@Override
-			public void run() {
-				findWidgetRecursive(getParentWidget(), new ArrayList<Widget>());
+			public WidgetSnapshot run() {
+				return capture();
 			}
 		});
 	}
 
-	private void findWidgetRecursive(Widget widget, ArrayList<Widget> visited){
-		
-		if (visited.contains(widget)){
-			return;
-		} 
+	private WidgetSnapshot capture() {
+		Set<Widget> visited = Collections.newSetFromMap(new IdentityHashMap<Widget, Boolean>());
+		return captureRecursive(getParentWidget(), visited, true);
+	}
 
-		visited.add(widget);
-		visitWidget(widget);
-		
-		if (widget instanceof Composite && ((Composite) widget).getChildren().length == 0){
-			return;
+	private WidgetSnapshot captureRecursive(Widget widget, Set<Widget> visited, boolean root){
+		if (!visited.add(widget)){
+			return null;
 		}
-		
-		List<? extends Widget> children = getBot().widgets(getMatcher(), widget);
-		for (Widget child : children){
-			findWidgetRecursive(child, visited);
+		List<WidgetSnapshot> children = new ArrayList<WidgetSnapshot>();
+		if (childrenResolver.hasChildren(widget)){
+			for (Widget child : childrenResolver.getChildren(widget)){
+				WidgetSnapshot snapshot = captureRecursive(child, visited, false);
+				if (snapshot != null){
+					children.add(snapshot);
+				}
+			}
 		}
+		return new WidgetSnapshot(widget, root || getMatcher().matches(widget), children);
 	}
 	
-	private void visitWidget(Widget widget){
+	private void visitWidget(WidgetSnapshot widget){
 		new VisitableWidget(widget).accept(visitor);
 	}
 	
@@ -108,11 +141,4 @@ public class WidgetsFinder {
 		return parentWidget;
 	}
 	
-	private SWTBot getBot(){
-		if (bot == null){
-			// create bot for parent widget
-			bot = new SWTBot(getParentWidget());
-		}
-		return bot;
-	}
 }
@@ -16,6 +16,7 @@ import org.eclipse.swt.SWT;
 import org.eclipse.swt.widgets.Event;
 import org.eclipse.swt.widgets.Table;
 import org.eclipse.swtbot.swt.finder.SWTBot;
+import org.eclipse.swtbot.swt.finder.utils.SWTBotPreferences;
 import org.eclipse.swtbot.swt.finder.exceptions.WidgetNotFoundException;
 import org.eclipse.swtbot.swt.finder.finders.UIThreadRunnable;
 import org.eclipse.swtbot.swt.finder.results.Result;
@@ -53,6 +54,8 @@ public class ContentAssistBot {
 	Logger log = Logger.getLogger(ContentAssistBot.class);
 	SWTBotEditorExt editor;
 	SWTBot bot;
+	/** proposals captured by the last invocation, null in popup mode */
+	ContentAssistCapture lastCapture;
 
 	// ------------------------------------------------------------
 	// Constructor
@@ -112,13 +115,27 @@ public class ContentAssistBot {
 	public List<String> getProposalList() {
 		List<String> result = null;
 		SWTBotShell shell = openProposalList();
-		SWTBotTable table = getProposalTable(shell);
-		result = getTableItems(table);
+		if (lastCapture != null && lastCapture.isCaptured()) {
+			result = new ArrayList<String>(lastCapture.getProposals());
+		} else {
+			SWTBotTable table = getProposalTable(shell);
+			result = getTableItems(table);
+		}
 		shell.close();
 
 		return result;
 	}
 
+	/**
+	 * Returns time (ms) the last content assist took to show its proposals or
+	 * -1 if proposals were not captured
+	 * 
+	 * @see ContentAssistCapture
+	 */
+	public long getLastComputationTime() {
+		return lastCapture == null ? -1 : lastCapture.getComputationTime();
+	}
+
 	/**
 	 * Logs proposal list contents, when Content Assist window is already opened
 	 * 
@@ -226,12 +243,21 @@ public class ContentAssistBot {
 		 */
 		final IAction action = textEditor.getAction(actionId);
 		SWTBotShell[] originalShells = bot.shells();
-		syncExec(new VoidResult() {
-			public void run() {
-				action.run();
-			}
-		});
-		bot.waitUntil(new NewShellCreated(originalShells));
+		lastCapture = null;
+		if (ContentAssistCapture.isEnabled()) {
+			lastCapture = ContentAssistCapture.capture(textEditor, action, SWTBotPreferences.TIMEOUT);
+		}
+		if (lastCapture == null) {
+			syncExec(new VoidResult() {
+				public void run() {
+					action.run();
+				}
+			});
+		}
+		// popup shell is the fallback when proposals were not captured
+		if (lastCapture == null || !lastCapture.isCaptured()) {
+			bot.waitUntil(new NewShellCreated(originalShells));
+		}
 	}
 	
 	private static class NewShellCreated implements ICondition {
@@ -300,6 +326,9 @@ public class ContentAssistBot {
 	private SWTBotShell openProposalList() {
 		SWTBotShell[] shells1 = bot.shells();
 		invokeContentAssist();
+		if (lastCapture != null && lastCapture.getShell() != null) {
+			return new SWTBotShell(lastCapture.getShell());
+		}
 		SWTBotShell[] shells2 = bot.shells();
 		SWTBotShell ccShell = getContentAssistShell(shells1, shells2);
 		if (ccShell == null) {
@@ -0,0 +1,233 @@
+package org.jboss.tools.ui.bot.ext.parts;
+
+import static org.eclipse.swtbot.swt.finder.finders.UIThreadRunnable.syncExec;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.Logger;
+import org.eclipse.jface.action.IAction;
+import org.eclipse.jface.text.ITextOperationTarget;
+import org.eclipse.jface.text.contentassist.ContentAssistEvent;
+import org.eclipse.jface.text.contentassist.ContentAssistant;
+import org.eclipse.jface.text.contentassist.ICompletionListener;
+import org.eclipse.jface.text.contentassist.ICompletionProposal;
+import org.eclipse.jface.text.contentassist.ICompletionProposalExtension6;
+import org.eclipse.jface.text.contentassist.IContentAssistant;
+import org.eclipse.jface.text.source.SourceViewer;
+import org.eclipse.jface.viewers.StyledString;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.swtbot.swt.finder.results.Result;
+import org.eclipse.swtbot.swt.finder.results.VoidResult;
+import org.eclipse.ui.texteditor.ITextEditor;
+import org.jboss.tools.ui.bot.ext.helper.ReflectionsHelper;
+
+/**
+ * Captures content assist proposals computed by editor's content assistant.
+ * Completion listener is registered before content assist is invoked and
+ * proposals shown in the popup are read from the proposal popup model as soon
+ * as the first proposal is selected, so proposal table does not have to be
+ * found and read. Time from invocation until proposals are shown is recorded.
+ *
+ * Capture is used unless -Dswtbotext.contentassist.capture=popup is set, when
+ * editor has no {@link ContentAssistant} or popup internals cannot be read,
+ * proposals are not captured and callers fall back to the popup shell.
+ */
+public class ContentAssistCapture implements ICompletionListener {
+
+	public static final String CAPTURE_MODE = "swtbotext.contentassist.capture";
+
+	private static final Logger log = Logger.getLogger(ContentAssistCapture.class);
+
+	private final ContentAssistant assistant;
+	private final CountDownLatch done = new CountDownLatch(1);
+	private long invoked;
+	private long computationTime = -1;
+	private boolean sessionStarted;
+	private List<String> proposals;
+	private Shell shell;
+
+	private ContentAssistCapture(ContentAssistant assistant) {
+		this.assistant = assistant;
+	}
+
+	/**
+	 * Returns true unless popup mode is set
+	 */
+	public static boolean isEnabled() {
+		return !"popup".equalsIgnoreCase(System.getProperty(CAPTURE_MODE, "model"));
+	}
+
+	/**
+	 * Runs content assist action and captures proposals shown by it
+	 *
+	 * @param textEditor
+	 *            editor the action belongs to
+	 * @param action
+	 *            content assist action
+	 * @param timeOut
+	 *            maximum time (ms) to wait for proposals
+	 * @return capture, {@link #isCaptured()} returns false when proposals
+	 *         were not captured; null if editor has no content assistant and
+	 *         action was not run
+	 */
+	public static ContentAssistCapture capture(final ITextEditor textEditor, final IAction action, long timeOut) {
+		final ContentAssistant assistant = syncExec(new Result<ContentAssistant>() {
+			public ContentAssistant run() {
+				return getContentAssistant(textEditor);
+			}
+		});
+		if (assistant == null) {
+			return null;
+		}
+		final ContentAssistCapture capture = new ContentAssistCapture(assistant);
+		syncExec(new VoidResult() {
+			public void run() {
+				assistant.addCompletionListener(capture);
+				capture.invoked = System.nanoTime();
+				action.run();
+			}
+		});
+		try {
+			// proposals are usually computed synchronously by the action
+			if (capture.isSessionStarted()) {
+				capture.await(timeOut);
+			}
+		} finally {
+			syncExec(new VoidResult() {
+				public void run() {
+					assistant.removeCompletionListener(capture);
+				}
+			});
+		}
+		if (capture.isCaptured()) {
+			log.info("Content assist computed " + capture.getProposals().size() + " proposal(s) in "
+					+ capture.getComputationTime() + " ms");
+		}
+		return capture;
+	}
+
+	/**
+	 * returns content assistant of editor's source viewer, has to be called in
+	 * UI thread
+	 */
+	private static ContentAssistant getContentAssistant(ITextEditor textEditor) {
+		if (textEditor == null) {
+			return null;
+		}
+		Object viewer = textEditor.getAdapter(ITextOperationTarget.class);
+		if (!(viewer instanceof SourceViewer)) {
+			return null;
+		}
+		try {
+			IContentAssistant assistant = ReflectionsHelper.getPrivateFieldValue(SourceViewer.class,
+					"fContentAssistant", viewer, IContentAssistant.class);
+			return assistant instanceof ContentAssistant ? (ContentAssistant) assistant : null;
+		} catch (Exception e) {
+			log.info("Unable to get content assistant: " + e);
+			return null;
+		}
+	}
+
+	public void assistSessionStarted(ContentAssistEvent event) {
+		synchronized (this) {
+			sessionStarted = true;
+		}
+	}
+
+	public void assistSessionEnded(ContentAssistEvent event) {
+		done.countDown();
+	}
+
+	public void selectionChanged(ICompletionProposal proposal, boolean smartToggle) {
+		if (done.getCount() > 0) {
+			capture();
+			done.countDown();
+		}
+	}
+
+	/**
+	 * reads proposals shown by popup, called in UI thread
+	 */
+	private void capture() {
+		long time = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - invoked);
+		try {
+			Object popup = ReflectionsHelper.getPrivateFieldValue(ContentAssistant.class, "fProposalPopup",
+					assistant, Object.class);
+			ICompletionProposal[] shown = ReflectionsHelper.getPrivateFieldValue(popup.getClass(),
+					"fFilteredProposals", popup, ICompletionProposal[].class);
+			Shell popupShell = ReflectionsHelper.getPrivateFieldValue(popup.getClass(), "fProposalShell", popup,
+					Shell.class);
+			List<String> labels = new ArrayList<String>();
+			if (shown != null) {
+				for (ICompletionProposal proposal : shown) {
+					labels.add(getLabel(proposal));
+				}
+			}
+			synchronized (this) {
+				proposals = labels;
+				shell = popupShell;
+				computationTime = time;
+			}
+		} catch (Exception e) {
+			log.info("Unable to capture content assist proposals: " + e);
+		}
+	}
+
+	/**
+	 * returns text of proposal as shown in proposal table
+	 */
+	private static String getLabel(ICompletionProposal proposal) {
+		if (proposal instanceof ICompletionProposalExtension6) {
+			StyledString label = ((ICompletionProposalExtension6) proposal).getStyledDisplayString();
+			if (label != null) {
+				return label.getString();
+			}
+		}
+		return proposal.getDisplayString();
+	}
+
+	private void await(long timeOut) {
+		try {
+			done.await(timeOut, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private synchronized boolean isSessionStarted() {
+		return sessionStarted;
+	}
+
+	/**
+	 * Returns true if proposals were captured
+	 */
+	public synchronized boolean isCaptured() {
+		return proposals != null;
+	}
+
+	/**
+	 * Returns labels of captured proposals in order they are shown
+	 */
+	public synchronized List<String> getProposals() {
+		return proposals == null ? null : Collections.unmodifiableList(proposals);
+	}
+
+	/**
+	 * Returns content assist popup shell or null if proposals were not captured
+	 */
+	public synchronized Shell getShell() {
+		return shell;
+	}
+
+	/**
+	 * Returns time (ms) from content assist invocation until proposals were
+	 * shown, -1 if proposals were not captured
+	 */
+	public synchronized long getComputationTime() {
+		return computationTime;
+	}
+}
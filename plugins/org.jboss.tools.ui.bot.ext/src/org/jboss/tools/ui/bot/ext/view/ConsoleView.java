@@ -14,6 +14,7 @@ import org.apache.log4j.Logger;
 import org.eclipse.swtbot.swt.finder.SWTBot;
 import org.eclipse.swtbot.swt.finder.exceptions.WidgetNotFoundException;
 import org.eclipse.swtbot.swt.finder.widgets.SWTBotToolbarButton;
+import org.jboss.tools.common.reddeer.console.ConsoleStream;
 import org.jboss.tools.ui.bot.ext.SWTBotFactory;
 import org.jboss.tools.ui.bot.ext.SWTJBTExt;
 import org.jboss.tools.ui.bot.ext.Timing;
@@ -126,10 +127,36 @@ public class ConsoleView extends ViewBase {
 		return false;
 	}
 
+	/**
+	 * Waits for console text. When quitWhenNoChange is true, waiting finishes
+	 * as soon as console is not empty and has not changed for sleepTime,
+	 * otherwise it waits whole timeOut.
+	 * 
+	 * Console document is followed by {@link ConsoleStream}, console widget is
+	 * polled only when Console view does not display a text console.
+	 */
 	public String getConsoleText(long sleepTime, long timeOut, boolean quitWhenNoChange) {
 
-		long estimatedTime = 0;
 		SWTBot viewBot = bot.viewByTitle(viewObject.getName()).bot();
+		ConsoleStream stream = ConsoleStream.forConsoleView();
+		if (stream == null) {
+			return pollConsoleText(viewBot, sleepTime, timeOut, quitWhenNoChange);
+		}
+		log.info("Waiting for console text with TimeOut: " + timeOut);
+		if (quitWhenNoChange) {
+			stream.waitForQuiet(sleepTime, timeOut);
+		} else {
+			viewBot.sleep(timeOut);
+		}
+		log.info("Waiting for console text finished");
+
+		return stream.getText();
+
+	}
+
+	private String pollConsoleText(SWTBot viewBot, long sleepTime, long timeOut, boolean quitWhenNoChange) {
+
+		long estimatedTime = 0;
 		String prevConsoleText = getConsoleText();
 		String consoleText = prevConsoleText;
 		log.info("Waiting for console text with TimeOut: " + timeOut);
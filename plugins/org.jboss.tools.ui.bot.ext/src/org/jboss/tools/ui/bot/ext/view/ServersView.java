@@ -24,6 +24,7 @@ import org.eclipse.swtbot.swt.finder.widgets.SWTBotShell;
 import org.eclipse.swtbot.swt.finder.widgets.SWTBotTree;
 import org.eclipse.swtbot.swt.finder.widgets.SWTBotTreeItem;
 import org.hamcrest.Matcher;
+import org.jboss.tools.common.reddeer.server.ServerReadiness;
 import org.jboss.tools.ui.bot.ext.SWTBotFactory;
 import org.jboss.tools.ui.bot.ext.SWTTestExt;
 import org.jboss.tools.ui.bot.ext.Timing;
@@ -116,10 +117,16 @@ public class ServersView extends ViewBase {
 		SWTBotTree tree = bot.tree();
 		SWTBotTreeItem server = findServerByName(tree,serverName);
 
+		// label of found item starts with server name
+		ServerReadiness readiness = ServerReadiness.tryArm(server.getText());
 		ContextMenuHelper.prepareTreeItemForContextMenu(tree, server);
 		new SWTBotMenu(ContextMenuHelper.getContextMenu(tree, "Restart", false)).click();
 		handleServerAlreadyRunning(bot);
 
+		if (readiness != null) {
+			// returns as soon as server is started and synchronized
+			readiness.waitUntilStarted(TaskDuration.VERY_LONG.getTimeout());
+		}
 		bot.waitWhile(new NonSystemJobRunsCondition(), TaskDuration.VERY_LONG.getTimeout());
 		bot.waitUntil(new ICondition() {
 
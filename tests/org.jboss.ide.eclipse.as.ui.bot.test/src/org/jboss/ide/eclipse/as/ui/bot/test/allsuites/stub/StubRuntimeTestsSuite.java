@@ -0,0 +1,60 @@
+package org.jboss.ide.eclipse.as.ui.bot.test.allsuites.stub;
+
+import org.jboss.ide.eclipse.as.ui.bot.test.as70.CreateAS70Server;
+import org.jboss.ide.eclipse.as.ui.bot.test.as70.DeleteServerAS70Server;
+import org.jboss.ide.eclipse.as.ui.bot.test.as70.OperateAS70Server;
+import org.jboss.ide.eclipse.as.ui.bot.test.as71.CreateAS71Server;
+import org.jboss.ide.eclipse.as.ui.bot.test.as71.DeleteServerAS71Server;
+import org.jboss.ide.eclipse.as.ui.bot.test.as71.OperateAS71Server;
+import org.jboss.ide.eclipse.as.ui.bot.test.as71.ServerStateDetectorsAS71Server;
+import org.jboss.ide.eclipse.as.ui.bot.test.eap60.CreateEAP60Server;
+import org.jboss.ide.eclipse.as.ui.bot.test.eap60.DeleteServerEAP60Server;
+import org.jboss.ide.eclipse.as.ui.bot.test.eap60.OperateEAP60Server;
+import org.jboss.ide.eclipse.as.ui.bot.test.eap6x.CreateEAP6xServer;
+import org.jboss.ide.eclipse.as.ui.bot.test.eap6x.DeleteServerEAP6xServer;
+import org.jboss.ide.eclipse.as.ui.bot.test.eap6x.OperateEAP6xServer;
+import org.jboss.ide.eclipse.as.ui.bot.test.eap6x.ServerStateDetectorsEAP6xServer;
+import org.jboss.ide.eclipse.as.ui.bot.test.wildfly8.CreateWildfly8Server;
+import org.jboss.ide.eclipse.as.ui.bot.test.wildfly8.DeleteServerWildfly8Server;
+import org.jboss.ide.eclipse.as.ui.bot.test.wildfly8.OperateWildfly8Server;
+import org.jboss.ide.eclipse.as.ui.bot.test.wildfly8.ServerStateDetectorsWildfly8Server;
+import org.jboss.ide.eclipse.as.ui.bot.test.wildfly9.CreateWildfly9Server;
+import org.jboss.ide.eclipse.as.ui.bot.test.wildfly9.DeleteServerWildfly9Server;
+import org.jboss.ide.eclipse.as.ui.bot.test.wildfly9.OperateWildfly9Server;
+import org.jboss.ide.eclipse.as.ui.bot.test.wildfly9.ServerStateDetectorsWildfly9Server;
+import org.jboss.reddeer.junit.runner.RedDeerSuite;
+import org.junit.runner.RunWith;
+import org.junit.runners.Suite;
+
+/**
+ * Server lifecycle tests run against stub runtimes (see test.profile=stub),
+ * deployment tests need real servers.
+ */
+@RunWith(RedDeerSuite.class)
+@Suite.SuiteClasses({
+		CreateAS70Server.class,
+		OperateAS70Server.class,
+		DeleteServerAS70Server.class,
+		CreateAS71Server.class,
+		OperateAS71Server.class,
+		ServerStateDetectorsAS71Server.class,
+		DeleteServerAS71Server.class,
+		CreateWildfly8Server.class,
+		OperateWildfly8Server.class,
+		ServerStateDetectorsWildfly8Server.class,
+		DeleteServerWildfly8Server.class,
+		CreateWildfly9Server.class,
+		OperateWildfly9Server.class,
+		ServerStateDetectorsWildfly9Server.class,
+		DeleteServerWildfly9Server.class,
+		CreateEAP60Server.class,
+		OperateEAP60Server.class,
+		DeleteServerEAP60Server.class,
+		CreateEAP6xServer.class,
+		OperateEAP6xServer.class,
+		ServerStateDetectorsEAP6xServer.class,
+		DeleteServerEAP6xServer.class
+})
+public class StubRuntimeTestsSuite {
+
+}
@@ -0,0 +1,372 @@
+package org.jboss.ide.eclipse.as.ui.bot.test.stub;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.Properties;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+/**
+ * Creates runtime layout of JBoss AS 7, EAP 6 or WildFly which is accepted by
+ * runtime detection of server adapter, but runs {@link StubServer} in place
+ * of the real server. Server starts and stops in milliseconds, so server
+ * lifecycle and pollers can be tested without downloading real servers.
+ *
+ * Kind and version of runtime are derived from its directory name, the same
+ * as of the real distribution, e.g. jboss-as-7.1.1.Final, jboss-eap-6.4 or
+ * wildfly-9.0.0.CR1.
+ *
+ * <pre>
+ * java -cp &lt;classes&gt; org.jboss.ide.eclipse.as.ui.bot.test.stub.StubRuntime &lt;dir&gt; &lt;runtime name&gt;...
+ * </pre>
+ *
+ * Stub has no native management protocol, the management service pollers
+ * and deployments need real servers.
+ */
+public class StubRuntime {
+
+	public static final String STUB_PROPERTIES = "stub.properties";
+
+	private static final String MODULES_MAIN = "org.jboss.modules.Main";
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	private enum Kind {
+		AS70, AS71, EAP60, EAP6, WILDFLY8, WILDFLY9
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length < 2) {
+			System.err.println("Usage: StubRuntime <dir> <runtime name>...");
+			System.exit(1);
+		}
+		for (int i = 1; i < args.length; i++) {
+			File home = create(new File(args[0], args[i]));
+			System.out.println("Created stub runtime " + home.getAbsolutePath());
+		}
+	}
+
+	/**
+	 * Returns true if the runtime home was created by {@link #create(File)}
+	 */
+	public static boolean isStub(String home) {
+		return home != null && new File(home, STUB_PROPERTIES).isFile();
+	}
+
+	/**
+	 * Creates (overwrites) stub runtime, kind and version are derived from the
+	 * directory name
+	 *
+	 * @return runtime home
+	 */
+	public static File create(File home) throws IOException {
+		String name = home.getName();
+		Kind kind;
+		String version;
+		if (name.startsWith("jboss-as-7.0")) {
+			kind = Kind.AS70;
+			version = name.substring("jboss-as-".length());
+		} else if (name.startsWith("jboss-as-7.")) {
+			kind = Kind.AS71;
+			version = name.substring("jboss-as-".length());
+		} else if (name.startsWith("jboss-eap-6.0")) {
+			kind = Kind.EAP60;
+			version = getProductVersion(name.substring("jboss-eap-".length()));
+		} else if (name.startsWith("jboss-eap-6.")) {
+			kind = Kind.EAP6;
+			version = getProductVersion(name.substring("jboss-eap-".length()));
+		} else if (name.startsWith("wildfly-8.")) {
+			kind = Kind.WILDFLY8;
+			version = name.substring("wildfly-".length());
+		} else if (name.startsWith("wildfly-")) {
+			kind = Kind.WILDFLY9;
+			version = name.substring("wildfly-".length());
+		} else {
+			throw new IllegalArgumentException("Unknown runtime " + name
+					+ ", expected jboss-as-7.x, jboss-eap-6.x or wildfly-x directory");
+		}
+
+		String modules = kind == Kind.AS70 || kind == Kind.AS71 || kind == Kind.EAP60 ? "modules"
+				: "modules/system/layers/base";
+		String serverJar;
+		String product;
+		String welcome;
+		String managementPort = "9999";
+		switch (kind) {
+		case AS70:
+		case AS71:
+			serverJar = "jboss-as-server-" + version + ".jar";
+			product = "JBoss AS " + version;
+			welcome = "Welcome to AS 7";
+			break;
+		case EAP60:
+		case EAP6:
+			String asVersion = kind == Kind.EAP60 ? "7.1.2.Final-redhat-1" : "7."
+					+ (Integer.parseInt(version.split("\\.")[1]) + 1) + ".0.Final-redhat-1";
+			serverJar = "jboss-as-server-" + asVersion + ".jar";
+			product = "JBoss EAP " + version + " (AS " + asVersion + ")";
+			welcome = kind == Kind.EAP60 ? "Welcome to EAP 6" : "Welcome to JBoss EAP 6";
+			writeProduct(home, modules, "eap", "EAP", version);
+			write(new File(home, "version.txt"), "Red Hat JBoss Enterprise Application Platform - Version " + version + "\n");
+			break;
+		case WILDFLY8:
+			serverJar = "wildfly-server-" + version + ".jar";
+			product = "WildFly " + version;
+			welcome = "Welcome to WildFly 8";
+			managementPort = "9990";
+			break;
+		default:
+			serverJar = "wildfly-server-" + version + ".jar";
+			product = "WildFly Full " + version;
+			welcome = "Welcome to WildFly " + version.substring(0, version.indexOf('.'));
+			managementPort = "9990";
+			writeProduct(home, modules, "wildfly-full", "WildFly Full", version);
+			break;
+		}
+
+		Manifest manifest = createManifest();
+		manifest.getMainAttributes().put(Attributes.Name.IMPLEMENTATION_TITLE,
+				serverJar.startsWith("wildfly") ? "WildFly: Server" : "JBoss Application Server: Server");
+		manifest.getMainAttributes().put(Attributes.Name.IMPLEMENTATION_VERSION,
+				serverJar.substring(serverJar.indexOf("server-") + "server-".length(), serverJar.length() - 4));
+		File serverModule = new File(home, modules + "/org/jboss/as/server/main");
+		writeJar(new File(serverModule, serverJar), manifest);
+		write(new File(serverModule, "module.xml"), "<module xmlns=\"urn:jboss:module:1.1\" name=\"org.jboss.as.server\">\n"
+				+ "    <resources>\n        <resource-root path=\"" + serverJar + "\"/>\n    </resources>\n</module>\n");
+
+		writeModulesJar(new File(home, "jboss-modules.jar"));
+		writeStandaloneXml(new File(home, "standalone/configuration/standalone.xml"), kind);
+		write(new File(home, "standalone/configuration/logging.properties"), "logger.level=INFO\n");
+		new File(home, "standalone/deployments").mkdirs();
+		new File(home, "standalone/log").mkdirs();
+		write(new File(home, "bin/standalone.conf"), "JAVA_OPTS=\"-Xms64m -Xmx512m\"\n");
+		File script = new File(home, "bin/standalone.sh");
+		write(script, "#!/bin/sh\nDIRNAME=`dirname \"$0\"`\nJBOSS_HOME=`cd \"$DIRNAME/..\"; pwd`\n"
+				+ "exec java -Djboss.home.dir=\"$JBOSS_HOME\" -jar \"$JBOSS_HOME/jboss-modules.jar\" \"$@\"\n");
+		script.setExecutable(true);
+
+		Properties properties = new Properties();
+		// message ids of WildFly 9+ differ from the older servers
+		boolean core = kind == Kind.WILDFLY9;
+		properties.setProperty("starting", (core ? "WFLYSRV0049: " : "JBAS015899: ") + product + " starting");
+		properties.setProperty("started", (core ? "WFLYSRV0025: " : "JBAS015874: ") + product
+				+ " started in %dms - Started 0 of 0 services");
+		properties.setProperty("stopped", (core ? "WFLYSRV0050: " : "JBAS015950: ") + product + " stopped in %dms");
+		properties.setProperty("welcome", welcome);
+		properties.setProperty("web.port", "8080");
+		properties.setProperty("management.port", managementPort);
+		properties.setProperty("boot.delay", "0");
+		try (FileOutputStream out = new FileOutputStream(new File(home, STUB_PROPERTIES))) {
+			properties.store(out, "Stub runtime " + name);
+		}
+		return home;
+	}
+
+	/**
+	 * returns product version, e.g. 6.4.0.GA of 6.4
+	 */
+	private static String getProductVersion(String version) {
+		String[] segments = version.split("\\.");
+		return segments.length >= 4 ? version : segments[0] + "." + (segments.length > 1 ? segments[1] : "0") + "."
+				+ (segments.length > 2 ? segments[2] : "0") + ".GA";
+	}
+
+	/**
+	 * writes product module and bin/product.conf the adapter reads product
+	 * name and version from
+	 */
+	private static void writeProduct(File home, String modules, String slot, String name, String version)
+			throws IOException {
+		write(new File(home, "bin/product.conf"), "slot=" + slot + "\n");
+		write(new File(home, modules + "/org/jboss/as/product/" + slot + "/dir/META-INF/MANIFEST.MF"),
+				"Manifest-Version: 1.0\nJBoss-Product-Release-Name: " + name + "\nJBoss-Product-Release-Version: "
+						+ version + "\nJBoss-Product-Console-Slot: " + slot + "\n");
+	}
+
+	/**
+	 * writes jboss-modules.jar whose main class launches {@link StubServer}
+	 */
+	private static void writeModulesJar(File file) throws IOException {
+		Manifest manifest = createManifest();
+		manifest.getMainAttributes().put(Attributes.Name.MAIN_CLASS, MODULES_MAIN);
+		file.getParentFile().mkdirs();
+		try (JarOutputStream jar = new JarOutputStream(new FileOutputStream(file), manifest)) {
+			jar.putNextEntry(new JarEntry(MODULES_MAIN.replace('.', '/') + ".class"));
+			jar.write(createMainClass(MODULES_MAIN, StubServer.class.getName()));
+			jar.closeEntry();
+			copyClass(jar, StubRuntime.class.getName());
+			copyClass(jar, StubServer.class.getName());
+		}
+	}
+
+	/**
+	 * returns class file (Java 6) of public class with default constructor
+	 * and main method which calls main method of delegate. Class is generated,
+	 * so that the bundle does not contain package of jboss-modules.
+	 */
+	private static byte[] createMainClass(String className, String delegate) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeInt(0xCAFEBABE);
+		out.writeShort(0); // minor version
+		out.writeShort(50); // major version
+		out.writeShort(16); // constant pool count
+		writeUtf8(out, className.replace('.', '/')); // #1
+		writeRef(out, 7, 1); // #2 class
+		writeUtf8(out, "java/lang/Object"); // #3
+		writeRef(out, 7, 3); // #4 super class
+		writeUtf8(out, "main"); // #5
+		writeUtf8(out, "([Ljava/lang/String;)V"); // #6
+		writeUtf8(out, "Code"); // #7
+		writeUtf8(out, delegate.replace('.', '/')); // #8
+		writeRef(out, 7, 8); // #9 delegate class
+		writeRef(out, 12, 5, 6); // #10 main name and type
+		writeRef(out, 10, 9, 10); // #11 delegate main
+		writeUtf8(out, "<init>"); // #12
+		writeUtf8(out, "()V"); // #13
+		writeRef(out, 12, 12, 13); // #14 constructor name and type
+		writeRef(out, 10, 4, 14); // #15 super constructor
+		out.writeShort(0x0021); // public super
+		out.writeShort(2); // this class
+		out.writeShort(4); // super class
+		out.writeShort(0); // interfaces
+		out.writeShort(0); // fields
+		out.writeShort(2); // methods
+		// public <init>() { super(); }
+		writeMethod(out, 0x0001, 12, 13, 0xb7, 15);
+		// public static main(String[] args) { delegate.main(args); }
+		writeMethod(out, 0x0009, 5, 6, 0xb8, 11);
+		out.writeShort(0); // attributes
+		out.flush();
+		return bytes.toByteArray();
+	}
+
+	private static void writeUtf8(DataOutputStream out, String value) throws IOException {
+		out.writeByte(1);
+		out.writeUTF(value);
+	}
+
+	private static void writeRef(DataOutputStream out, int tag, int... indexes) throws IOException {
+		out.writeByte(tag);
+		for (int index : indexes) {
+			out.writeShort(index);
+		}
+	}
+
+	/**
+	 * writes method which loads its first local variable, invokes given
+	 * method and returns
+	 */
+	private static void writeMethod(DataOutputStream out, int access, int name, int descriptor, int invoke,
+			int method) throws IOException {
+		out.writeShort(access);
+		out.writeShort(name);
+		out.writeShort(descriptor);
+		out.writeShort(1); // attributes
+		out.writeShort(7); // Code
+		out.writeInt(17); // attribute length
+		out.writeShort(1); // max stack
+		out.writeShort(1); // max locals
+		out.writeInt(5); // code length
+		out.writeByte(0x2a); // aload_0
+		out.writeByte(invoke);
+		out.writeShort(method);
+		out.writeByte(0xb1); // return
+		out.writeShort(0); // exception table
+		out.writeShort(0); // attributes
+	}
+
+	/**
+	 * copies class and its anonymous classes into jar, returns false if the
+	 * class does not exist
+	 */
+	private static boolean copyClass(JarOutputStream jar, String className) throws IOException {
+		String path = className.replace('.', '/') + ".class";
+		try (InputStream in = StubRuntime.class.getClassLoader().getResourceAsStream(path)) {
+			if (in == null) {
+				return false;
+			}
+			jar.putNextEntry(new JarEntry(path));
+			byte[] buffer = new byte[8192];
+			for (int read = in.read(buffer); read != -1; read = in.read(buffer)) {
+				jar.write(buffer, 0, read);
+			}
+			jar.closeEntry();
+		}
+		for (int i = 1; copyClass(jar, className + "$" + i); i++) {
+			// anonymous classes are numbered from 1
+		}
+		return true;
+	}
+
+	private static void writeJar(File file, Manifest manifest) throws IOException {
+		file.getParentFile().mkdirs();
+		new JarOutputStream(new FileOutputStream(file), manifest).close();
+	}
+
+	private static Manifest createManifest() {
+		Manifest manifest = new Manifest();
+		manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+		return manifest;
+	}
+
+	/**
+	 * writes standalone.xml with socket bindings in the format of the kind,
+	 * adapter reads ports from it
+	 */
+	private static void writeStandaloneXml(File file, Kind kind) throws IOException {
+		boolean wildfly = kind == Kind.WILDFLY8 || kind == Kind.WILDFLY9;
+		String nativePort = kind == Kind.AS70 ? "9999" : "${jboss.management.native.port:9999}";
+		String httpManagementPort = kind == Kind.AS70 ? "9990" : "${jboss.management.http.port:9990}";
+		StringBuilder xml = new StringBuilder();
+		xml.append("<?xml version='1.0' encoding='UTF-8'?>\n");
+		xml.append("<server xmlns=\"urn:jboss:domain:").append(wildfly ? "2.2" : "1.1").append("\">\n");
+		xml.append("    <management>\n        <management-interfaces>\n");
+		if (kind == Kind.AS70) {
+			xml.append("            <native-interface interface=\"management\" port=\"9999\"/>\n");
+			xml.append("            <http-interface interface=\"management\" port=\"9990\"/>\n");
+		} else if (wildfly) {
+			xml.append("            <http-interface security-realm=\"ManagementRealm\" http-upgrade-enabled=\"true\">\n");
+			xml.append("                <socket-binding http=\"management-http\"/>\n            </http-interface>\n");
+		} else {
+			xml.append("            <native-interface security-realm=\"ManagementRealm\">\n");
+			xml.append("                <socket-binding native=\"management-native\"/>\n            </native-interface>\n");
+			xml.append("            <http-interface security-realm=\"ManagementRealm\">\n");
+			xml.append("                <socket-binding http=\"management-http\"/>\n            </http-interface>\n");
+		}
+		xml.append("        </management-interfaces>\n    </management>\n");
+		xml.append("    <interfaces>\n");
+		xml.append("        <interface name=\"management\">\n            <inet-address value=\"${jboss.bind.address.management:127.0.0.1}\"/>\n        </interface>\n");
+		xml.append("        <interface name=\"public\">\n            <inet-address value=\"${jboss.bind.address:127.0.0.1}\"/>\n        </interface>\n");
+		xml.append("    </interfaces>\n");
+		xml.append("    <socket-binding-group name=\"standard-sockets\" default-interface=\"public\"");
+		if (wildfly) {
+			xml.append(" port-offset=\"${jboss.socket.binding.port-offset:0}\"");
+		}
+		xml.append(">\n");
+		if (!wildfly) {
+			xml.append("        <socket-binding name=\"management-native\" interface=\"management\" port=\"")
+					.append(nativePort).append("\"/>\n");
+		}
+		xml.append("        <socket-binding name=\"management-http\" interface=\"management\" port=\"")
+				.append(httpManagementPort).append("\"/>\n");
+		xml.append("        <socket-binding name=\"ajp\" port=\"").append(wildfly ? "${jboss.ajp.port:8009}" : "8009").append("\"/>\n");
+		xml.append("        <socket-binding name=\"http\" port=\"").append(wildfly ? "${jboss.http.port:8080}" : "8080").append("\"/>\n");
+		xml.append("        <socket-binding name=\"https\" port=\"").append(wildfly ? "${jboss.https.port:8443}" : "8443").append("\"/>\n");
+		xml.append("    </socket-binding-group>\n</server>\n");
+		write(file, xml.toString());
+	}
+
+	private static void write(File file, String content) throws IOException {
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), content.getBytes(UTF_8));
+	}
+}
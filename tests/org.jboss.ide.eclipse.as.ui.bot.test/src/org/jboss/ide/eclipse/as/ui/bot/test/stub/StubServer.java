@@ -0,0 +1,226 @@
+package org.jboss.ide.eclipse.as.ui.bot.test.stub;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URISyntaxException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Tiny process standing in for JBoss AS 7, EAP 6 or WildFly in runtime
+ * created by {@link StubRuntime}. Server adapter launches it as the real
+ * server (org.jboss.modules.Main generated into jboss-modules.jar delegates
+ * to it). It
+ *
+ * <ul>
+ * 	<li>logs the boot and shutdown messages of the imitated server</li>
+ * 	<li>opens web port serving welcome page</li>
+ * 	<li>opens management port answering HTTP management requests, POST of
+ * 	shutdown operation stops the server</li>
+ * 	<li>stops when the process is terminated</li>
+ * </ul>
+ *
+ * Ports honour -Djboss.socket.binding.port-offset, boot can be slowed down by
+ * -Djboss.stub.bootDelay (ms) or boot.delay of stub properties.
+ */
+public class StubServer {
+
+	public static final String BOOT_DELAY_PROPERTY = "jboss.stub.bootDelay";
+
+	private final Properties properties;
+
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+
+	private ServerSocket webSocket;
+
+	private ServerSocket managementSocket;
+
+	private long startTime;
+
+	private volatile boolean stopped;
+
+	public StubServer(Properties properties) {
+		this.properties = properties;
+	}
+
+	public static void main(String[] args) throws Exception {
+		File home = getHome();
+		Properties properties = new Properties();
+		try (InputStream in = new FileInputStream(new File(home, StubRuntime.STUB_PROPERTIES))) {
+			properties.load(in);
+		}
+		final StubServer server = new StubServer(properties);
+		Runtime.getRuntime().addShutdownHook(new Thread("Stub shutdown hook") {
+			@Override
+			public void run() {
+				server.stop();
+			}
+		});
+		try {
+			server.start();
+		} catch (IOException e) {
+			server.log("ERROR", "Unable to start: " + e);
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Opens ports and logs boot messages
+	 */
+	public void start() throws IOException, InterruptedException {
+		startTime = System.currentTimeMillis();
+		log("INFO", properties.getProperty("starting"));
+		Thread.sleep(Long.getLong(BOOT_DELAY_PROPERTY, Long.parseLong(properties.getProperty("boot.delay", "0"))));
+
+		int offset = Integer.getInteger("jboss.socket.binding.port-offset", 0);
+		managementSocket = listen(Integer.parseInt(properties.getProperty("management.port")) + offset, true);
+		webSocket = listen(Integer.parseInt(properties.getProperty("web.port")) + offset, false);
+		log("INFO", String.format(properties.getProperty("started"), System.currentTimeMillis() - startTime));
+	}
+
+	/**
+	 * Closes ports and logs shutdown message, does nothing if already stopped
+	 */
+	public void stop() {
+		synchronized (this) {
+			if (stopped) {
+				return;
+			}
+			stopped = true;
+		}
+		long stopTime = System.currentTimeMillis();
+		close(webSocket);
+		close(managementSocket);
+		executor.shutdownNow();
+		log("INFO", String.format(properties.getProperty("stopped"), System.currentTimeMillis() - stopTime));
+	}
+
+	private ServerSocket listen(int port, final boolean management) throws IOException {
+		final ServerSocket socket = new ServerSocket();
+		socket.setReuseAddress(true);
+		socket.bind(new InetSocketAddress(InetAddress.getByName(System.getProperty("jboss.bind.address",
+				"localhost")), port));
+		executor.execute(new Runnable() {
+			@Override
+			public void run() {
+				while (!socket.isClosed()) {
+					try {
+						final Socket connection = socket.accept();
+						executor.execute(new Runnable() {
+							@Override
+							public void run() {
+								serve(connection, management);
+							}
+						});
+					} catch (IOException e) {
+						// closed
+					}
+				}
+			}
+		});
+		return socket;
+	}
+
+	private void serve(Socket connection, boolean management) {
+		try (Socket socket = connection) {
+			socket.setSoTimeout(5000);
+			BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), "ISO-8859-1"));
+			String requestLine = reader.readLine();
+			if (requestLine == null) {
+				return;
+			}
+			int length = 0;
+			for (String header = reader.readLine(); header != null && !header.isEmpty(); header = reader.readLine()) {
+				if (header.toLowerCase(Locale.ENGLISH).startsWith("content-length:")) {
+					length = Integer.parseInt(header.substring(header.indexOf(':') + 1).trim());
+				}
+			}
+			char[] body = new char[length];
+			for (int read = 0; read < length;) {
+				int count = reader.read(body, read, length - read);
+				if (count == -1) {
+					break;
+				}
+				read += count;
+			}
+
+			boolean shutdown = false;
+			String content;
+			String type;
+			if (management) {
+				shutdown = requestLine.startsWith("POST") && new String(body).contains("\"shutdown\"");
+				content = shutdown ? "{\"outcome\" : \"success\"}" : "{\"outcome\" : \"success\", \"result\" : \"running\"}";
+				type = "application/json";
+			} else {
+				content = "<html><head><title>" + properties.getProperty("welcome") + "</title></head><body><h1>"
+						+ properties.getProperty("welcome") + "</h1></body></html>";
+				type = "text/html";
+			}
+			byte[] bytes = content.getBytes("UTF-8");
+			OutputStream out = socket.getOutputStream();
+			out.write(("HTTP/1.1 200 OK\r\nContent-Type: " + type + "; charset=UTF-8\r\nContent-Length: "
+					+ bytes.length + "\r\nConnection: close\r\n\r\n").getBytes("ISO-8859-1"));
+			out.write(bytes);
+			out.flush();
+
+			if (shutdown) {
+				new Thread("Stub shutdown") {
+					@Override
+					public void run() {
+						StubServer.this.stop();
+						System.exit(0);
+					}
+				}.start();
+			}
+		} catch (IOException e) {
+			// client went away
+		} catch (NumberFormatException e) {
+			// malformed request
+		}
+	}
+
+	private static void close(ServerSocket socket) {
+		if (socket == null) {
+			return;
+		}
+		try {
+			socket.close();
+		} catch (IOException e) {
+			// ignore
+		}
+	}
+
+	/**
+	 * prints message in format of server log
+	 */
+	private void log(String level, String message) {
+		String time = new SimpleDateFormat("HH:mm:ss,SSS").format(new Date());
+		String thread = stopped ? "MSC service thread 1-1" : "Controller Boot Thread";
+		System.out.println(time + " " + String.format("%-5s", level) + " [org.jboss.as] (" + thread + ") " + message);
+	}
+
+	/**
+	 * returns jboss.home.dir passed by server adapter, directory of
+	 * jboss-modules.jar otherwise
+	 */
+	private static File getHome() throws URISyntaxException {
+		String home = System.getProperty("jboss.home.dir");
+		if (home != null) {
+			return new File(home);
+		}
+		return new File(StubServer.class.getProtectionDomain().getCodeSource().getLocation().toURI()).getParentFile();
+	}
+}
@@ -4,6 +4,7 @@ import org.jboss.ide.eclipse.as.reddeer.server.requirement.ServerRequirement;
 import org.jboss.ide.eclipse.as.reddeer.server.view.JBossServer;
 import org.jboss.ide.eclipse.as.reddeer.server.view.JBossServerView;
 import org.jboss.ide.eclipse.as.ui.bot.test.matcher.ConsoleContainsTextMatcher;
+import org.jboss.ide.eclipse.as.ui.bot.test.stub.StubRuntime;
 import org.jboss.reddeer.common.logging.Logger;
 import org.jboss.reddeer.common.wait.TimePeriod;
 import org.jboss.reddeer.common.wait.WaitUntil;
@@ -45,6 +46,13 @@ public abstract class AbstractJBossServerTemplate {
 		return view.getServer(getServerName());
 	}
 	
+	/**
+	 * Returns true if the server runs stub runtime (see {@link StubRuntime})
+	 */
+	protected boolean isStubRuntime() {
+		return StubRuntime.isStub(serverRequirement.getConfig().getRuntime());
+	}
+	
 	protected void clearConsole(){
 		ConsoleView consoleView = new ConsoleView();
 		consoleView.open();
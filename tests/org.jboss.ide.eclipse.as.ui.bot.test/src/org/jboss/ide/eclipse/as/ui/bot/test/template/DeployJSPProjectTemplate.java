@@ -13,6 +13,7 @@ import org.jboss.ide.eclipse.as.reddeer.server.view.JBossServerModule;
 import org.jboss.ide.eclipse.as.ui.bot.test.Activator;
 import org.jboss.ide.eclipse.as.ui.bot.test.condition.EditorWithBrowserContainsTextCondition;
 import org.jboss.reddeer.common.logging.Logger;
+import org.jboss.reddeer.common.wait.TimePeriod;
 import org.jboss.reddeer.common.wait.WaitUntil;
 import org.jboss.reddeer.common.wait.WaitWhile;
 import org.jboss.reddeer.core.condition.ShellWithTextIsAvailable;
@@ -29,11 +30,14 @@ import org.jboss.reddeer.eclipse.wst.server.ui.view.ServersViewEnums.ServerState
 import org.jboss.reddeer.eclipse.wst.server.ui.wizard.ModifyModulesDialog;
 import org.jboss.reddeer.eclipse.wst.server.ui.wizard.ModifyModulesPage;
 import org.jboss.reddeer.swt.impl.button.OkButton;
+import org.jboss.tools.common.reddeer.server.DeploymentObserver;
+import org.jboss.tools.common.reddeer.server.DeploymentObserver.Outcome;
 import org.junit.Before;
 import org.junit.Test;
 
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.MatcherAssert.assertThat;
 
 import static org.junit.Assert.assertNotNull;
@@ -105,7 +109,13 @@ public abstract class DeployJSPProjectTemplate extends AbstractJBossServerTempla
 		}
 		log.step("Add " + PROJECT_NAME + " to the server (Add module dialog)");
 		JBossServer server = getServer();
-		addModule(server);
+		DeploymentObserver observer = DeploymentObserver.watch(getServerName(), PROJECT_NAME + ".war");
+		try {
+			addModule(server);
+			assertDeployed(observer);
+		} finally {
+			observer.close();
+		}
 
 		// view
 		log.step("Assert module is visible on Servers view");
@@ -168,6 +178,23 @@ public abstract class DeployJSPProjectTemplate extends AbstractJBossServerTempla
 		assertTrue(new File(buildFolderFilesystem, "classes/org").exists());
 	}
 
+	/**
+	 * Waits for deployment marker and the project's page (at the URL provided
+	 * by the server), so that the web page below is not polled while
+	 * deployment is in progress. The page is polled when servers without
+	 * deployment scanner are not watched or no marker is written in time.
+	 */
+	private void assertDeployed(DeploymentObserver observer) {
+		Outcome outcome = observer.waitForMarker(TimePeriod.VERY_LONG.getSeconds() * 1000);
+		assertThat("Deployment failed: " + observer.getFailure(), outcome, is(not(Outcome.FAILED)));
+		String url = DeploymentObserver.getModuleRootURL(getServerName(), PROJECT_NAME);
+		assertNotNull("Server provides no URL of " + PROJECT_NAME, url);
+		String page = observer.probe(url, TimePeriod.LONG.getSeconds() * 1000);
+		assertNotNull("Page " + url + " did not respond, last response code " + observer.getResponseCode(), page);
+		log.info("Deployment " + outcome + " after " + observer.getMarkerLatency() + " ms, page responded after "
+				+ observer.getProbeLatency() + " ms");
+	}
+
 	private void addModule(JBossServer server) {
 		ModifyModulesDialog modifyModulesDialog = server.addAndRemoveModules();
 		ModifyModulesPage modifyModulesPage = modifyModulesDialog.getFirstPage();
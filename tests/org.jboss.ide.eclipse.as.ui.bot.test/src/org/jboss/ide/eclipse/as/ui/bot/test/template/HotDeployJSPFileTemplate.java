@@ -1,5 +1,27 @@
 package org.jboss.ide.eclipse.as.ui.bot.test.template;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.jboss.ide.eclipse.as.reddeer.server.family.FamilyAS;
+import org.jboss.ide.eclipse.as.reddeer.server.family.FamilyEAP;
+import org.jboss.ide.eclipse.as.reddeer.server.family.FamilyWildFly;
 import org.jboss.ide.eclipse.as.ui.bot.test.condition.BrowserContainsTextCondition;
 import org.jboss.reddeer.common.logging.Logger;
 import org.jboss.reddeer.eclipse.ui.ide.NewFileCreationWizardDialog;
@@ -7,13 +29,30 @@ import org.jboss.reddeer.eclipse.ui.ide.NewFileCreationWizardPage;
 import org.jboss.reddeer.eclipse.wst.server.ui.view.Server;
 import org.jboss.reddeer.common.wait.TimePeriod;
 import org.jboss.reddeer.common.wait.WaitUntil;
+import org.jboss.reddeer.requirements.server.IServerFamily;
 import org.jboss.reddeer.workbench.impl.editor.TextEditor;
+import org.jboss.tools.common.reddeer.utils.PerformanceSummaryFile;
 import org.junit.Test;
 
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
+
 /**
  * Adds a new jsp file into the jsp project and checks it is hot deployed:
  * <ul>
  * 	<li>loads the new page in the web browser </li>
+ * 	<li>measures time from save until the server serves changed pages for
+ * 	several successive edits</li>
+ * </ul>
+ * 
+ * Latency benchmark runs only when number of edits is set, it is configured by
+ * system properties
+ * <ul>
+ * 	<li><code>hotdeploy.benchmark.edits</code> - number of edits</li>
+ * 	<li><code>perf.recorder.dir</code> - directory the summary
+ * 	<code>hotdeploy-&lt;family&gt;-&lt;version&gt;.summary.properties</code> is
+ * 	written to (default target/perf-results), in format of performance
+ * 	summaries of org.jboss.tools.perf.test.core</li>
  * </ul>
  * 
  * NOTE: It is marked as abstract so that concrete implementation can specify their own {@link Server}
@@ -30,6 +69,21 @@ public abstract class HotDeployJSPFileTemplate extends AbstractJBossServerTempla
 				"<%@ page language=\"java\" contentType=\"text/html; charset=UTF-8\" pageEncoding=\"UTF-8\"%> \n" + 
 				"<html> <body> Hot deployment </body> </html>";
 	
+	public static final String EDITS_PROPERTY = "hotdeploy.benchmark.edits";
+	
+	public static final String OUTPUT_DIR_PROPERTY = "perf.recorder.dir";
+	
+	public static final String DEFAULT_OUTPUT_DIR = "target/perf-results";
+	
+	/** number of files saved at once, edits cycle through them */
+	private static final int[] FILE_COUNTS = {1, 3, 5};
+	
+	/** sizes (bytes) of saved files, changed after every cycle of file counts */
+	private static final int[] FILE_SIZES = {1024, 16 * 1024, 128 * 1024};
+	
+	/** pause (ms) between requests of not yet updated page */
+	private static final long POLL_INTERVAL = 50;
+	
 	private static final Logger log = Logger.getLogger(HotDeployJSPFileTemplate.class);
 	
 	@Test
@@ -51,4 +105,203 @@ public abstract class HotDeployJSPFileTemplate extends AbstractJBossServerTempla
 		log.step("Show " + HOT_JSP_FILE_NAME + " file in browser");
 		new WaitUntil(new BrowserContainsTextCondition("http://localhost:8080/" + DeployJSPProjectTemplate.PROJECT_NAME + "/hot.jsp", "Hot deployment", true), TimePeriod.LONG);
 	}
+	
+	@Test
+	public void hotDeploymentLatency() throws CoreException, IOException {
+		Integer edits = Integer.getInteger(EDITS_PROPERTY);
+		assumeTrue("Hot deployment latency is measured when " + EDITS_PROPERTY + " is set", edits != null);
+		IFolder webContent = ResourcesPlugin.getWorkspace().getRoot()
+				.getProject(DeployJSPProjectTemplate.PROJECT_NAME).getFolder("WebContent");
+		try {
+			measureLatency(webContent, edits);
+		} finally {
+			log.step("Delete benchmark files");
+			for (int file = 1; file <= getMaxFileCount(); file++) {
+				IFile benchmarkFile = webContent.getFile(getBenchmarkFileName(file));
+				if (benchmarkFile.exists()) {
+					benchmarkFile.delete(IResource.FORCE, null);
+				}
+			}
+		}
+	}
+	
+	private void measureLatency(IFolder webContent, int edits) throws CoreException, IOException {
+		long timeOut = TimePeriod.LONG.getSeconds() * 1000;
+		
+		List<Long> latencies = new ArrayList<Long>();
+		List<Long> saves = new ArrayList<Long>();
+		Map<String, List<Long>> groups = new TreeMap<String, List<Long>>();
+		for (int edit = 1; edit <= edits; edit++) {
+			int fileCount = FILE_COUNTS[(edit - 1) % FILE_COUNTS.length];
+			int fileSize = FILE_SIZES[(edit - 1) / FILE_COUNTS.length % FILE_SIZES.length];
+			log.step("Edit " + edit + " of " + edits + ": save " + fileCount + " file(s) of " + fileSize + " bytes");
+			
+			long start = System.nanoTime();
+			for (int file = 1; file <= fileCount; file++) {
+				saveFile(webContent.getFile(getBenchmarkFileName(file)), getBenchmarkContent(edit, file, fileSize));
+			}
+			long saved = System.nanoTime();
+			for (int file = 1; file <= fileCount; file++) {
+				String url = "http://localhost:8080/" + DeployJSPProjectTemplate.PROJECT_NAME + "/"
+						+ getBenchmarkFileName(file);
+				if (!waitForText(url, getBenchmarkToken(edit, file), start + timeOut * 1000000)) {
+					fail("Edit " + edit + " of " + url + " was not hot deployed in " + timeOut + " ms");
+				}
+			}
+			long latency = (System.nanoTime() - start) / 1000000;
+			log.info("Edit " + edit + " saved in " + (saved - start) / 1000000 + " ms, served in " + latency + " ms");
+			
+			latencies.add(latency);
+			saves.add((saved - start) / 1000000);
+			addToGroup(groups, "files." + fileCount + ".latency", latency);
+			addToGroup(groups, "size." + fileSize / 1024 + "k.latency", latency);
+		}
+		
+		Map<String, Long> summary = new TreeMap<String, Long>();
+		summary.put("edits", (long) edits);
+		putPercentiles(summary, "latency", latencies);
+		putPercentiles(summary, "save", saves);
+		for (Map.Entry<String, List<Long>> group : groups.entrySet()) {
+			putPercentiles(summary, group.getKey(), group.getValue());
+		}
+		File outputDir = new File(System.getProperty(OUTPUT_DIR_PROPERTY, DEFAULT_OUTPUT_DIR));
+		outputDir.mkdirs();
+		PerformanceSummaryFile.store(new File(outputDir, getBenchmarkName() + PerformanceSummaryFile.FILE_SUFFIX),
+				getBenchmarkName(), summary);
+		log.info("Hot deployment latency: " + getBenchmarkName() + " " + summary);
+	}
+	
+	/**
+	 * returns name of benchmark results, e.g. hotdeploy-wildfly-9.0
+	 */
+	protected String getBenchmarkName() {
+		IServerFamily family = serverRequirement.getConfig().getServerFamily();
+		String name;
+		if (family instanceof FamilyWildFly) {
+			name = "wildfly";
+		} else if (family instanceof FamilyEAP) {
+			name = "eap";
+		} else if (family instanceof FamilyAS) {
+			name = "as";
+		} else {
+			name = family.getClass().getSimpleName();
+		}
+		return "hotdeploy-" + name + "-" + family.getVersion();
+	}
+	
+	private static int getMaxFileCount() {
+		int max = 0;
+		for (int fileCount : FILE_COUNTS) {
+			max = Math.max(max, fileCount);
+		}
+		return max;
+	}
+	
+	private static String getBenchmarkFileName(int file) {
+		return "hot-" + file + ".jsp";
+	}
+	
+	private static String getBenchmarkToken(int edit, int file) {
+		return "Hot deployment " + edit + "/" + file;
+	}
+	
+	/**
+	 * returns page with the token padded by jsp comment to the size
+	 */
+	private static String getBenchmarkContent(int edit, int file, int size) {
+		StringBuilder content = new StringBuilder(size);
+		content.append("<%@ page language=\"java\" contentType=\"text/html; charset=UTF-8\" pageEncoding=\"UTF-8\"%> \n");
+		content.append("<html> <body> ").append(getBenchmarkToken(edit, file)).append(" </body> </html>\n");
+		content.append("<%-- ");
+		while (content.length() < size - 5) {
+			content.append('x');
+		}
+		content.append(" --%>");
+		return content.toString();
+	}
+	
+	private static void saveFile(IFile file, String content) throws CoreException, UnsupportedEncodingException {
+		InputStream source = new ByteArrayInputStream(content.getBytes("UTF-8"));
+		if (file.exists()) {
+			file.setContents(source, IResource.FORCE, null);
+		} else {
+			file.create(source, IResource.FORCE, null);
+		}
+	}
+	
+	/**
+	 * Requests URL until it responds with HTTP OK and page containing the
+	 * text, returns false if it did not until the deadline (nano time)
+	 */
+	private static boolean waitForText(String url, String text, long deadline) {
+		while (System.nanoTime() < deadline) {
+			String page = getPage(url);
+			if (page != null && page.contains(text)) {
+				return true;
+			}
+			try {
+				Thread.sleep(POLL_INTERVAL);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return false;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * returns content of page or null if it did not respond with HTTP OK
+	 */
+	private static String getPage(String url) {
+		try {
+			HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+			connection.setUseCaches(false);
+			connection.setConnectTimeout(1000);
+			connection.setReadTimeout(5000);
+			int code = connection.getResponseCode();
+			InputStream in = code < 400 ? connection.getInputStream() : connection.getErrorStream();
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			if (in != null) {
+				try (InputStream is = in) {
+					byte[] buffer = new byte[8192];
+					for (int read = is.read(buffer); read != -1; read = is.read(buffer)) {
+						out.write(buffer, 0, read);
+					}
+				}
+			}
+			return code == HttpURLConnection.HTTP_OK ? out.toString("UTF-8") : null;
+		} catch (IOException e) {
+			return null;
+		}
+	}
+	
+	private static void addToGroup(Map<String, List<Long>> groups, String key, long value) {
+		List<Long> group = groups.get(key);
+		if (group == null) {
+			group = new ArrayList<Long>();
+			groups.put(key, group);
+		}
+		group.add(value);
+	}
+	
+	/**
+	 * puts min, nearest rank 50th, 90th and 95th percentile and max of values
+	 */
+	private static void putPercentiles(Map<String, Long> summary, String prefix, List<Long> values) {
+		if (values.isEmpty()) {
+			return;
+		}
+		List<Long> sorted = new ArrayList<Long>(values);
+		Collections.sort(sorted);
+		summary.put(prefix + ".min", sorted.get(0));
+		summary.put(prefix + ".p50", getPercentile(sorted, 50));
+		summary.put(prefix + ".p90", getPercentile(sorted, 90));
+		summary.put(prefix + ".p95", getPercentile(sorted, 95));
+		summary.put(prefix + ".max", sorted.get(sorted.size() - 1));
+	}
+	
+	private static long getPercentile(List<Long> sorted, int percentile) {
+		int rank = (int) Math.ceil(percentile / 100.0 * sorted.size());
+		return sorted.get(Math.max(rank, 1) - 1);
+	}
 }
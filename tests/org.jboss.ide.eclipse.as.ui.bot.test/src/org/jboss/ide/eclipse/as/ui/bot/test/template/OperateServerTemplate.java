@@ -1,5 +1,6 @@
 package org.jboss.ide.eclipse.as.ui.bot.test.template;
 
+import org.jboss.ide.eclipse.as.reddeer.server.editor.JBossServerEditor;
 import org.jboss.ide.eclipse.as.reddeer.server.editor.JBossServerLaunchConfiguration;
 import org.jboss.ide.eclipse.as.reddeer.server.wizard.page.JBossRuntimeWizardPage;
 import org.jboss.reddeer.common.logging.Logger;
@@ -64,6 +65,18 @@ public abstract class OperateServerTemplate extends AbstractJBossServerTemplate
 		}
 	}
 
+	@Before
+	public void setupStubPollers(){
+		if (!isStubRuntime()){
+			return;
+		}
+		log.step("Set web port and process terminated pollers to stub runtime");
+		JBossServerEditor editor = getServer().open();
+		editor.setStartupPoller(ServerStateDetectorsTemplate.WEB_PORT_POLLER);
+		editor.setShutdownPoller(ServerStateDetectorsTemplate.PROCESS_TERMINATED_POLLER);
+		editor.save();
+	}
+
 	@Test
 	public void operateServer(){
 		startServer();
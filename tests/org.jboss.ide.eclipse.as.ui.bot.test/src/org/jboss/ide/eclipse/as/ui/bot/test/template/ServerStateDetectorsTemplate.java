@@ -5,6 +5,7 @@ import org.jboss.reddeer.common.exception.RedDeerException;
 import org.jboss.reddeer.common.logging.Logger;
 import org.jboss.reddeer.eclipse.wst.server.ui.view.ServersViewEnums.ServerState;
 import org.junit.After;
+import org.junit.Assume;
 import org.junit.Test;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -56,6 +57,7 @@ public abstract class ServerStateDetectorsTemplate extends AbstractJBossServerTe
 	
 	@Test
 	public void managementServicePollers(){
+		assumeManagementService();
 		log.step("Set manager service pollers");
 		setPollers(getManagerServicePoller(), getManagerServicePoller());
 		operateServer();
@@ -63,11 +65,16 @@ public abstract class ServerStateDetectorsTemplate extends AbstractJBossServerTe
 	
 	@Test
 	public void managementService_ProcessTerminatedPollers(){
+		assumeManagementService();
 		log.step("Set process terminated poller");
 		setPollers(getManagerServicePoller(), PROCESS_TERMINATED_POLLER);
 		operateServer();
 	}
 	
+	protected void assumeManagementService(){
+		Assume.assumeFalse("Stub runtime does not speak native management protocol", isStubRuntime());
+	}
+	
 	protected void operateServer(){
 		startServer();
 		restartServer();
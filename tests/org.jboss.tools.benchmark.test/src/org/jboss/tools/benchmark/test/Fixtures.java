@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributor:
+ *     Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package org.jboss.tools.benchmark.test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Benchmark fixtures generated from resources of existing test plugins, so
+ * that benchmarks work with realistic content. Resources are resolved against
+ * <code>benchmark.resources</code> system property (default is the parent
+ * directory of this plugin, i.e. tests/).
+ */
+public class Fixtures {
+
+	public static final String HIBERNATE_PROJECT = "org.jboss.tools.hibernate.ui.bot.test/resources/prj/ecl-hibernate40-ent";
+	public static final String PERSISTENCE_XML = "org.jboss.tools.hibernate.ui.bot.test/resources/prj/ecl-jpa10/src/META-INF/persistence.xml";
+	public static final String UI_BOT_EXT_RESOURCES = "../plugins/org.jboss.tools.ui.bot.ext/resources";
+
+	private static File getResource(String path) {
+		return new File(System.getProperty("benchmark.resources", ".."), path);
+	}
+
+	/**
+	 * Returns all hibernate mapping files of the reverse engineered sakila
+	 * project sorted by name
+	 */
+	public static List<File> getMappingFiles() {
+		File[] files = getResource(HIBERNATE_PROJECT + "/src/org/gen").listFiles();
+		List<File> mappings = new ArrayList<File>();
+		if (files != null) {
+			Arrays.sort(files);
+			for (File file : files) {
+				if (file.getName().endsWith(".hbm.xml")) {
+					mappings.add(file);
+				}
+			}
+		}
+		if (mappings.isEmpty()) {
+			throw new IllegalStateException("No mapping files found in " + getResource(HIBERNATE_PROJECT));
+		}
+		return mappings;
+	}
+
+	/**
+	 * Returns persistence.xml of test project extended by given number of
+	 * persistence unit properties named property0..propertyN-1
+	 */
+	public static String getPersistenceXml(int properties) throws IOException {
+		String persistence = read(getResource(PERSISTENCE_XML));
+		StringBuilder generated = new StringBuilder("\t\t<properties>\n");
+		for (int i = 0; i < properties; i++) {
+			generated.append("\t\t\t<property name=\"property").append(i).append("\" value=\"value")
+					.append(i).append("\"/>\n");
+		}
+		generated.append("\t\t</properties>\n\t</persistence-unit>");
+		return persistence.replace("</persistence-unit>", generated.toString());
+	}
+
+	/**
+	 * Returns content of all mapping files concatenated, resembles long editor
+	 * text
+	 */
+	public static String getEditorText() throws IOException {
+		StringBuilder text = new StringBuilder();
+		for (File mapping : getMappingFiles()) {
+			text.append(read(mapping));
+		}
+		return text.toString();
+	}
+
+	/**
+	 * Returns mapped class names, used as menu item labels
+	 */
+	public static String[] getLabels() {
+		List<File> mappings = getMappingFiles();
+		String[] labels = new String[mappings.size()];
+		for (int i = 0; i < labels.length; i++) {
+			labels[i] = mappings.get(i).getName().replace(".hbm.xml", "");
+		}
+		return labels;
+	}
+
+	/**
+	 * Returns test configuration file of ui.bot.ext
+	 *
+	 * @param multi
+	 *            true for multi-configuration file
+	 */
+	public static File getTestConfiguration(boolean multi) {
+		return getResource(UI_BOT_EXT_RESOURCES + (multi ? "/SWTBotTest-default.multi.properties"
+				: "/SWTBotTest-default.properties"));
+	}
+
+	public static String read(File file) throws IOException {
+		StringBuilder content = new StringBuilder();
+		Reader reader = new InputStreamReader(new FileInputStream(file), "UTF-8");
+		try {
+			char[] buffer = new char[4096];
+			int read;
+			while ((read = reader.read(buffer)) != -1) {
+				content.append(buffer, 0, read);
+			}
+		} finally {
+			reader.close();
+		}
+		return content.toString();
+	}
+}
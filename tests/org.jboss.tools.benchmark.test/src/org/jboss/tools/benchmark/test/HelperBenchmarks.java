@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributor:
+ *     Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package org.jboss.tools.benchmark.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.List;
+
+import org.jboss.tools.benchmark.test.harness.BenchmarkResult;
+import org.jboss.tools.benchmark.test.harness.BenchmarkRunner;
+import org.jboss.tools.benchmark.test.harness.MicroBenchmark;
+import org.jboss.tools.hibernate.reddeer.common.XPathHelper;
+import org.jboss.tools.ui.bot.ext.config.TestConfigurator;
+import org.jboss.tools.ui.bot.ext.helper.ContextMenuHelper;
+import org.jboss.tools.ui.bot.ext.helper.StringHelper;
+import org.junit.Test;
+
+/**
+ * Throughput and allocation benchmarks of helpers which do not need UI. Every
+ * test checks the helper result first, so that a broken fixture cannot produce
+ * meaningless numbers.
+ */
+public class HelperBenchmarks {
+
+	private final BenchmarkRunner runner = new BenchmarkRunner();
+
+	@Test
+	public void xpathPersistenceProperty() throws Exception {
+		final String persistence = Fixtures.getPersistenceXml(50);
+		assertEquals("value25", XPathHelper.getInstance().getPersistencePropertyValue("property25", persistence));
+		run(new MicroBenchmark("XPathHelper.getPersistencePropertyValue") {
+			@Override
+			public int run() {
+				return XPathHelper.getInstance().getPersistencePropertyValue("property25", persistence).length();
+			}
+		});
+	}
+
+	@Test
+	public void xpathMappingFileTable() throws Exception {
+		List<File> mappings = Fixtures.getMappingFiles();
+		File mapping = mappings.get(mappings.size() - 1);
+		final String text = Fixtures.read(mapping);
+		final String clazz = "org.gen." + mapping.getName().replace(".hbm.xml", "");
+		assertTrue(XPathHelper.getInstance().getMappingFileTable(clazz, text).length() > 0);
+		run(new MicroBenchmark("XPathHelper.getMappingFileTable") {
+			@Override
+			public int run() {
+				return XPathHelper.getInstance().getMappingFileTable(clazz, text).length();
+			}
+		});
+	}
+
+	@Test
+	public void stringHelperPosition() throws Exception {
+		String text = Fixtures.getEditorText();
+		final StringHelper helper = new StringHelper(text);
+		// fragment in the last mapping, the whole text is searched
+		List<File> mappings = Fixtures.getMappingFiles();
+		final String fragment = "org.gen." + mappings.get(mappings.size() - 1).getName().replace(".hbm.xml", "");
+		assertTrue(helper.getPositionAfter(fragment).y > 0);
+		run(new MicroBenchmark("StringHelper.getPositionAfter") {
+			@Override
+			public int run() {
+				return helper.getPositionAfter(fragment).y;
+			}
+		});
+	}
+
+	@Test
+	public void filterMenuItemLabels() throws Exception {
+		final String[] labels = Fixtures.getLabels();
+		final String[] ignored = new String[labels.length / 2];
+		System.arraycopy(labels, 0, ignored, 0, ignored.length);
+		assertEquals(labels.length - ignored.length, ContextMenuHelper.filterMenuItemLabels(labels, ignored).length);
+		run(new MicroBenchmark("ContextMenuHelper.filterMenuItemLabels") {
+			@Override
+			public int run() {
+				return ContextMenuHelper.filterMenuItemLabels(labels, ignored).length;
+			}
+		});
+	}
+
+	@Test
+	public void isMultiPropertiesFile() throws Exception {
+		final String multi = Fixtures.getTestConfiguration(true).getAbsolutePath();
+		final String single = Fixtures.getTestConfiguration(false).getAbsolutePath();
+		assertTrue(TestConfigurator.isMultiPropertiesFile(multi));
+		assertTrue(!TestConfigurator.isMultiPropertiesFile(single));
+		run(new MicroBenchmark("TestConfigurator.isMultiPropertiesFile") {
+			@Override
+			public int run() {
+				return (TestConfigurator.isMultiPropertiesFile(multi) ? 1 : 0)
+						+ (TestConfigurator.isMultiPropertiesFile(single) ? 2 : 0);
+			}
+		});
+	}
+
+	private void run(MicroBenchmark benchmark) throws Exception {
+		BenchmarkResult result = runner.run(benchmark);
+		assertTrue("No operation was measured", result.getThroughput() > 0);
+	}
+}
@@ -0,0 +1,81 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributor:
+ *     Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package org.jboss.tools.benchmark.test.harness;
+
+import java.util.Locale;
+
+/**
+ * Throughput and allocation rate of one benchmark computed from measured
+ * iterations
+ */
+public class BenchmarkResult {
+
+	public static final String CSV_HEADER = "benchmark,iterations,opsPerSecond,opsPerSecondError,bytesPerOp";
+
+	private final String name;
+	private final double[] throughputs;
+	private final double bytesPerOp;
+
+	BenchmarkResult(String name, double[] throughputs, double bytesPerOp) {
+		this.name = name;
+		this.throughputs = throughputs;
+		this.bytesPerOp = bytesPerOp;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Returns mean throughput in operations per second
+	 */
+	public double getThroughput() {
+		double sum = 0;
+		for (double throughput : throughputs) {
+			sum += throughput;
+		}
+		return sum / throughputs.length;
+	}
+
+	/**
+	 * Returns sample standard deviation of throughput of iterations
+	 */
+	public double getThroughputError() {
+		if (throughputs.length < 2) {
+			return 0;
+		}
+		double mean = getThroughput();
+		double sum = 0;
+		for (double throughput : throughputs) {
+			sum += (throughput - mean) * (throughput - mean);
+		}
+		return Math.sqrt(sum / (throughputs.length - 1));
+	}
+
+	/**
+	 * Returns average number of bytes allocated by one operation or -1 if JVM
+	 * does not provide allocation counters
+	 */
+	public double getBytesPerOp() {
+		return bytesPerOp;
+	}
+
+	public String toCsv() {
+		return String.format(Locale.ENGLISH, "%s,%d,%.2f,%.2f,%.1f", name, throughputs.length,
+				getThroughput(), getThroughputError(), bytesPerOp);
+	}
+
+	@Override
+	public String toString() {
+		return String.format(Locale.ENGLISH, "%-50s %12.2f +- %10.2f ops/s %12.1f B/op", name,
+				getThroughput(), getThroughputError(), bytesPerOp);
+	}
+}
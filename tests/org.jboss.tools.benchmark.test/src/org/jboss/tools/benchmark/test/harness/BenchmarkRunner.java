@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributor:
+ *     Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package org.jboss.tools.benchmark.test.harness;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Runs {@link MicroBenchmark}s in the same way as JMH throughput mode does:
+ * several warm-up iterations are followed by measured iterations, each
+ * iteration calls the operation repeatedly for a fixed time. Allocated bytes
+ * are read from thread allocation counters of the JVM.
+ *
+ * Runner is configured by system properties
+ * <ul>
+ * <li><code>benchmark.warmup</code> - warm-up iterations (default 5)</li>
+ * <li><code>benchmark.iterations</code> - measured iterations (default 10)</li>
+ * <li><code>benchmark.time</code> - duration of one iteration in ms (default
+ * 1000)</li>
+ * <li><code>benchmark.output</code> - CSV file results are appended to
+ * (optional)</li>
+ * </ul>
+ */
+public class BenchmarkRunner {
+
+	private static final Logger log = Logger.getLogger(BenchmarkRunner.class);
+
+	private final int warmupIterations;
+	private final int iterations;
+	private final long iterationTime;
+	private final File output;
+
+	/** keeps results of operations alive */
+	private volatile int sink;
+
+	/**
+	 * Creates runner configured by system properties
+	 */
+	public BenchmarkRunner() {
+		this(Integer.getInteger("benchmark.warmup", 5), Integer.getInteger("benchmark.iterations", 10),
+				Long.getLong("benchmark.time", 1000), System.getProperty("benchmark.output") == null ? null
+						: new File(System.getProperty("benchmark.output")));
+	}
+
+	public BenchmarkRunner(int warmupIterations, int iterations, long iterationTime, File output) {
+		this.warmupIterations = warmupIterations;
+		this.iterations = iterations;
+		this.iterationTime = iterationTime;
+		this.output = output;
+	}
+
+	public BenchmarkResult run(MicroBenchmark benchmark) throws Exception {
+		benchmark.setUp();
+		for (int i = 0; i < warmupIterations; i++) {
+			iteration(benchmark);
+		}
+		System.gc();
+		double[] throughputs = new double[iterations];
+		long operations = 0;
+		long allocatedBefore = getAllocatedBytes();
+		for (int i = 0; i < iterations; i++) {
+			long start = System.nanoTime();
+			long count = iteration(benchmark);
+			throughputs[i] = count * 1e9 / (System.nanoTime() - start);
+			operations += count;
+		}
+		long allocatedAfter = getAllocatedBytes();
+		double bytesPerOp = allocatedBefore < 0 || allocatedAfter < 0 ? -1
+				: (double) (allocatedAfter - allocatedBefore) / operations;
+		BenchmarkResult result = new BenchmarkResult(benchmark.getName(), throughputs, bytesPerOp);
+		log.info(result);
+		write(result);
+		return result;
+	}
+
+	/**
+	 * Calls operation until iteration time elapses, returns number of calls
+	 */
+	private long iteration(MicroBenchmark benchmark) throws Exception {
+		long deadline = System.nanoTime() + iterationTime * 1000000L;
+		long count = 0;
+		int result = 0;
+		do {
+			result += benchmark.run();
+			count++;
+		} while (System.nanoTime() < deadline);
+		sink += result;
+		return count;
+	}
+
+	/**
+	 * Returns bytes allocated by current thread, read through platform MBean
+	 * server to avoid dependency on com.sun.management, or -1 if not supported
+	 */
+	private static long getAllocatedBytes() {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			Object bytes = server.invoke(new ObjectName(ManagementFactory.THREAD_MXBEAN_NAME),
+					"getThreadAllocatedBytes", new Object[] { Thread.currentThread().getId() },
+					new String[] { long.class.getName() });
+			return bytes instanceof Long ? (Long) bytes : -1;
+		} catch (Exception e) {
+			return -1;
+		}
+	}
+
+	private void write(BenchmarkResult result) throws IOException {
+		if (output == null) {
+			return;
+		}
+		boolean header = !output.isFile();
+		if (output.getParentFile() != null) {
+			output.getParentFile().mkdirs();
+		}
+		Writer writer = new OutputStreamWriter(new FileOutputStream(output, true), "UTF-8");
+		try {
+			if (header) {
+				writer.write(BenchmarkResult.CSV_HEADER + "\n");
+			}
+			writer.write(result.toCsv() + "\n");
+		} finally {
+			writer.close();
+		}
+	}
+}
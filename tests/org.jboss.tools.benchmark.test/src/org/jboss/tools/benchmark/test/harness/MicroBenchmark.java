@@ -0,0 +1,42 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributor:
+ *     Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package org.jboss.tools.benchmark.test.harness;
+
+/**
+ * Single measured operation, executed repeatedly by {@link BenchmarkRunner}.
+ * Operation returns a value derived from its result so that the JIT cannot
+ * eliminate the work as dead code.
+ */
+public abstract class MicroBenchmark {
+
+	private final String name;
+
+	public MicroBenchmark(String name) {
+		this.name = name;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Prepares fixtures, called once before warm-up
+	 */
+	public void setUp() throws Exception {
+	}
+
+	/**
+	 * Executes measured operation once
+	 *
+	 * @return any value depending on the result of the operation
+	 */
+	public abstract int run() throws Exception;
+}
@@ -1,8 +1,8 @@
 package org.jboss.tools.hibernate.reddeer.test;
 
 import org.jboss.reddeer.core.interceptor.SyncInterceptorManager;
-import org.jboss.reddeer.eclipse.jdt.ui.ProjectExplorer;
 import org.jboss.reddeer.workbench.handler.EditorHandler;
+import org.jboss.tools.hibernate.reddeer.factory.FixtureCache;
 import org.jboss.tools.hibernate.reddeer.importer.ProjectImporter;
 import org.jboss.tools.hibernate.reddeer.interceptor.ErrorLogInterceptor;
 import org.jboss.tools.hibernate.ui.bot.test.Activator;
@@ -17,9 +17,8 @@ public class HibernateRedDeerTest {
 	
 		EditorHandler.getInstance().closeAll(false);
 		
-		ProjectExplorer pe = new ProjectExplorer();
-		pe.open();
-		pe.deleteAllProjects();
+		// prepared fixtures are kept for following tests
+		FixtureCache.getInstance().deleteUncachedProjects();
 		
 		sim.unregisterAll();
 		String enabled = System.getProperty("hibernate.reddeer.errorLogInterceptor");
@@ -27,7 +26,12 @@ public class HibernateRedDeerTest {
 		  sim.register(LOG_INTERCEPTOR, new ErrorLogInterceptor());		
 	}
 	
+	/**
+	 * Imports project, project kept from previous test as prepared fixture
+	 * is deleted first
+	 */
 	public static void importProject(String prjName) {
+		FixtureCache.getInstance().invalidate(prjName);
 		ProjectImporter.importProjectWithoutErrors(Activator.PLUGIN_ID, prjName);
 	}
 }	
@@ -12,9 +12,8 @@ import org.jboss.reddeer.requirements.db.DatabaseRequirement.Database;
 import org.jboss.reddeer.swt.exception.SWTLayerException;
 import org.jboss.reddeer.swt.impl.tree.DefaultTreeItem;
 import org.jboss.reddeer.workbench.impl.editor.DefaultEditor;
-import org.jboss.tools.hibernate.reddeer.factory.ConnectionProfileFactory;
-import org.jboss.tools.hibernate.reddeer.factory.DriverDefinitionFactory;
 import org.jboss.tools.hibernate.reddeer.factory.EntityGenerationFactory;
+import org.jboss.tools.hibernate.reddeer.factory.FixtureCache;
 import org.jboss.tools.hibernate.reddeer.factory.ProjectConfigurationFactory;
 import org.junit.After;
 import org.junit.Test;
@@ -30,6 +29,7 @@ import org.junit.runner.RunWith;
 public class JPAEntityGenerationTest extends HibernateRedDeerTest {
 
 	private String prj = "mvn-hibernate43"; 
+	private String hbVersion = "4.3";
 	private String jpaVersion = "2.0";
 	
 	private static final Logger log = Logger.getLogger(JPAEntityGenerationTest.class);
@@ -39,22 +39,23 @@ public class JPAEntityGenerationTest extends HibernateRedDeerTest {
     
     
 	private void prepare() {
-		log.step("Import testing project");
-    	importProject(prj);
-    	
-		DatabaseConfiguration cfg = dbRequirement.getConfiguration();
-		log.step("Create driver definition");
-		DriverDefinitionFactory.createDatabaseDriverDefinition(cfg);
-		log.step("Create connection profile");
-		ConnectionProfileFactory.createConnectionProfile(cfg);
-		log.step("Convert project to faceted form");
-		ProjectConfigurationFactory.convertProjectToFacetsForm(prj);
-		log.step("Set Hibernate JPA facet");
-		ProjectConfigurationFactory.setProjectFacetForDB(prj, cfg, jpaVersion);		
+		final DatabaseConfiguration cfg = dbRequirement.getConfiguration();
+		FixtureCache.getInstance().prepareProject(prj, "jpa-facets", hbVersion, jpaVersion, cfg, new Runnable() {
+			@Override
+			public void run() {
+				log.step("Import testing project");
+				importProject(prj);
+				log.step("Convert project to faceted form");
+				ProjectConfigurationFactory.convertProjectToFacetsForm(prj);
+				log.step("Set Hibernate JPA facet");
+				ProjectConfigurationFactory.setProjectFacetForDB(prj, cfg, jpaVersion);
+			}
+		});
 	}
     
     private void setParams(String prj, String hbVersion, String jpaVersion) {
     	this.prj = prj;
+    	this.hbVersion = hbVersion;
     	this.jpaVersion = jpaVersion;
     }
     
@@ -128,11 +129,8 @@ public class JPAEntityGenerationTest extends HibernateRedDeerTest {
     
 	@After
 	public void cleanUp() {
-		DatabaseConfiguration cfg = dbRequirement.getConfiguration();
-		ConnectionProfileFactory.deleteConnectionProfile(cfg.getProfileName());
-		
-		ProjectExplorer pe = new ProjectExplorer();
-		pe.open();
-		pe.getProject(prj).delete(true);
+		// entities are generated into the project and listed in
+		// persistence.xml, connection profile is kept
+		FixtureCache.getInstance().invalidate(prj);
 	}
 }
\ No newline at end of file
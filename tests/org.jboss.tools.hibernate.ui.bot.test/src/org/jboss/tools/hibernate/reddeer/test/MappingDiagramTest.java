@@ -14,8 +14,7 @@ import org.jboss.reddeer.swt.impl.menu.ContextMenu;
 import org.jboss.reddeer.workbench.impl.editor.DefaultEditor;
 import org.jboss.tools.hibernate.reddeer.common.FileHelper;
 import org.jboss.tools.hibernate.reddeer.console.KnownConfigurationsView;
-import org.jboss.tools.hibernate.reddeer.factory.ConnectionProfileFactory;
-import org.jboss.tools.hibernate.reddeer.factory.DriverDefinitionFactory;
+import org.jboss.tools.hibernate.reddeer.factory.FixtureCache;
 import org.jboss.tools.hibernate.reddeer.factory.HibernateToolsFactory;
 import org.jboss.tools.hibernate.reddeer.factory.ProjectConfigurationFactory;
 import org.jboss.tools.hibernate.reddeer.wizard.ConsoleConfigurationCreationWizardPage;
@@ -104,31 +103,31 @@ public class MappingDiagramTest extends HibernateRedDeerTest {
     }
     
 	public void prepareMavenProject() {
-		log.step("Import test project");
-    	importProject(prj);
-		DatabaseConfiguration cfg = dbRequirement.getConfiguration();
-		
-		log.step("Create database driver definition");
-		DriverDefinitionFactory.createDatabaseDriverDefinition(cfg);
-		log.step("Create database connection profile ");
-		ConnectionProfileFactory.createConnectionProfile(cfg);
-		log.step("Convert project to faceted form");
-		ProjectConfigurationFactory.convertProjectToFacetsForm(prj);
-		log.step("Set JPA facets to Hibernate Platform");
-		ProjectConfigurationFactory.setProjectFacetForDB(prj, cfg, jpaVersion);
-		
-		log.step("Open and set hibernate console configuration");
-
-		KnownConfigurationsView v = new KnownConfigurationsView();
-		v.open();
-		v.openConsoleConfiguration(prj);
-				
-		ConsoleConfigurationCreationWizardPage p = new ConsoleConfigurationCreationWizardPage();
-		p.setProject(prj);
-		p.setHibernateConsoleType(HibernateConsoleType.JPA);
-		p.setHibernateConsoleConnectionType(HibernateConsoleConnectionType.JPA);
-		p.setHibernateVersion(hbVersion);		
-		p.ok();
+		final DatabaseConfiguration cfg = dbRequirement.getConfiguration();
+		FixtureCache.getInstance().prepareProject(prj, "jpa-console", hbVersion, jpaVersion, cfg, new Runnable() {
+			@Override
+			public void run() {
+				log.step("Import test project");
+				importProject(prj);
+				log.step("Convert project to faceted form");
+				ProjectConfigurationFactory.convertProjectToFacetsForm(prj);
+				log.step("Set JPA facets to Hibernate Platform");
+				ProjectConfigurationFactory.setProjectFacetForDB(prj, cfg, jpaVersion);
+
+				log.step("Open and set hibernate console configuration");
+
+				KnownConfigurationsView v = new KnownConfigurationsView();
+				v.open();
+				v.openConsoleConfiguration(prj);
+
+				ConsoleConfigurationCreationWizardPage p = new ConsoleConfigurationCreationWizardPage();
+				p.setProject(prj);
+				p.setHibernateConsoleType(HibernateConsoleType.JPA);
+				p.setHibernateConsoleConnectionType(HibernateConsoleConnectionType.JPA);
+				p.setHibernateVersion(hbVersion);
+				p.ok();
+			}
+		});
 	}
 
     
@@ -164,11 +163,8 @@ public class MappingDiagramTest extends HibernateRedDeerTest {
 	}
 	
 	private void cleanUpMvn() {
-		DatabaseConfiguration cfg = dbRequirement.getConfiguration();
-		ConnectionProfileFactory.deleteConnectionProfile(cfg.getProfileName());
-		ProjectExplorer pe = new ProjectExplorer();
-		pe.open();
-		pe.getProject(prj).delete(true);	
+		// mapping diagram does not change the project, it is kept prepared
+		// in fixture cache together with connection profile
 	}
 	
 	private void cleanUpEcl() {
@@ -15,8 +15,7 @@ import org.jboss.reddeer.requirements.db.DatabaseRequirement.Database;
 import org.jboss.reddeer.swt.impl.tree.DefaultTreeItem;
 import org.jboss.reddeer.workbench.impl.editor.TextEditor;
 import org.jboss.tools.hibernate.reddeer.common.FileHelper;
-import org.jboss.tools.hibernate.reddeer.factory.ConnectionProfileFactory;
-import org.jboss.tools.hibernate.reddeer.factory.DriverDefinitionFactory;
+import org.jboss.tools.hibernate.reddeer.factory.FixtureCache;
 import org.jboss.tools.hibernate.reddeer.factory.HibernateToolsFactory;
 import org.jboss.tools.hibernate.reddeer.factory.ProjectConfigurationFactory;
 import org.jboss.tools.hibernate.reddeer.wizard.GenerateDdlWizard;
@@ -178,17 +177,18 @@ public class TablesFromJPAEntitiesGeneration extends HibernateRedDeerTest {
 	}
 
 	private void prepareMavenProject() {
-		log.step("Import test project");
-		importProject(prj);
-		DatabaseConfiguration cfg = dbRequirement.getConfiguration();
-		log.step("Create database driver definition");
-		DriverDefinitionFactory.createDatabaseDriverDefinition(cfg);
-		log.step("Create connection profile definition");
-		ConnectionProfileFactory.createConnectionProfile(cfg);
-		log.step("Convert project to faceted from");
-		ProjectConfigurationFactory.convertProjectToFacetsForm(prj);
-		log.step("Set JPA facets to Hibernate Platform");
-		ProjectConfigurationFactory.setProjectFacetForDB(prj, cfg, jpaVersion);
+		final DatabaseConfiguration cfg = dbRequirement.getConfiguration();
+		FixtureCache.getInstance().prepareProject(prj, "jpa-facets", hbVersion, jpaVersion, cfg, new Runnable() {
+			@Override
+			public void run() {
+				log.step("Import test project");
+				importProject(prj);
+				log.step("Convert project to faceted from");
+				ProjectConfigurationFactory.convertProjectToFacetsForm(prj);
+				log.step("Set JPA facets to Hibernate Platform");
+				ProjectConfigurationFactory.setProjectFacetForDB(prj, cfg, jpaVersion);
+			}
+		});
 	}
     
     private void prepareEclipseProject() {    	
@@ -203,10 +203,8 @@ public class TablesFromJPAEntitiesGeneration extends HibernateRedDeerTest {
     	importProject("hibernatelib");
     	importProject(prj);
 
-		log.step("Create database driver definition");
-		DriverDefinitionFactory.createDatabaseDriverDefinition(cfg);
-		log.step("Create connection profile definition");
-		ConnectionProfileFactory.createConnectionProfile(cfg);
+		log.step("Create database driver definition and connection profile");
+		FixtureCache.getInstance().prepareDatabase(cfg);
     	
 		log.step("Convert project to faceted from");
 		ProjectConfigurationFactory.convertProjectToFacetsForm(prj);
@@ -255,10 +253,8 @@ public class TablesFromJPAEntitiesGeneration extends HibernateRedDeerTest {
 	
 	@After
 	public void cleanUp() {
-		DatabaseConfiguration cfg = dbRequirement.getConfiguration();
-		ConnectionProfileFactory.deleteConnectionProfile(cfg.getProfileName());
-		ProjectExplorer pe = new ProjectExplorer();
-		pe.open();
-		pe.deleteAllProjects();
+		// generating ddl only adds the file, project stays prepared
+		FixtureCache.getInstance().deleteGenerated(prj, "src/main/java/" + DDL_FILE);
+		FixtureCache.getInstance().deleteUncachedProjects();
 	}
 }
\ No newline at end of file
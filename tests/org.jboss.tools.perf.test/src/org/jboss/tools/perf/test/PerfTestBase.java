@@ -2,7 +2,6 @@ package org.jboss.tools.perf.test;
 
 import java.io.File;
 
-import org.jboss.reddeer.common.wait.AbstractWait;
 import org.jboss.reddeer.common.wait.TimePeriod;
 import org.jboss.reddeer.common.wait.WaitUntil;
 import org.jboss.reddeer.common.wait.WaitWhile;
@@ -22,6 +21,9 @@ import org.jboss.reddeer.swt.impl.tree.DefaultTreeItem;
 import org.jboss.tools.maven.reddeer.preferences.MavenUserPreferencePage;
 import org.jboss.tools.maven.reddeer.wizards.MavenImportWizard;
 import org.jboss.tools.maven.reddeer.wizards.MavenImportWizardFirstPage;
+import org.jboss.tools.perf.test.core.monitor.PerformanceGate;
+import org.jboss.tools.perf.test.core.monitor.PerformanceSummary;
+import org.jboss.tools.perf.test.core.monitor.WorkbenchQuiescence;
 import org.junit.Before;
 import org.junit.BeforeClass;
 
@@ -29,12 +31,13 @@ public abstract class PerfTestBase {
     
     protected String projectFolder;
     public static final String USER_SETTINGS = "resources/usersettings/settings.xml"; 
+    private static final PerformanceGate gate = new PerformanceGate();
     
     @BeforeClass
     public static void prepareEclipse(){
        mavenOffline();
        setMavenSettings();
-       AbstractWait.sleep(TimePeriod.getCustom(120));
+       new WorkbenchQuiescence().waitForQuiescence();
     }
     
     @Before
@@ -96,9 +99,11 @@ public abstract class PerfTestBase {
         ip.copyProjectsIntoWorkspace(true);
         new CheckBox(new DefaultGroup("Options"),"Search for nested projects").toggle(true);
         new WaitUntil(new WidgetIsEnabled(new FinishButton()), TimePeriod.LONG);
+        long start = System.currentTimeMillis();
         new FinishButton().click();
         new WaitUntil(new JobIsRunning(), TimePeriod.ETERNAL);
         new WaitWhile(new JobIsRunning(), TimePeriod.ETERNAL);
+        checkBaseline(System.currentTimeMillis() - start);
     }
     
     public void importProjectWithMaven(){
@@ -106,9 +111,21 @@ public abstract class PerfTestBase {
     	mw.open();
     	MavenImportWizardFirstPage mp = (MavenImportWizardFirstPage)mw.getWizardPage(0);
     	mp.setRootDirectory("/home/jbossqa/validation/maven/"+projectFolder);
+    	long start = System.currentTimeMillis();
     	new FinishButton().click();
         new WaitUntil(new JobIsRunning(), TimePeriod.ETERNAL);
         new WaitWhile(new JobIsRunning(), TimePeriod.ETERNAL);
+        checkBaseline(System.currentTimeMillis() - start);
+    }
+    
+    /**
+     * Compares duration of the scenario with previously recorded runs and fails
+     * when it is slower than the noise band of the baseline
+     */
+    protected void checkBaseline(long duration){
+    	PerformanceSummary summary = new PerformanceSummary(getClass().getSimpleName());
+    	summary.put("duration", duration);
+    	gate.check(summary);
     }
 
 }
@@ -4,6 +4,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsNot.not;
 import static org.hamcrest.core.StringContains.containsString;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.util.logging.Level;
@@ -19,6 +20,7 @@ import org.jboss.reddeer.eclipse.exception.EclipseLayerException;
 import org.jboss.reddeer.eclipse.ui.console.ConsoleView;
 import org.jboss.reddeer.eclipse.wst.server.ui.view.Server;
 import org.jboss.reddeer.eclipse.wst.server.ui.view.ServersView;
+import org.jboss.tools.common.reddeer.server.ServerReadiness;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -86,9 +88,10 @@ public abstract class OperateServerTemplate {
 	}
 
 	public void startServer() {
+		ServerReadiness readiness = ServerReadiness.tryArm(getServerName());
 		serversView.getServer(getServerName()).start();
 		final String state = "Started";
-		new WaitUntil(new ConsoleHasNoChange(TimePeriod.getCustom(5)), TimePeriod.LONG);
+		waitUntilStarted("Starting server", readiness);
 		new WaitUntil(new ServerHasState(state));
 		
 		assertNoException("Starting server");
@@ -96,9 +99,10 @@ public abstract class OperateServerTemplate {
 	}
 
 	public void restartServer() {
+		ServerReadiness readiness = ServerReadiness.tryArm(getServerName());
 		serversView.getServer(getServerName()).restart();
 		final String state = "Started";
-		new WaitUntil(new ConsoleHasNoChange(TimePeriod.getCustom(5)), TimePeriod.LONG);
+		waitUntilStarted("Restarting server", readiness);
 		new WaitUntil(new ServerHasState(state));
 
 		assertNoException("Restarting server");
@@ -108,15 +112,34 @@ public abstract class OperateServerTemplate {
 	}
 
 	public void stopServer() {
+		ServerReadiness readiness = ServerReadiness.tryArm(getServerName());
 		serversView.getServer(getServerName()).stop();
 		final String state = "Stopped";
-		new WaitUntil(new ConsoleHasNoChange(TimePeriod.getCustom(5)), TimePeriod.LONG);
+		if (readiness == null) {
+			new WaitUntil(new ConsoleHasNoChange(TimePeriod.getCustom(5)), TimePeriod.LONG);
+		} else {
+			assertTrue("Stopping server: server did not stop in time",
+					readiness.waitUntilStopped(TimePeriod.LONG.getSeconds() * 1000));
+		}
 		new WaitUntil(new ServerHasState(state));
 
 		assertNoException("Stopping server");
 		assertServerState("Stopping server", state);
 	}
 
+	/**
+	 * waits for server readiness, falls back to console quiet period when the
+	 * server could not be found by its name
+	 */
+	private void waitUntilStarted(String message, ServerReadiness readiness) {
+		if (readiness == null) {
+			new WaitUntil(new ConsoleHasNoChange(TimePeriod.getCustom(5)), TimePeriod.LONG);
+		} else {
+			assertTrue(message + ": server is not started and synchronized in time",
+					readiness.waitUntilStarted(TimePeriod.LONG.getSeconds() * 1000));
+		}
+	}
+
 	public void deleteServer() {
 		serversView.getServer(getServerName()).delete();
 	}
@@ -0,0 +1,301 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package org.jboss.tools.vpe.ui.bot.test;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.regex.Pattern;
+
+import org.eclipse.swtbot.swt.finder.finders.UIThreadRunnable;
+import org.eclipse.swtbot.swt.finder.results.Result;
+import org.jboss.tools.common.model.util.XMLUtil;
+import org.jboss.tools.ui.bot.ext.CompareUtils;
+import org.mozilla.interfaces.nsIDOMAttr;
+import org.mozilla.interfaces.nsIDOMNamedNodeMap;
+import org.mozilla.interfaces.nsIDOMNode;
+import org.mozilla.interfaces.nsIDOMNodeList;
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+/**
+ * Compares VPE DOM with expected model DOM (see {@link TestDomUtil}).
+ *
+ * Model files are parsed once and every compared model node is normalized
+ * once into a compact tree: empty text nodes are left out, values are
+ * trimmed, attributes are sorted by name, skipped and illegal attributes and
+ * regular expressions are resolved. VPE DOM is then compared in a single UI
+ * thread pass which collects all mismatches.
+ */
+public class DomComparator {
+
+	private static final String COMMENT = "#comment"; //$NON-NLS-1$
+
+	private static final String COMMENT_PLACEHOLDER = "COMMENTPLACEHOLDER"; //$NON-NLS-1$
+
+	/** file path -> parsed model file */
+	private static final Map<String, ModelFile> files = new HashMap<String, ModelFile>();
+
+	/** model node -> normalized model */
+	private static final Map<Node, ModelNode> models = new WeakHashMap<Node, ModelNode>();
+
+	private static class ModelFile {
+		private final long lastModified;
+		private final Document document;
+
+		private ModelFile(long lastModified, Document document) {
+			this.lastModified = lastModified;
+			this.document = document;
+		}
+	}
+
+	private static class ModelAttribute {
+		private final String name;
+		private final String value;
+		/** pattern of /regex/ value, null for plain value */
+		private final Pattern pattern;
+
+		private ModelAttribute(String name, String value) {
+			this.name = name;
+			this.value = value;
+			if (value.startsWith(TestDomUtil.START_REGEX) && value.endsWith(TestDomUtil.END_REGEX)
+					&& value.length() >= TestDomUtil.START_REGEX.length() + TestDomUtil.END_REGEX.length()) {
+				this.pattern = Pattern.compile(value.substring(TestDomUtil.START_REGEX.length(), value.length()
+						- TestDomUtil.END_REGEX.length()));
+			} else {
+				this.pattern = null;
+			}
+		}
+	}
+
+	private static class ModelNode {
+		private String name;
+		/** trimmed value, null if node has no value */
+		private String value;
+		private List<ModelAttribute> attributes = Collections.emptyList();
+		private List<String> illegalAttributes = Collections.emptyList();
+		private List<ModelNode> children = new ArrayList<ModelNode>();
+	}
+
+	/**
+	 * Returns parsed model file. Document is shared by all callers and it is
+	 * parsed again only when the file changes, it must not be modified.
+	 */
+	public static Document getDocument(File file) throws FileNotFoundException {
+		String key = file.getAbsolutePath();
+		synchronized (files) {
+			ModelFile modelFile = files.get(key);
+			if (modelFile != null && modelFile.lastModified == file.lastModified()) {
+				return modelFile.document;
+			}
+		}
+		long lastModified = file.lastModified();
+		Document document = XMLUtil.getDocument(new FileReader(file));
+		synchronized (files) {
+			files.put(key, new ModelFile(lastModified, document));
+		}
+		return document;
+	}
+
+	/**
+	 * Compares VPE node with model node
+	 *
+	 * @return all mismatches, empty list if nodes match
+	 */
+	public static List<String> compare(final nsIDOMNode vpeNode, Node modelNode) {
+		final ModelNode model = getModel(modelNode);
+		return UIThreadRunnable.syncExec(new Result<List<String>>() {
+			public List<String> run() {
+				List<String> mismatches = new ArrayList<String>();
+				compare(vpeNode, model, model.name, mismatches);
+				return mismatches;
+			}
+		});
+	}
+
+	private static ModelNode getModel(Node modelNode) {
+		synchronized (models) {
+			ModelNode model = models.get(modelNode);
+			if (model == null) {
+				model = normalize(modelNode);
+				models.put(modelNode, model);
+			}
+			return model;
+		}
+	}
+
+	private static ModelNode normalize(Node node) {
+		ModelNode model = new ModelNode();
+		model.name = node.getNodeName();
+		model.value = node.getNodeValue() == null ? null : node.getNodeValue().trim();
+		if (node.getNodeType() == Node.ELEMENT_NODE && !isTemporaryDndElement(node)) {
+			normalizeAttributes(node.getAttributes(), model);
+		}
+		NodeList children = node.getChildNodes();
+		for (int i = 0; i < children.getLength(); i++) {
+			Node child = children.item(i);
+			if (!isEmptyText(child.getNodeType(), child.getNodeValue())) {
+				model.children.add(normalize(child));
+			}
+		}
+		return model;
+	}
+
+	/**
+	 * attributes of image which is dragged in VPE are not compared
+	 */
+	private static boolean isTemporaryDndElement(Node node) {
+		if (!"IMG".equalsIgnoreCase(node.getNodeName())) { //$NON-NLS-1$
+			return false;
+		}
+		NamedNodeMap attributes = node.getAttributes();
+		for (int i = 0; i < attributes.getLength(); i++) {
+			if ("vpetemporarydndelement".equalsIgnoreCase(((Attr) attributes.item(i)).getName())) { //$NON-NLS-1$
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static void normalizeAttributes(NamedNodeMap attributes, ModelNode model) {
+		List<ModelAttribute> modelAttributes = new ArrayList<ModelAttribute>();
+		List<String> illegalAttributes = new ArrayList<String>();
+		for (int i = 0; i < attributes.getLength(); i++) {
+			Attr attr = (Attr) attributes.item(i);
+			String name = attr.getName();
+			if (name != null && TestDomUtil.skippedAtributes.contains(name.toUpperCase())) {
+				continue;
+			}
+			if (TestDomUtil.ILLEGAL_ATTRIBUTES.equals(name)) {
+				for (String illegal : attr.getNodeValue().split(TestDomUtil.ILLEGAL_ATTRIBUTES_SEPARATOR)) {
+					illegalAttributes.add(illegal.trim());
+				}
+			} else {
+				modelAttributes.add(new ModelAttribute(name, attr.getNodeValue().trim()));
+			}
+		}
+		Collections.sort(modelAttributes, new Comparator<ModelAttribute>() {
+			public int compare(ModelAttribute a1, ModelAttribute a2) {
+				return a1.name.compareTo(a2.name);
+			}
+		});
+		model.attributes = modelAttributes;
+		model.illegalAttributes = illegalAttributes;
+	}
+
+	private static boolean isEmptyText(int nodeType, String value) {
+		return nodeType == Node.TEXT_NODE && (value == null || value.trim().length() == 0);
+	}
+
+	/**
+	 * compares nodes and their subtrees, has to be called in UI thread
+	 */
+	private static void compare(nsIDOMNode vpeNode, ModelNode model, String path, List<String> mismatches) {
+		if (COMMENT.equals(vpeNode.getNodeName())) {
+			if (!COMMENT_PLACEHOLDER.equalsIgnoreCase(model.name)) {
+				mismatches.add(path + ": name of tag is \"" + vpeNode.getNodeName() //$NON-NLS-1$
+						+ "\" but must be \"" + model.name + "\""); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			return;
+		}
+		if (!model.name.equalsIgnoreCase(vpeNode.getNodeName())) {
+			mismatches.add(path + ": name of tag is \"" + vpeNode.getNodeName() //$NON-NLS-1$
+					+ "\" but must be \"" + model.name + "\""); //$NON-NLS-1$ //$NON-NLS-2$
+			// subtree of other tag would give only misleading mismatches
+			return;
+		}
+		if (model.value != null) {
+			String vpeValue = vpeNode.getNodeValue() == null ? "" : vpeNode.getNodeValue().trim(); //$NON-NLS-1$
+			if (!model.value.equalsIgnoreCase(vpeValue)) {
+				mismatches.add(path + ": value is \"" + vpeValue //$NON-NLS-1$
+						+ "\" but must be \"" + model.value + "\""); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+		}
+		if (!model.attributes.isEmpty() || !model.illegalAttributes.isEmpty()) {
+			compareAttributes(vpeNode.getAttributes(), model, path, mismatches);
+		}
+		nsIDOMNodeList vpeChildren = vpeNode.getChildNodes();
+		long vpeCount = vpeChildren.getLength();
+		long vpeIndex = 0;
+		for (int i = 0; i < model.children.size(); i++) {
+			ModelNode modelChild = model.children.get(i);
+			nsIDOMNode vpeChild = null;
+			while (vpeIndex < vpeCount) {
+				nsIDOMNode candidate = vpeChildren.item(vpeIndex++);
+				// leave out empty text nodes in vpe dom model
+				if (!isEmptyText(candidate.getNodeType(), candidate.getNodeValue())) {
+					vpeChild = candidate;
+					break;
+				}
+			}
+			if (vpeChild == null) {
+				mismatches.add(path + ": child is \"null\", but should be \"" //$NON-NLS-1$
+						+ modelChild.name + "\""); //$NON-NLS-1$
+				return;
+			}
+			compare(vpeChild, modelChild, path + " > " + modelChild.name + "[" + i + "]", mismatches); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		}
+	}
+
+	private static void compareAttributes(nsIDOMNamedNodeMap vpeAttributes, ModelNode model, String path,
+			List<String> mismatches) {
+		if (vpeAttributes == null) {
+			mismatches.add(path + ": there are no attributes"); //$NON-NLS-1$
+			return;
+		}
+		for (String illegal : model.illegalAttributes) {
+			if (vpeAttributes.getNamedItem(illegal) != null) {
+				mismatches.add(path + ": illegal attribute :" + illegal); //$NON-NLS-1$
+			}
+		}
+		for (ModelAttribute attribute : model.attributes) {
+			nsIDOMNode vpeAttrNode = vpeAttributes.getNamedItem(attribute.name);
+			if (vpeAttrNode == null) {
+				mismatches.add(path + ": there is not : \"" + attribute.name + "\" attribute"); //$NON-NLS-1$ //$NON-NLS-2$
+				continue;
+			}
+			nsIDOMAttr vpeAttr = (nsIDOMAttr) vpeAttrNode.queryInterface(nsIDOMAttr.NS_IDOMATTR_IID);
+			String vpeValue = vpeAttr.getNodeValue().trim();
+			String mismatch = compareValues(attribute, vpeValue);
+			// try to compare as list of parameters
+			if (mismatch != null && !CompareUtils.compareStyleAttributes(attribute.value, vpeValue)) {
+				mismatches.add(path + "@" + attribute.name + ": " + mismatch); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+		}
+	}
+
+	/**
+	 * returns mismatch description or null if values match
+	 */
+	private static String compareValues(ModelAttribute attribute, String vpeValue) {
+		if (attribute.pattern != null) {
+			if (!attribute.pattern.matcher(vpeValue).find()) {
+				return "string is\"" + vpeValue + "\" but pattern is \"" + attribute.pattern.pattern() + "\""; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			}
+			return null;
+		}
+		String value = vpeValue.replaceAll("\n", " "); //$NON-NLS-1$ //$NON-NLS-2$
+		if (!attribute.value.equals(value)) {
+			return "string is\"" + value + "\" but must be \"" + attribute.value + "\""; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		}
+		return null;
+	}
+}
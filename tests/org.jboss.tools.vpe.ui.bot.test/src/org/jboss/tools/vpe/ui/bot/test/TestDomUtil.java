@@ -12,26 +12,17 @@ package org.jboss.tools.vpe.ui.bot.test;
 
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import org.jboss.tools.common.model.util.XMLUtil;
-import org.jboss.tools.ui.bot.ext.CompareUtils;
 import org.jboss.tools.vpe.editor.util.Constants;
-import org.mozilla.interfaces.nsIDOMAttr;
-import org.mozilla.interfaces.nsIDOMNamedNodeMap;
 import org.mozilla.interfaces.nsIDOMNode;
-import org.mozilla.interfaces.nsIDOMNodeList;
-import org.w3c.dom.Attr;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
-import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 
@@ -59,12 +50,14 @@ public class TestDomUtil {
 
 	final public static String END_REGEX = "/"; //$NON-NLS-1$
 
+	/**
+	 * Returns parsed model file, the document is cached and must not be
+	 * modified
+	 * 
+	 * @see DomComparator#getDocument(File)
+	 */
 	public static Document getDocument(File file) throws FileNotFoundException {
-		// create reader
-		FileReader reader = new FileReader(file);
-
-		// return document
-		return XMLUtil.getDocument(reader);
+		return DomComparator.getDocument(file);
 	}
 
 	public static Document getDocument(String content)
@@ -122,91 +115,25 @@ public class TestDomUtil {
 	}
 
 	/**
+	 * Compares VPE node with model node in one pass
 	 * 
 	 * @param vpeNode
-	 * @param schemeNode
-	 * @return
+	 * @param modelNode
 	 * @throws ComparisonException
+	 *             with all found mismatches
+	 * @see DomComparator
 	 */
 	public static void compareNodes(nsIDOMNode vpeNode, Node modelNode)
 			throws ComparisonException {
-		
-		if ("#comment".equals(vpeNode.getNodeName())){ //$NON-NLS-1$
-      if (!"COMMENTPLACEHOLDER".equalsIgnoreCase(modelNode.getNodeName())){
-        throw new ComparisonException("name of tag is \"" //$NON-NLS-1$
-            + vpeNode.getNodeName() + "\"but must be \"" //$NON-NLS-1$
-            + modelNode.getNodeName() + "\""); //$NON-NLS-1$        
-      }
-    }
-		else {
-		  if (!modelNode.getNodeName().equalsIgnoreCase(vpeNode.getNodeName())) {
-	      throw new ComparisonException("name of tag is \"" //$NON-NLS-1$
-	          + vpeNode.getNodeName() + "\"but must be \"" //$NON-NLS-1$
-	          + modelNode.getNodeName() + "\""); //$NON-NLS-1$
-	    }
-			if ((modelNode.getNodeValue() != null)
-					&& (!modelNode.getNodeValue().trim().equalsIgnoreCase(
-							vpeNode.getNodeValue().trim()))) {
-				throw new ComparisonException("value of " + vpeNode.getNodeName() //$NON-NLS-1$
-						+ " is \"" + vpeNode.getNodeValue().trim() //$NON-NLS-1$
-						+ "\" but must be \"" + modelNode.getNodeValue().trim() //$NON-NLS-1$
-						+ "\""); //$NON-NLS-1$
+		List<String> mismatches = DomComparator.compare(vpeNode, modelNode);
+		if (!mismatches.isEmpty()) {
+			StringBuilder message = new StringBuilder();
+			message.append(mismatches.size()).append(" mismatch(es) found:"); //$NON-NLS-1$
+			for (String mismatch : mismatches) {
+				message.append("\n").append(mismatch); //$NON-NLS-1$
 			}
-	    // compare node's attributes
-	    if (modelNode.getNodeType() == Node.ELEMENT_NODE) {
-	      boolean attrVpetemporarydndelementFound = false;
-	      if (modelNode.getNodeName().equalsIgnoreCase("IMG")){
-	        NamedNodeMap attrMap = modelNode.getAttributes();
-	        for (int index = 0 ; (!attrVpetemporarydndelementFound) && (index < attrMap.getLength()) ; index++){
-	          if (((Attr)attrMap.item(index)).getName().equalsIgnoreCase("vpetemporarydndelement")){
-	            attrVpetemporarydndelementFound = true;
-	          }
-	        }
-	      }
-	      if (!attrVpetemporarydndelementFound){
-	        compareAttributes(modelNode.getAttributes(), vpeNode.getAttributes());
-	      }
-	    }
-	    // compare children
-	    nsIDOMNodeList vpeChildren = vpeNode.getChildNodes();
-	    NodeList schemeChildren = modelNode.getChildNodes();
-	    int realCount = 0;
-	    for (int i = 0; i < schemeChildren.getLength(); i++) {
-
-	      Node schemeChild = schemeChildren.item(i);
-
-	      // leave out empty text nodes in test dom model
-	      if ((schemeChild.getNodeType() == Node.TEXT_NODE)
-	          && ((schemeChild.getNodeValue() == null) || (schemeChild
-	              .getNodeValue().trim().length() == 0)))
-	        continue;
-
-	      nsIDOMNode vpeChild = vpeChildren.item(realCount++);
-
-	      if (null == vpeChild) {
-	        throw new ComparisonException(
-	            "Child of node \"" //$NON-NLS-1$
-	                + vpeNode.getNodeName()
-	                + "\" is \"null\", but should be \"" + schemeChild.getNodeName() + "\""); //$NON-NLS-1$ //$NON-NLS-2$
-	      }
-
-	      // leave out empty text nodes in vpe dom model
-	      while (((vpeChild.getNodeType() == Node.TEXT_NODE) && ((vpeChild
-	          .getNodeValue() == null) || (vpeChild.getNodeValue().trim().length() == 0)))) {
-	        vpeChild = vpeChildren.item(realCount++);
-	        if (null == vpeChild) {
-	          throw new ComparisonException(
-	              "Child of node \"" //$NON-NLS-1$
-	                  + vpeNode.getNodeName()
-	                  + "\" is \"null\", but should be \"" + schemeChild.getNodeName() + "\""); //$NON-NLS-1$ //$NON-NLS-2$
-	        }
-	      }
-
-	      compareNodes(vpeChild, schemeChild);
-
-	    }
+			throw new ComparisonException(message.toString());
 		}
-	
 	}
 
 	/**
@@ -228,77 +155,4 @@ public class TestDomUtil {
 		return ids;
 	}
 
-	private static void compareAttributes(NamedNodeMap modelAttributes,
-			nsIDOMNamedNodeMap vpeAttributes) throws ComparisonException {
-
-		for (int i = 0; i < modelAttributes.getLength(); i++) {
-			Attr modelAttr = (Attr) modelAttributes.item(i);
-			String name = modelAttr.getName();
-
-			// if the attribute has to be skipped, then do it
-			if ( name != null 
-					&& skippedAtributes.contains(name.toUpperCase()) ) {
-				continue;
-			}
-
-			// if there are limitation of attributes
-			if (ILLEGAL_ATTRIBUTES.equals(name)) {
-
-				String[] illegalAttributes = modelAttr.getNodeValue().split(
-						ILLEGAL_ATTRIBUTES_SEPARATOR);
-
-				for (String illegalAttributeName : illegalAttributes) {
-					if (vpeAttributes.getNamedItem(illegalAttributeName.trim()) != null)
-						throw new ComparisonException("illegal attribute :" //$NON-NLS-1$
-								+ illegalAttributeName);
-				}
-
-			} else {
-
-				
-				if (vpeAttributes.getNamedItem(
-						name) == null)
-					throw new ComparisonException("there is not : \"" + name //$NON-NLS-1$
-							+ "\" attribute"); //$NON-NLS-1$
-				
-				nsIDOMAttr vpeAttr = (nsIDOMAttr) vpeAttributes.getNamedItem(
-						name).queryInterface(nsIDOMAttr.NS_IDOMATTR_IID);
-				
-        String modelAttribute = modelAttr.getNodeValue().trim();
-        String vpeAttribute = vpeAttr.getNodeValue().trim();
-				try{
-	        compareComplexStrings(modelAttribute,vpeAttribute);
-				} catch (ComparisonException ce){
-				  // Try to compare as list of parameters
-				  if (!CompareUtils.compareStyleAttributes(modelAttribute, vpeAttribute)){
-				    throw ce;
-				  }
-				}
-
-			}
-		}
-	}
-
-	static private void compareComplexStrings(String modelString,
-			String vpeString) throws ComparisonException {
-
-		if (modelString.startsWith(START_REGEX)
-				&& modelString.endsWith(END_REGEX)) {
-
-			String regex = modelString.substring(START_REGEX.length(),
-					modelString.length() - END_REGEX.length());
-
-			Matcher matcher = Pattern.compile(regex).matcher(vpeString);
-			if (!matcher.find()) {
-				throw new ComparisonException("string is\"" + vpeString //$NON-NLS-1$
-						+ "\" but pattern is \"" + regex + "\""); //$NON-NLS-1$ //$NON-NLS-2$
-			}
-
-		} else if (!modelString.equals(vpeString.replaceAll("\n", " "))) {
-			throw new ComparisonException("string is\"" + vpeString.replaceAll("\n", " ") //$NON-NLS-1$
-					+ "\" but must be \"" + modelString + "\""); //$NON-NLS-1$ //$NON-NLS-2$
-		}
-
-	}
-
 }
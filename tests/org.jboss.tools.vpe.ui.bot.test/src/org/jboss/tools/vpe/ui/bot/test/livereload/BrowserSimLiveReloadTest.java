@@ -21,6 +21,7 @@ import org.jboss.tools.vpe.ui.bot.test.browsersim.BrowserSimAssertions;
 import org.jboss.tools.vpe.ui.bot.test.editor.VPEEditorTestCase;
 import org.jboss.reddeer.common.wait.TimePeriod;
 import org.jboss.tools.browsersim.reddeer.BrowserSimHandler;
+import org.jboss.tools.browsersim.reddeer.PageLoad;
 import org.junit.After;
 /**
  * Tests LiveReload functionality in BrowserSim
@@ -82,10 +83,12 @@ public class BrowserSimLiveReloadTest extends VPEEditorTestCase{
 		bot.sleep(Timing.time5S());
 		// page has to be refreshed
 		BrowserSimAssertions.assertBrowserTextContains(browserSimHandler, headingV1);
+		PageLoad reload = browserSimHandler.expectPageLoad();
 		editor.setText(pageTextV0);
 		editor.save();
-		bot.sleep(Timing.time5S());
-    // page has to be refreshed
+		// page has to be refreshed
+		browserSimHandler.waitForPageLoad(reload, TimePeriod.NORMAL);
+		log.info("LiveReload refresh: " + reload);
     BrowserSimAssertions.assertBrowserTextContains(browserSimHandler, headingV0);
     // Disable LiveReload in BrowserSim
     browserSimHandler.clickContextMenu("Enable LiveReload");
@@ -103,9 +106,11 @@ public class BrowserSimLiveReloadTest extends VPEEditorTestCase{
 		browserSimHandler.loadUrlFromAddressBar(urlToLoad, TimePeriod.NORMAL);
 		BrowserSimAssertions.assertBrowserTextContains(browserSimHandler, headingV1);
 		// change page and test LiveReload propagating change
+		reload = browserSimHandler.expectPageLoad();
     editor.setText(pageTextV0);
     editor.save();
-    bot.sleep(Timing.time5S());
+    browserSimHandler.waitForPageLoad(reload, TimePeriod.NORMAL);
+    log.info("LiveReload refresh: " + reload);
     BrowserSimAssertions.assertBrowserTextContains(browserSimHandler, headingV0);
   }
   /**
@@ -116,6 +121,9 @@ public class BrowserSimLiveReloadTest extends VPEEditorTestCase{
   public void tearDown() throws Exception {
     // close opened BrowserSim
     if (browserSimHandler != null) {
+      for (PageLoad load : browserSimHandler.getPageLoads()) {
+        log.info("BrowserSim page load: " + load);
+      }
       browserSimHandler.checkContextMenu(false,"Enable LiveReload");
       browserSimHandler.close(); 
     }
@@ -0,0 +1,634 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package org.jboss.tools.ws.ui.bot.test.stub;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UnsupportedEncodingException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Local HTTP stand-in for remote SOAP and REST services. Serves recorded
+ * responses (fixtures) listed in index file, one fixture per line:
+ *
+ * <pre>
+ * &lt;method&gt; &lt;path&gt;[?query] &lt;status&gt; &lt;file&gt; [body part]
+ * </pre>
+ *
+ * Method is GET, POST, SOAP11 (POST of text/xml) or SOAP12 (POST of
+ * application/soap+xml). Fixture with query matches the same parameters in
+ * any order (names are case insensitive), fixture without query matches any
+ * query. Body part, if given, has to be contained in request body. The first
+ * matching fixture wins. Files are read relative to the index file,
+ * <code>${stub.url}</code> in them is replaced by URL of the server, so WSDL
+ * addresses point back to it.
+ *
+ * Connections are served by one selector thread, responses are prepared by
+ * pool of concurrency threads, which also apply configured latency. Responses
+ * can be padded to given payload size to test rendering of large responses.
+ */
+public class StubHttpServer {
+
+	private static final Logger LOGGER = Logger.getLogger(StubHttpServer.class.getName());
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	private static final String URL_PLACEHOLDER = "${stub.url}";
+
+	private static final byte[] HEADERS_END = { '\r', '\n', '\r', '\n' };
+
+	private final List<Fixture> fixtures;
+	private final int concurrency;
+	private final Queue<Runnable> selectorTasks = new ConcurrentLinkedQueue<Runnable>();
+	private volatile long latency;
+	private volatile int payloadSize;
+
+	private final AtomicLong requests = new AtomicLong();
+	private final AtomicLong bytesSent = new AtomicLong();
+	private final AtomicInteger active = new AtomicInteger();
+	private final AtomicInteger maxActive = new AtomicInteger();
+
+	private ServerSocketChannel serverChannel;
+	private Selector selector;
+	private ExecutorService workers;
+	private Thread selectorThread;
+	private volatile boolean running;
+	private String url;
+
+	private static class Fixture {
+		private String method;
+		private String path;
+		/** null matches any query */
+		private Map<String, String> query;
+		private int status;
+		private String file;
+		private String bodyPart;
+		private byte[] content;
+	}
+
+	private static class Request {
+		private String method;
+		private String path;
+		private Map<String, String> query;
+		private Map<String, String> headers = new TreeMap<String, String>(String.CASE_INSENSITIVE_ORDER);
+		private String body;
+		private boolean keepAlive;
+	}
+
+	/**
+	 * Connection state, used by selector thread only
+	 */
+	private static class Connection {
+		private final SocketChannel channel;
+		private final ByteArrayOutputStream in = new ByteArrayOutputStream();
+		private ByteBuffer out;
+		private boolean close;
+
+		private Connection(SocketChannel channel) {
+			this.channel = channel;
+		}
+	}
+
+	/**
+	 * Creates server serving fixtures listed in index file
+	 *
+	 * @param index
+	 *            class path of the index file, e.g.
+	 *            /resources/stub/fixtures.txt
+	 * @param concurrency
+	 *            number of requests served at once
+	 */
+	public StubHttpServer(String index, int concurrency) throws IOException {
+		this.fixtures = loadFixtures(index);
+		this.concurrency = Math.max(1, concurrency);
+	}
+
+	private static List<Fixture> loadFixtures(String index) throws IOException {
+		InputStream is = StubHttpServer.class.getResourceAsStream(index);
+		if (is == null) {
+			throw new IOException("Fixture index " + index + " does not exist");
+		}
+		String dir = index.substring(0, index.lastIndexOf('/') + 1);
+		List<Fixture> fixtures = new ArrayList<Fixture>();
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(is, UTF_8))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				line = line.trim();
+				if (line.isEmpty() || line.startsWith("#")) {
+					continue;
+				}
+				String[] parts = line.split("\\s+", 5);
+				if (parts.length < 4) {
+					throw new IOException("Invalid fixture in " + index + ": " + line);
+				}
+				Fixture fixture = new Fixture();
+				fixture.method = parts[0].toUpperCase(Locale.ENGLISH);
+				int query = parts[1].indexOf('?');
+				fixture.path = query < 0 ? parts[1] : parts[1].substring(0, query);
+				fixture.query = query < 0 ? null : parseQuery(parts[1].substring(query + 1));
+				fixture.status = Integer.parseInt(parts[2]);
+				fixture.file = parts[3];
+				fixture.bodyPart = parts.length > 4 ? parts[4] : null;
+				fixture.content = read(dir + fixture.file);
+				fixtures.add(fixture);
+			}
+		}
+		return fixtures;
+	}
+
+	private static byte[] read(String resource) throws IOException {
+		InputStream is = StubHttpServer.class.getResourceAsStream(resource);
+		if (is == null) {
+			throw new IOException("Fixture " + resource + " does not exist");
+		}
+		try {
+			ByteArrayOutputStream content = new ByteArrayOutputStream();
+			byte[] buffer = new byte[8192];
+			int read;
+			while ((read = is.read(buffer)) != -1) {
+				content.write(buffer, 0, read);
+			}
+			return content.toByteArray();
+		} finally {
+			is.close();
+		}
+	}
+
+	/**
+	 * Starts server on free local port
+	 */
+	public synchronized void start() throws IOException {
+		if (running) {
+			return;
+		}
+		selector = Selector.open();
+		serverChannel = ServerSocketChannel.open();
+		serverChannel.bind(new InetSocketAddress(InetAddress.getByName("localhost"), 0));
+		serverChannel.configureBlocking(false);
+		serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+		url = "http://localhost:" + serverChannel.socket().getLocalPort();
+		workers = Executors.newFixedThreadPool(concurrency);
+		running = true;
+		selectorThread = new Thread(new Runnable() {
+			public void run() {
+				serve();
+			}
+		}, "Stub HTTP server " + url);
+		selectorThread.setDaemon(true);
+		selectorThread.start();
+		LOGGER.info("Stub HTTP server started on " + url + " with " + fixtures.size() + " fixture(s)");
+	}
+
+	/**
+	 * Stops server and closes all connections
+	 */
+	public synchronized void stop() {
+		if (!running) {
+			return;
+		}
+		running = false;
+		selector.wakeup();
+		try {
+			selectorThread.join(TimeUnit.SECONDS.toMillis(5));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		workers.shutdownNow();
+		LOGGER.info("Stub HTTP server " + url + " stopped, served " + requests.get() + " request(s), "
+				+ bytesSent.get() + " bytes, at most " + maxActive.get() + " at once");
+	}
+
+	private void serve() {
+		try {
+			while (running) {
+				selector.select();
+				Runnable task;
+				while ((task = selectorTasks.poll()) != null) {
+					task.run();
+				}
+				Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+				while (keys.hasNext()) {
+					SelectionKey key = keys.next();
+					keys.remove();
+					try {
+						handle(key);
+					} catch (IOException e) {
+						LOGGER.log(Level.FINE, "Connection closed: " + e.getMessage());
+						close(key);
+					}
+				}
+			}
+		} catch (IOException e) {
+			LOGGER.log(Level.WARNING, "Stub HTTP server failed", e);
+		} finally {
+			for (SelectionKey key : selector.keys()) {
+				close(key);
+			}
+			try {
+				selector.close();
+			} catch (IOException e) {
+				LOGGER.log(Level.FINEST, e.getMessage(), e);
+			}
+		}
+	}
+
+	private void handle(SelectionKey key) throws IOException {
+		if (!key.isValid()) {
+			return;
+		}
+		if (key.isAcceptable()) {
+			SocketChannel channel = serverChannel.accept();
+			if (channel != null) {
+				channel.configureBlocking(false);
+				channel.register(selector, SelectionKey.OP_READ, new Connection(channel));
+			}
+			return;
+		}
+		Connection connection = (Connection) key.attachment();
+		if (key.isReadable()) {
+			ByteBuffer buffer = ByteBuffer.allocate(8192);
+			int read = connection.channel.read(buffer);
+			if (read < 0) {
+				close(key);
+				return;
+			}
+			connection.in.write(buffer.array(), 0, read);
+			dispatchNext(key, connection);
+		} else if (key.isWritable()) {
+			bytesSent.addAndGet(connection.channel.write(connection.out));
+			if (!connection.out.hasRemaining()) {
+				connection.out = null;
+				if (connection.close) {
+					close(key);
+				} else {
+					key.interestOps(SelectionKey.OP_READ);
+					// next request may already be read
+					dispatchNext(key, connection);
+				}
+			}
+		}
+	}
+
+	/**
+	 * hands complete request over to workers, connection is not read until
+	 * response is written
+	 */
+	private void dispatchNext(final SelectionKey key, final Connection connection) throws IOException {
+		final Request request = parse(connection);
+		if (request == null) {
+			return;
+		}
+		key.interestOps(0);
+		workers.execute(new Runnable() {
+			public void run() {
+				final ByteBuffer response = respond(request);
+				selectorTasks.add(new Runnable() {
+					public void run() {
+						if (key.isValid()) {
+							connection.out = response;
+							connection.close = !request.keepAlive;
+							key.interestOps(SelectionKey.OP_WRITE);
+						}
+					}
+				});
+				selector.wakeup();
+			}
+		});
+	}
+
+	/**
+	 * returns complete request read by connection, null if it is not complete
+	 * yet
+	 */
+	private static Request parse(Connection connection) throws IOException {
+		byte[] data = connection.in.toByteArray();
+		int headersEnd = indexOf(data, HEADERS_END, 0);
+		if (headersEnd < 0) {
+			return null;
+		}
+		String[] lines = new String(data, 0, headersEnd, UTF_8).split("\r\n");
+		String[] requestLine = lines[0].split(" ");
+		if (requestLine.length < 3) {
+			throw new IOException("Invalid request line: " + lines[0]);
+		}
+		Request request = new Request();
+		request.method = requestLine[0].toUpperCase(Locale.ENGLISH);
+		String target = requestLine[1];
+		int query = target.indexOf('?');
+		request.path = decode(query < 0 ? target : target.substring(0, query));
+		request.query = parseQuery(query < 0 ? "" : target.substring(query + 1));
+		for (int i = 1; i < lines.length; i++) {
+			int colon = lines[i].indexOf(':');
+			if (colon > 0) {
+				request.headers.put(lines[i].substring(0, colon).trim(), lines[i].substring(colon + 1).trim());
+			}
+		}
+		String connectionHeader = request.headers.get("Connection");
+		request.keepAlive = "HTTP/1.1".equals(requestLine[2]) ? !"close".equalsIgnoreCase(connectionHeader)
+				: "keep-alive".equalsIgnoreCase(connectionHeader);
+		int bodyStart = headersEnd + HEADERS_END.length;
+		int end;
+		if ("chunked".equalsIgnoreCase(request.headers.get("Transfer-Encoding"))) {
+			ByteArrayOutputStream body = new ByteArrayOutputStream();
+			end = readChunks(data, bodyStart, body);
+			if (end < 0) {
+				return null;
+			}
+			request.body = new String(body.toByteArray(), UTF_8);
+		} else {
+			String length = request.headers.get("Content-Length");
+			int contentLength = length == null ? 0 : Integer.parseInt(length);
+			end = bodyStart + contentLength;
+			if (data.length < end) {
+				return null;
+			}
+			request.body = new String(data, bodyStart, contentLength, UTF_8);
+		}
+		connection.in.reset();
+		connection.in.write(data, end, data.length - end);
+		return request;
+	}
+
+	/**
+	 * decodes chunked body, returns end of body or -1 if it is not complete
+	 */
+	private static int readChunks(byte[] data, int start, ByteArrayOutputStream body) {
+		int position = start;
+		while (true) {
+			int lineEnd = indexOf(data, new byte[] { '\r', '\n' }, position);
+			if (lineEnd < 0) {
+				return -1;
+			}
+			String size = new String(data, position, lineEnd - position, UTF_8);
+			int extension = size.indexOf(';');
+			int chunkSize = Integer.parseInt((extension < 0 ? size : size.substring(0, extension)).trim(), 16);
+			position = lineEnd + 2;
+			if (chunkSize == 0) {
+				// no trailers are expected
+				return data.length >= position + 2 ? position + 2 : -1;
+			}
+			if (data.length < position + chunkSize + 2) {
+				return -1;
+			}
+			body.write(data, position, chunkSize);
+			position += chunkSize + 2;
+		}
+	}
+
+	private static int indexOf(byte[] data, byte[] pattern, int from) {
+		for (int i = from; i <= data.length - pattern.length; i++) {
+			int j = 0;
+			while (j < pattern.length && data[i + j] == pattern[j]) {
+				j++;
+			}
+			if (j == pattern.length) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static Map<String, String> parseQuery(String query) {
+		Map<String, String> parameters = new TreeMap<String, String>(String.CASE_INSENSITIVE_ORDER);
+		for (String parameter : query.split("&")) {
+			if (parameter.isEmpty()) {
+				continue;
+			}
+			int equals = parameter.indexOf('=');
+			if (equals < 0) {
+				parameters.put(decode(parameter), "");
+			} else {
+				parameters.put(decode(parameter.substring(0, equals)), decode(parameter.substring(equals + 1)));
+			}
+		}
+		return parameters;
+	}
+
+	private static String decode(String value) {
+		try {
+			return URLDecoder.decode(value, "UTF-8");
+		} catch (UnsupportedEncodingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * prepares response to request, called by worker thread
+	 */
+	private ByteBuffer respond(Request request) {
+		int current = active.incrementAndGet();
+		try {
+			int max;
+			while ((max = maxActive.get()) < current && !maxActive.compareAndSet(max, current)) {
+				// retry
+			}
+			requests.incrementAndGet();
+			if (latency > 0) {
+				try {
+					Thread.sleep(latency);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			Fixture fixture = find(request);
+			if (fixture == null) {
+				LOGGER.warning("No fixture for " + request.method + " " + request.path + " " + request.query);
+				return response(404, "text/plain; charset=utf-8",
+						("No fixture for " + request.method + " " + request.path).getBytes(UTF_8), request.keepAlive);
+			}
+			String contentType = getContentType(fixture);
+			byte[] content = new String(fixture.content, UTF_8).replace(URL_PLACEHOLDER, url).getBytes(UTF_8);
+			return response(fixture.status, contentType, pad(content, contentType), request.keepAlive);
+		} finally {
+			active.decrementAndGet();
+		}
+	}
+
+	private Fixture find(Request request) {
+		String contentType = request.headers.get("Content-Type");
+		contentType = contentType == null ? "" : contentType.toLowerCase(Locale.ENGLISH);
+		for (Fixture fixture : fixtures) {
+			boolean methodMatches;
+			if ("SOAP11".equals(fixture.method)) {
+				methodMatches = "POST".equals(request.method) && contentType.startsWith("text/xml");
+			} else if ("SOAP12".equals(fixture.method)) {
+				methodMatches = "POST".equals(request.method) && contentType.startsWith("application/soap+xml");
+			} else {
+				methodMatches = fixture.method.equals(request.method);
+			}
+			if (methodMatches && fixture.path.equals(request.path)
+					&& (fixture.query == null || fixture.query.equals(request.query))
+					&& (fixture.bodyPart == null || request.body.contains(fixture.bodyPart))) {
+				return fixture;
+			}
+		}
+		return null;
+	}
+
+	private static String getContentType(Fixture fixture) {
+		if ("SOAP12".equals(fixture.method)) {
+			return "application/soap+xml; charset=utf-8";
+		}
+		String file = fixture.file.toLowerCase(Locale.ENGLISH);
+		if (file.endsWith(".xml") || file.endsWith(".wsdl") || file.endsWith(".xsd")) {
+			return "text/xml; charset=utf-8";
+		}
+		if (file.endsWith(".json")) {
+			return "application/json; charset=utf-8";
+		}
+		return "text/plain; charset=utf-8";
+	}
+
+	/**
+	 * pads content to configured payload size, XML by trailing comment
+	 */
+	private byte[] pad(byte[] content, String contentType) {
+		int missing = payloadSize - content.length;
+		if (missing <= 0) {
+			return content;
+		}
+		ByteArrayOutputStream padded = new ByteArrayOutputStream(payloadSize);
+		padded.write(content, 0, content.length);
+		boolean xml = contentType.contains("xml");
+		byte[] prefix = "\n<!--".getBytes(UTF_8);
+		byte[] suffix = "-->".getBytes(UTF_8);
+		if (xml && missing > prefix.length + suffix.length) {
+			padded.write(prefix, 0, prefix.length);
+			missing -= prefix.length + suffix.length;
+		} else {
+			xml = false;
+		}
+		for (int i = 0; i < missing; i++) {
+			padded.write(xml ? 'x' : ' ');
+		}
+		if (xml) {
+			padded.write(suffix, 0, suffix.length);
+		}
+		return padded.toByteArray();
+	}
+
+	private static ByteBuffer response(int status, String contentType, byte[] content, boolean keepAlive) {
+		String headers = "HTTP/1.1 " + status + " " + getReason(status) + "\r\n" + "Content-Type: " + contentType
+				+ "\r\n" + "Content-Length: " + content.length + "\r\n" + "Connection: "
+				+ (keepAlive ? "keep-alive" : "close") + "\r\n\r\n";
+		byte[] head = headers.getBytes(UTF_8);
+		ByteBuffer buffer = ByteBuffer.allocate(head.length + content.length);
+		buffer.put(head).put(content);
+		buffer.flip();
+		return buffer;
+	}
+
+	private static String getReason(int status) {
+		switch (status) {
+		case 200:
+			return "OK";
+		case 400:
+			return "Bad Request";
+		case 401:
+			return "Unauthorized";
+		case 404:
+			return "Not Found";
+		case 500:
+			return "Internal Server Error";
+		default:
+			return "Status";
+		}
+	}
+
+	private static void close(SelectionKey key) {
+		key.cancel();
+		try {
+			key.channel().close();
+		} catch (IOException e) {
+			LOGGER.log(Level.FINEST, e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Returns URL of the server, e.g. http://localhost:41234
+	 */
+	public String getUrl() {
+		return url;
+	}
+
+	/**
+	 * Sets delay (ms) of every response
+	 */
+	public void setLatency(long latency) {
+		this.latency = latency;
+	}
+
+	public long getLatency() {
+		return latency;
+	}
+
+	/**
+	 * Sets minimal size (bytes) of response bodies, smaller ones are padded
+	 */
+	public void setPayloadSize(int payloadSize) {
+		this.payloadSize = payloadSize;
+	}
+
+	public int getPayloadSize() {
+		return payloadSize;
+	}
+
+	public int getConcurrency() {
+		return concurrency;
+	}
+
+	public long getRequestCount() {
+		return requests.get();
+	}
+
+	public long getBytesSent() {
+		return bytesSent.get();
+	}
+
+	/**
+	 * Returns the highest number of requests served at once
+	 */
+	public int getMaxConcurrentRequests() {
+		return maxActive.get();
+	}
+
+	public void resetStatistics() {
+		requests.set(0);
+		bytesSent.set(0);
+		maxActive.set(0);
+	}
+}
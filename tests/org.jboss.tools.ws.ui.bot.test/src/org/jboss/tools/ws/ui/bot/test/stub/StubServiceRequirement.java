@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package org.jboss.tools.ws.ui.bot.test.stub;
+
+import java.io.IOException;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.jboss.reddeer.junit.requirement.Requirement;
+import org.jboss.tools.ws.ui.bot.test.stub.StubServiceRequirement.StubService;
+
+/**
+ * Starts {@link StubHttpServer} for test class, so that tests do not depend
+ * on remote services. Annotation values can be overridden by system
+ * properties ws.stub.latency, ws.stub.payloadSize and ws.stub.concurrency.
+ */
+public class StubServiceRequirement implements Requirement<StubService> {
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target(ElementType.TYPE)
+	public @interface StubService {
+
+		/** class path of fixture index */
+		String fixtures() default "/resources/stub/fixtures.txt";
+
+		/** delay (ms) of every response */
+		long latency() default 0;
+
+		/** minimal size (bytes) of response bodies */
+		int payloadSize() default 0;
+
+		/** number of requests served at once */
+		int concurrency() default 4;
+	}
+
+	private StubService declaration;
+
+	private StubHttpServer server;
+
+	@Override
+	public boolean canFulfill() {
+		return true;
+	}
+
+	@Override
+	public void fulfill() {
+		try {
+			server = new StubHttpServer(declaration.fixtures(),
+					Integer.getInteger("ws.stub.concurrency", declaration.concurrency()));
+			server.setLatency(Long.getLong("ws.stub.latency", declaration.latency()));
+			server.setPayloadSize(Integer.getInteger("ws.stub.payloadSize", declaration.payloadSize()));
+			server.start();
+		} catch (IOException e) {
+			throw new IllegalStateException("Unable to start stub service", e);
+		}
+	}
+
+	@Override
+	public void setDeclaration(StubService declaration) {
+		this.declaration = declaration;
+	}
+
+	@Override
+	public void cleanUp() {
+		if (server != null) {
+			server.stop();
+			server = null;
+		}
+	}
+
+	public StubHttpServer getServer() {
+		return server;
+	}
+
+	/**
+	 * Returns URL of stub service, e.g. http://localhost:41234
+	 */
+	public String getUrl() {
+		return server.getUrl();
+	}
+}
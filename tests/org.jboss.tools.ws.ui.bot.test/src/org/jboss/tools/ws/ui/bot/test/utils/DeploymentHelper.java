@@ -12,14 +12,14 @@
 package org.jboss.tools.ws.ui.bot.test.utils;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 
-import java.io.IOException;
 import java.net.HttpURLConnection;
-import java.net.MalformedURLException;
-import java.net.URL;
-import java.util.Scanner;
 import java.util.logging.Logger;
 
+import org.jboss.tools.common.reddeer.server.DeploymentObserver;
+import org.jboss.tools.common.reddeer.server.DeploymentObserver.Outcome;
+
 /**
  * DeploymentHelper
  * 
@@ -36,89 +36,57 @@ public class DeploymentHelper {
 
 	/**
 	 * Method checks if service is deployed by checking http header code
-	 * response of entered wsdURL and timeout for this operation
+	 * response of entered wsdURL and timeout for this operation. WSDL is
+	 * requested after server's deployment scanner reports the deployment
+	 * (see {@link DeploymentObserver})
 	 * @param wsdlURL
 	 * @param timeout
 	 */
 	public static void assertServiceDeployed(String wsdlURL, long timeout) {
-		long t = System.currentTimeMillis();
-		int rsp = -1;
-		while (t + timeout > System.currentTimeMillis()) {
-			HttpURLConnection connection = null;
-			try {
-				URL u = new URL(wsdlURL);
-				connection = (HttpURLConnection) u.openConnection();
-				rsp = connection.getResponseCode();
-				if (rsp == HttpURLConnection.HTTP_OK) {
-					break;
-				} else {
-					try {
-						Thread.sleep(1000);
-					} catch (InterruptedException e) {
-						// ignore
-					}
-					LOGGER.info("retrying...");
-				}
-			} catch (MalformedURLException e1) {
-				throw new RuntimeException(e1);
-			} catch (IOException e) {
-				throw new RuntimeException(e);
-			} finally {
-				if (connection != null) {
-					connection.disconnect();
-				}
-			}
-		}
-		LOGGER.info("done after: " + (System.currentTimeMillis() - t) + "ms.");
+		DeploymentObserver observer = awaitDeployment(wsdlURL, timeout);
 		assertEquals("Service was not sucessfully deployed, WSDL '" + wsdlURL
-				+ "' was not found", HttpURLConnection.HTTP_OK, rsp);
+				+ "' was not found", HttpURLConnection.HTTP_OK, observer.getResponseCode());
 	}
 	
 	/**
 	 * Returns http page for entered <var>url</var> of page in the specified
-	 * <var>timeout</var>
+	 * <var>timeout</var>. Page is requested after server's deployment scanner
+	 * reports the deployment (see {@link DeploymentObserver})
 	 *
 	 * @param url page url
 	 * @param timeout timeout of this operation
 	 * @return content of the http page
 	 */
 	public static String getPage(String url, long timeout) {
+		DeploymentObserver observer = awaitDeployment(url, timeout);
+		assertEquals("Cannot connect to '" + url + "'",
+				HttpURLConnection.HTTP_OK, observer.getResponseCode());
+		return observer.getPage();
+	}
+
+	/**
+	 * waits for deployment marker of application the url belongs to and then
+	 * requests the url until it responds. When no marker is watched, the url
+	 * is requested until it responds for the whole timeout.
+	 */
+	private static DeploymentObserver awaitDeployment(String url, long timeout) {
 		long t = System.currentTimeMillis();
-		int rsp = -1;
-		String page = null;
-		while (t + timeout > System.currentTimeMillis()) {
-			HttpURLConnection connection = null;
-			try {
-				URL u = new URL(url);
-				connection = (HttpURLConnection) u.openConnection();
-				rsp = connection.getResponseCode();
-				if (rsp == HttpURLConnection.HTTP_OK) {
-					try(Scanner scanner = new Scanner(connection.getInputStream())) {
-						page = scanner.useDelimiter("\\A").next();
-					}
-					break;
-				} else {
-					try {
-						Thread.sleep(1000);
-					} catch (InterruptedException e) {
-						// ignore
-					}
-					LOGGER.info("retrying...");
-				}
-			} catch (MalformedURLException e1) {
-				throw new RuntimeException(e1);
-			} catch (IOException e) {
-				throw new RuntimeException(e);
-			} finally {
-				if (connection != null) {
-					connection.disconnect();
-				}
+		DeploymentObserver observer = DeploymentObserver.watchStartedServerForURL(url);
+		try {
+			Outcome outcome = observer.isDeployed() ? Outcome.DEPLOYED : observer.waitForMarker(timeout);
+			assertFalse("Deployment of '" + url + "' failed: " + observer.getFailure(),
+					outcome == Outcome.FAILED);
+			if (outcome != Outcome.DEPLOYED) {
+				LOGGER.info("No deployment marker of '" + url + "' (" + outcome + "), polling it");
 			}
+			// the whole operation does not take longer than timeout
+			observer.probe(url, Math.max(0, t + timeout - System.currentTimeMillis()));
+		} finally {
+			observer.close();
 		}
-		LOGGER.info("done after: " + (System.currentTimeMillis() - t) + "ms.");
-		assertEquals("Cannot connect to '" + url + "'",
-				HttpURLConnection.HTTP_OK, rsp);
-		return page;
+		LOGGER.info("done after: " + (System.currentTimeMillis() - t) + "ms (deployment marker after "
+				+ observer.getMarkerLatency() + "ms, response after " + observer.getProbeLatency() + "ms).");
+		return observer;
 	}
 
 	/**
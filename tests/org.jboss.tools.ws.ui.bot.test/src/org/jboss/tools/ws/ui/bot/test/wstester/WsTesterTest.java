@@ -24,6 +24,7 @@ import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
 import org.jboss.reddeer.common.exception.WaitTimeoutExpiredException;
@@ -32,24 +33,34 @@ import org.jboss.reddeer.common.wait.TimePeriod;
 import org.jboss.reddeer.common.wait.WaitUntil;
 import org.jboss.reddeer.common.wait.WaitWhile;
 import org.jboss.reddeer.core.condition.ShellWithTextIsActive;
+import org.jboss.reddeer.junit.requirement.inject.InjectRequirement;
 import org.jboss.tools.ws.reddeer.swt.condition.WsTesterNotEmptyResponseText;
 import org.jboss.tools.ws.reddeer.ui.dialogs.InputDialog;
 import org.jboss.tools.ws.reddeer.ui.tester.views.SelectWSDLDialog;
 import org.jboss.tools.ws.reddeer.ui.tester.views.WsTesterView;
 import org.jboss.tools.ws.reddeer.ui.tester.views.WsTesterView.RequestType;
 import org.jboss.tools.ws.ui.bot.test.soap.SOAPTestBase;
+import org.jboss.tools.ws.ui.bot.test.stub.StubHttpServer;
+import org.jboss.tools.ws.ui.bot.test.stub.StubServiceRequirement;
+import org.jboss.tools.ws.ui.bot.test.stub.StubServiceRequirement.StubService;
 import org.junit.AfterClass;
 import org.junit.Assert;
 import org.junit.Test;
 
 /**
- * Tests for Web Service Tester
+ * Tests for Web Service Tester. Remote services are replaced by local stub
+ * service serving their recorded responses (see resources/stub).
  *
  * @author jlukas
  */
+@StubService
 public class WsTesterTest extends SOAPTestBase {
 
-	private static final String SERVICE_URL = "http://www.webservicex.net/BibleWebservice.asmx";
+	/** size (bytes) of large response */
+	private static final int LARGE_RESPONSE = 1024 * 1024;
+
+	@InjectRequirement
+	private static StubServiceRequirement stubService;
 
 	@Override
 	public void setup() {
@@ -66,6 +77,10 @@ public class WsTesterTest extends SOAPTestBase {
 		// do nothing
 	}
 
+	private static String getServiceURL() {
+		return stubService.getUrl() + "/BibleWebservice.asmx";
+	}
+
 	/**
 	 * Test behavior of UI
 	 */
@@ -184,7 +199,7 @@ public class WsTesterTest extends SOAPTestBase {
 		wstv.open();
 		wstv.setRequestType(RequestType.JAX_WS);
 		Assert.assertEquals(RequestType.JAX_WS, wstv.getRequestType());
-		wstv.setServiceURL(SERVICE_URL + "?WSDL");
+		wstv.setServiceURL(getServiceURL() + "?WSDL");
 		InputStream is = WsTesterTest.class
 				.getResourceAsStream("/resources/jbossws/message_soap_out.xml");
 		wstv.setRequestBody(readResource(is));
@@ -212,9 +227,9 @@ public class WsTesterTest extends SOAPTestBase {
 			selectWSDLDialog.openURL();
 			final String wsdlURLDialogTitle = "WSDL URL";
 			InputDialog wsdlURLDialog = new InputDialog(wsdlURLDialogTitle);
-			wsdlURLDialog.setInputText(SERVICE_URL + "?WSDL");
+			wsdlURLDialog.setInputText(getServiceURL() + "?WSDL");
 			wsdlURLDialog.ok();
-			assertEquals(SERVICE_URL + "?WSDL", selectWSDLDialog.getURI());
+			assertEquals(getServiceURL() + "?WSDL", selectWSDLDialog.getURI());
 			selectWSDLDialog.selectPort("BibleWebserviceSoap12");
 			selectWSDLDialog.ok();
 		} finally {
@@ -222,7 +237,7 @@ public class WsTesterTest extends SOAPTestBase {
 				selectWSDLDialog.close();
 			}
 		}
-		Assert.assertEquals(SERVICE_URL + "?WSDL", wstv.getServiceURL());
+		Assert.assertEquals(getServiceURL() + "?WSDL", wstv.getServiceURL());
 		InputStream is = WsTesterTest.class
 				.getResourceAsStream("/resources/jbossws/message_soap12_out.xml");
 		wstv.setRequestBody(readResource(is));
@@ -241,7 +256,7 @@ public class WsTesterTest extends SOAPTestBase {
 		WsTesterView wstv = new WsTesterView();
 		wstv.open();
 		wstv.setRequestType(RequestType.GET);
-		wstv.setServiceURL(SERVICE_URL + "/GetBibleWordsByChapterAndVerse");
+		wstv.setServiceURL(getServiceURL() + "/GetBibleWordsByChapterAndVerse");
 		wstv.setRequestParametersSectionExpansion(true);
 		wstv.addParameterRequestArg("BookTitle", "Luke");
 		wstv.addParameterRequestArg("chapter", "2");
@@ -270,7 +285,7 @@ public class WsTesterTest extends SOAPTestBase {
 		WsTesterView wstv = new WsTesterView();
 		wstv.open();
 		wstv.setRequestType(WsTesterView.RequestType.POST);
-		wstv.setServiceURL(SERVICE_URL + "/GetBibleWordsByChapterAndVerse");
+		wstv.setServiceURL(getServiceURL() + "/GetBibleWordsByChapterAndVerse");
 		String requestBody = "BookTitle=John&chapter=3&Verse=1\r";
 		wstv.setRequestBody(requestBody);
 		wstv.setResponseHeadersSectionExpansion(true);
@@ -294,12 +309,50 @@ public class WsTesterTest extends SOAPTestBase {
 		}
 	}
 
+	/**
+	 * Measures REST service invocations with regular and large response
+	 */
+	@Test
+	public void testInvocationTime() {
+		WsTesterView wstv = new WsTesterView();
+		wstv.open();
+		wstv.setRequestType(RequestType.GET);
+		wstv.setServiceURL(getServiceURL() + "/GetBibleWordsByChapterAndVerse");
+		wstv.setRequestParametersSectionExpansion(true);
+		wstv.addParameterRequestArg("BookTitle", "Luke");
+		wstv.addParameterRequestArg("chapter", "1");
+		wstv.addParameterRequestArg("Verse", "2");
+		StubHttpServer server = stubService.getServer();
+		int payloadSize = server.getPayloadSize();
+		try {
+			final int invocations = 5;
+			long start = System.nanoTime();
+			for (int i = 0; i < invocations; i++) {
+				wstv.invoke();
+				checkResponse(wstv.getResponseBody(), "ministers of the word");
+			}
+			long regular = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) / invocations;
+
+			server.setPayloadSize(LARGE_RESPONSE);
+			start = System.nanoTime();
+			wstv.invoke();
+			String rsp = wstv.getResponseBody();
+			long large = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+			checkResponse(rsp, "ministers of the word");
+			LOGGER.log(Level.INFO, "Invocation took {0} ms, with {1} bytes response {2} ms (latency {3} ms)",
+					new Object[] { regular, rsp.length(), large, server.getLatency() });
+		} finally {
+			server.setPayloadSize(payloadSize);
+			wstv.clearParameterRequestArgs();
+		}
+	}
+
 	@Test
 	public void testErrorResponse() {
 		WsTesterView wstv = new WsTesterView();
 		wstv.open();
 		wstv.setRequestType(RequestType.GET);
-		wstv.setServiceURL("http://www.zvents.com/rest/event_update");
+		wstv.setServiceURL(stubService.getUrl() + "/rest/event_update");
 		wstv.invoke();
 		Assert.assertEquals(0, wstv.getParameterRequestArgs().size());
 		String rsp = wstv.getResponseBody();
@@ -338,7 +391,7 @@ public class WsTesterTest extends SOAPTestBase {
 	private void checkResponse(String rsp, String expContent) {
 		if (!rsp.contains(expContent)) {
 			if (rsp.contains("503")) { // 503 Service Unavailable
-				throw new AssertionError("Service Unavailable: " + SERVICE_URL);
+				throw new AssertionError("Service Unavailable: " + getServiceURL());
 			} else {
 				throw new AssertionError("Response doesn't contains \""
 						+ expContent + "\"" + "\nResponse was:" + rsp);
@@ -401,12 +454,12 @@ public class WsTesterTest extends SOAPTestBase {
 		try {
 			dlg.openURL();
 			InputDialog wsdUrlDialog = new InputDialog();
-			wsdUrlDialog.typeInputText(SERVICE_URL + "?WSDL");
+			wsdUrlDialog.typeInputText(getServiceURL() + "?WSDL");
 			wsdUrlDialog.ok();
 
 			waitForProcessInformationDialog();
 
-			Assert.assertEquals(SERVICE_URL + "?WSDL", dlg.getURI());
+			Assert.assertEquals(getServiceURL() + "?WSDL", dlg.getURI());
 			List<String> items = dlg.getServices();
 			LOGGER.log(Level.FINE, "Services: {0}", items);
 			Assert.assertEquals(1, items.size());
@@ -424,9 +477,7 @@ public class WsTesterTest extends SOAPTestBase {
 			Assert.assertTrue(items.contains("GetBibleWordsByChapterAndVerse"));
 			dlg.selectOperation("GetBibleWordsbyKeyWord");
 			dlg.ok();
-			Assert.assertEquals(
-					"http://www.webservicex.net/BibleWebservice.asmx?WSDL",
-					wstv.getServiceURL());
+			Assert.assertEquals(getServiceURL() + "?WSDL", wstv.getServiceURL());
 		} finally {
 			if (new ShellWithTextIsActive(dlg.TITLE).test()) {
 				dlg.close();
@@ -0,0 +1,67 @@
+#!/bin/sh
+# Runs RequirementAwareSuite test bundle in several shards at once, every shard
+# on its own Xvfb display with its own build dir and workspace, then merges
+# JUnit reports of all shards into <bundle>/target/surefire-reports.
+# All shards plan from one snapshot of recorded class durations, durations
+# recorded by shards are merged back when all shards finished.
+#
+# Plugins (org.jboss.tools.ui.bot.ext etc.) have to be installed first:
+#   mvn install -f plugins/pom.xml
+#
+# Usage: tests/shard.sh <test bundle dir> <shards> [maven args]
+#   SHARD_DISPLAY_BASE - first X display number used (default 20)
+#   SHARD_DURATIONS - directory of recorded durations
+#                     (default ${TMPDIR:-/tmp}/jbosstools-shard-durations)
+
+if [ $# -lt 2 ]; then
+	echo "Usage: $0 <test bundle dir> <shards> [maven args]" >&2
+	exit 2
+fi
+
+BUNDLE=$(cd "$1" && pwd) || exit 2
+SHARDS=$2
+shift 2
+DISPLAY_BASE=${SHARD_DISPLAY_BASE:-20}
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+EXT="$ROOT/plugins/org.jboss.tools.ui.bot.ext"
+DURATIONS=${SHARD_DURATIONS:-${TMPDIR:-/tmp}/jbosstools-shard-durations}
+SNAPSHOT="$BUNDLE/target/shard-durations"
+
+mkdir -p "$BUNDLE/target"
+rm -rf "$SNAPSHOT"
+mkdir -p "$SNAPSHOT"
+cp "$DURATIONS"/*.properties "$SNAPSHOT" 2>/dev/null
+XVFB_PIDS=""
+MVN_PIDS=""
+i=0
+while [ $i -lt $SHARDS ]; do
+	DISPLAY_NUMBER=$((DISPLAY_BASE + i))
+	rm -rf "$BUNDLE/target/shard-$i/durations"
+	Xvfb :$DISPLAY_NUMBER -screen 0 1600x1200x24 >/dev/null 2>&1 &
+	XVFB_PIDS="$XVFB_PIDS $!"
+	(cd "$BUNDLE" && DISPLAY=:$DISPLAY_NUMBER mvn -B integration-test \
+		-Dswtbotext.shard.count=$SHARDS -Dswtbotext.shard.index=$i \
+		-Dswtbotext.shard.durations="$SNAPSHOT" \
+		-Dswtbotext.shard.record="$BUNDLE/target/shard-$i/durations" "$@" \
+		> "$BUNDLE/target/shard-$i.log" 2>&1) &
+	MVN_PIDS="$MVN_PIDS $!"
+	echo "Shard $i running on display :$DISPLAY_NUMBER, log target/shard-$i.log"
+	i=$((i + 1))
+done
+
+RESULT=0
+for pid in $MVN_PIDS; do
+	wait $pid || RESULT=1
+done
+kill $XVFB_PIDS 2>/dev/null
+
+CLASSPATH=$(ls "$EXT"/target/org.jboss.tools.ui.bot.ext-*.jar 2>/dev/null | head -n 1)
+if [ -z "$CLASSPATH" ]; then
+	CLASSPATH="$EXT/target/classes"
+fi
+java -cp "$CLASSPATH" org.jboss.tools.ui.bot.ext.ShardReportMerger "$BUNDLE/target/surefire-reports" \
+	"$BUNDLE"/target/shard-*/surefire-reports || RESULT=1
+java -cp "$CLASSPATH" org.jboss.tools.ui.bot.ext.ShardDurationsMerger "$DURATIONS" \
+	"$BUNDLE"/target/shard-*/durations || RESULT=1
+
+exit $RESULT